@@ -1,25 +1,90 @@
 package com.aigo.config;
 
+import com.aigo.metrics.EpisodeUsageTaskDecorator;
+import com.aigo.metrics.InstrumentedTaskDecorator;
+import com.aigo.tracing.DecoratingExecutorService;
+import com.aigo.tracing.TracingTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * 异步执行配置
+ * 生成流程几乎全是阻塞 I/O，默认使用虚拟线程执行；
+ * 对外部服务的实际并发由 ProviderGateway 的信号量控制，而不是线程数。
+ * 每个执行器都记录排队等待和执行耗时，指标以 name 标签区分（值为 bean 名），
+ * 并把提交方的 span 和剧集用量累加器带到执行线程，@Async 生成任务与发起请求属于同一条链路，
+ * 并行生成的场景图片计入所属剧集的生成报告
+ */
 @Configuration
 public class AsyncConfig implements AsyncConfigurer {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
-    
+
+    @Value("${aigo.async.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${aigo.async.max-concurrent-episodes:500}")
+    private int maxConcurrentEpisodes;
+
+    @Value("${aigo.async.scene-pool-size:5}")
+    private int scenePoolSize;
+
+    @Value("${aigo.novel-parse.pool-size:4}")
+    private int novelParsePoolSize;
+
+    @Value("${aigo.novel-parse.queue-capacity:20}")
+    private int novelParseQueueCapacity;
+
+    @Value("${aigo.auth.hash-pool-size:0}")
+    private int passwordHashPoolSize;
+
+    @Value("${aigo.auth.hash-queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private ObjectProvider<Tracer> tracer;
+
     @Bean(name = "taskExecutor")
     @Override
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            logger.info("[AsyncConfig] Initializing virtual-thread episode executor");
+
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-episode-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrentEpisodes);
+            executor.setTaskTerminationTimeout(60000);
+            // 装饰发生在并发限流之前，等待限流的时间也计入 executor.idle
+            executor.setTaskDecorator(decorator("taskExecutor"));
+
+            logger.info("[AsyncConfig] Virtual threads enabled - max concurrent episodes: {}", maxConcurrentEpisodes);
+            return executor;
+        }
+
         logger.info("[AsyncConfig] Initializing async thread pool executor");
-        
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);
         executor.setMaxPoolSize(8);
@@ -28,9 +93,81 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(decorator("taskExecutor"));
         executor.initialize();
-        
+
         logger.info("[AsyncConfig] Thread pool configured - core: 4, max: 8, queue: 100");
         return executor;
     }
+
+    /**
+     * 场景图片并行生成使用的执行器
+     */
+    @Bean(name = "sceneExecutor", destroyMethod = "shutdown")
+    public ExecutorService sceneExecutor() {
+        ExecutorService executor;
+        if (virtualThreads) {
+            logger.info("[AsyncConfig] Scene fan-out uses virtual thread per task");
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scene-", 0).factory());
+        } else {
+            logger.info("[AsyncConfig] Scene fan-out uses fixed pool of {} threads", scenePoolSize);
+            executor = Executors.newFixedThreadPool(scenePoolSize);
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            executor = ExecutorServiceMetrics.monitor(registry, executor, "sceneExecutor");
+        }
+        return new DecoratingExecutorService(executor, new CompositeTaskDecorator(List.of(
+                new EpisodeUsageTaskDecorator(),
+                new TracingTaskDecorator(tracer))));
+    }
+
+    /**
+     * /api/novel/parse 解析任务执行器
+     * 队列有界，满时直接拒绝，避免匿名请求无限堆积
+     */
+    @Bean(name = "novelParseExecutor")
+    public ThreadPoolTaskExecutor novelParseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(novelParsePoolSize);
+        executor.setMaxPoolSize(novelParsePoolSize);
+        executor.setQueueCapacity(novelParseQueueCapacity);
+        executor.setThreadNamePrefix("novel-parse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(decorator("novelParseExecutor"));
+        executor.initialize();
+
+        logger.info("[AsyncConfig] Novel parse executor configured - pool: {}, queue: {}",
+                novelParsePoolSize, novelParseQueueCapacity);
+        return executor;
+    }
+
+    /**
+     * 登录、注册的密码哈希执行器
+     * BCrypt 是纯 CPU 计算，线程数默认等于 CPU 核数，队列有界，满时直接拒绝，
+     * 登录高峰时哈希最多占满这些线程，不会挤占其他接口的 CPU 和请求线程
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int poolSize = passwordHashPoolSize > 0 ? passwordHashPoolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(decorator("passwordHashExecutor"));
+        executor.initialize();
+
+        logger.info("[AsyncConfig] Password hash executor configured - pool: {}, queue: {}",
+                poolSize, passwordHashQueueCapacity);
+        return executor;
+    }
+
+    private TaskDecorator decorator(String executorName) {
+        return new CompositeTaskDecorator(List.of(
+                new InstrumentedTaskDecorator(executorName, meterRegistry),
+                new EpisodeUsageTaskDecorator(),
+                new TracingTaskDecorator(tracer)));
+    }
 }
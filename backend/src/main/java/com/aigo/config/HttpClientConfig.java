@@ -0,0 +1,154 @@
+package com.aigo.config;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 外部 AI 服务共用的 HTTP 客户端
+ * 所有 RestTemplate 共享同一个连接池，长连接复用避免每次调用都重新进行 TLS 握手；
+ * 各服务只在响应超时上区分
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    @Value("${http.client.max-total:200}")
+    private int maxTotal;
+
+    @Value("${http.client.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${http.client.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.connection-request-timeout-ms:30000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${http.client.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Value("${http.client.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${http.client.time-to-live-seconds:300}")
+    private long timeToLiveSeconds;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(Environment environment) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+
+        // 按服务的 base url 单独设置每路由连接上限，多个服务共用同一主机时取较大值
+        Map<HttpRoute, Integer> routeLimits = new HashMap<>();
+        addRouteLimit(routeLimits, environment, "qiniu.text2img.api.base.url", "http.client.image.max-per-route");
+        addRouteLimit(routeLimits, environment, "qiniu.tts.api.base.url", "http.client.tts.max-per-route");
+        addRouteLimit(routeLimits, environment, "qiniu.video.api.base.url", "http.client.video.max-per-route");
+        routeLimits.forEach(connectionManager::setMaxPerRoute);
+
+        logger.info("[HttpClientConfig] Connection pool configured - max total: {}, default per route: {}, route limits: {}",
+                maxTotal, maxPerRoute, routeLimits);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient aiHttpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(baseRequestConfig().build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                // 重试由 ProviderGateway 统一处理
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean(name = "imageRestTemplate")
+    public RestTemplate imageRestTemplate(CloseableHttpClient aiHttpClient,
+                                          @Value("${http.client.image.response-timeout-ms:30000}") long responseTimeoutMs) {
+        return buildRestTemplate(aiHttpClient, responseTimeoutMs);
+    }
+
+    @Bean(name = "videoRestTemplate")
+    public RestTemplate videoRestTemplate(CloseableHttpClient aiHttpClient,
+                                          @Value("${http.client.video.response-timeout-ms:120000}") long responseTimeoutMs) {
+        return buildRestTemplate(aiHttpClient, responseTimeoutMs);
+    }
+
+    @Bean(name = "ttsRestTemplate")
+    public RestTemplate ttsRestTemplate(CloseableHttpClient aiHttpClient,
+                                        @Value("${http.client.tts.response-timeout-ms:30000}") long responseTimeoutMs) {
+        return buildRestTemplate(aiHttpClient, responseTimeoutMs);
+    }
+
+    private RestTemplate buildRestTemplate(CloseableHttpClient httpClient, long responseTimeoutMs) {
+        RequestConfig requestConfig = baseRequestConfig()
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        });
+        return new RestTemplate(factory);
+    }
+
+    private RequestConfig.Builder baseRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds));
+    }
+
+    private void addRouteLimit(Map<HttpRoute, Integer> routeLimits, Environment environment,
+                               String baseUrlProperty, String limitProperty) {
+        String baseUrl = environment.getProperty(baseUrlProperty);
+        Integer limit = environment.getProperty(limitProperty, Integer.class);
+        if (baseUrl == null || limit == null) {
+            return;
+        }
+        try {
+            HttpHost host = RoutingSupport.normalize(HttpHost.create(URI.create(baseUrl)), DefaultSchemePortResolver.INSTANCE);
+            HttpRoute route = new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+            routeLimits.merge(route, limit, Math::max);
+        } catch (Exception e) {
+            logger.warn("[HttpClientConfig] Ignoring route limit for invalid url {}: {}", baseUrl, e.getMessage());
+        }
+    }
+}
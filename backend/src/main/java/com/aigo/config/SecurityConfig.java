@@ -1,9 +1,12 @@
 package com.aigo.config;
 
 import com.aigo.security.JwtAuthenticationFilter;
+import com.aigo.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -24,6 +27,8 @@ import java.util.Arrays;
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final Environment environment;
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -31,13 +36,21 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/langchain/test", "/api/novel/parse").permitAll()
-                .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
-                .requestMatchers("/api/gallery").permitAll()
-                .anyRequest().authenticated()
-            )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .authorizeHttpRequests(auth -> {
+                auth
+                    .requestMatchers("/api/langchain/test", "/api/novel/parse", "/api/novel/parse/*").permitAll()
+                    .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                    .requestMatchers("/api/gallery").permitAll()
+                    .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll();
+                if (environment.acceptsProfiles(JwtAuthenticationFilter.SIMULATOR_PROFILE)) {
+                    // 模拟器接口仅 simulator profile 下存在，供本机压测时各服务调用，其他环境不放行
+                    auth.requestMatchers("/simulator/**").permitAll();
+                }
+                auth.anyRequest().authenticated();
+            })
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // 限流需要已解析的 userId，必须位于 JWT 过滤器之后
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -56,8 +69,11 @@ public class SecurityConfig {
         return source;
     }
     
+    /**
+     * 调高 bcrypt-strength 后，旧哈希在用户下次登录成功时按新强度重新计算
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${aigo.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -4,27 +4,58 @@ import com.aigo.dto.ApiResponse;
 import com.aigo.dto.auth.AuthResponse;
 import com.aigo.dto.auth.LoginRequest;
 import com.aigo.dto.auth.RegisterRequest;
+import com.aigo.security.JwtPrincipal;
+import com.aigo.security.TokenCacheStats;
+import com.aigo.security.VerifiedTokenCache;
 import com.aigo.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
     
     private final AuthService authService;
+    private final VerifiedTokenCache tokenCache;
     
+    /**
+     * 密码哈希在独立线程池中完成，返回 CompletableFuture，等待期间不占用请求线程
+     */
     @PostMapping("/register")
-    public ApiResponse<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return ApiResponse.success(response);
+    public CompletableFuture<ApiResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        return authService.register(request).thenApply(ApiResponse::success);
     }
     
     @PostMapping("/login")
-    public ApiResponse<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
-        return ApiResponse.success(response);
+    public CompletableFuture<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return authService.login(request).thenApply(ApiResponse::success);
+    }
+    
+    @PostMapping("/logout")
+    public ApiResponse<Map<String, String>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(authorization.substring(7));
+        return ApiResponse.success(Map.of("message", "已退出登录"));
+    }
+    
+    @PostMapping("/logout-all")
+    public ApiResponse<Map<String, String>> logoutAll(@AuthenticationPrincipal JwtPrincipal principal) {
+        authService.logoutAll(principal.getUserId());
+        return ApiResponse.success(Map.of("message", "已退出所有设备"));
+    }
+    
+    /**
+     * 令牌缓存命中率等指标
+     * GET /api/auth/token-cache
+     */
+    @GetMapping("/token-cache")
+    public ApiResponse<TokenCacheStats> getTokenCacheStats() {
+        return ApiResponse.success(tokenCache.getStats());
     }
 }
@@ -1,47 +1,38 @@
 package com.aigo.controller;
 
 import com.aigo.dto.ApiResponse;
+import com.aigo.dto.comment.CommentPageResponse;
 import com.aigo.dto.comment.CommentResponse;
 import com.aigo.dto.comment.CreateCommentRequest;
-import com.aigo.security.JwtUtil;
+import com.aigo.security.JwtPrincipal;
 import com.aigo.service.CommentService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/comments")
 @RequiredArgsConstructor
 public class CommentController {
     
     private final CommentService commentService;
-    private final JwtUtil jwtUtil;
-    
-    private String getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractClaims(token).get("userId", String.class);
-        }
-        return null;
-    }
     
     @GetMapping("/{targetType}/{targetId}")
-    public ApiResponse<List<CommentResponse>> getComments(
+    public ApiResponse<CommentPageResponse> getComments(
             @PathVariable String targetType,
-            @PathVariable String targetId) {
-        List<CommentResponse> comments = commentService.getComments(targetType, targetId);
+            @PathVariable String targetId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CommentPageResponse comments = commentService.getComments(targetType, targetId, cursor, limit);
         return ApiResponse.success(comments);
     }
     
     @PostMapping
     public ApiResponse<CommentResponse> createComment(
             @Valid @RequestBody CreateCommentRequest request,
-            HttpServletRequest httpRequest) {
-        String userId = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        String userId = principal.getUserId();
         CommentResponse comment = commentService.createComment(request, userId);
         return ApiResponse.success(comment);
     }
@@ -49,8 +40,8 @@ public class CommentController {
     @DeleteMapping("/{commentId}")
     public ApiResponse<String> deleteComment(
             @PathVariable String commentId,
-            HttpServletRequest httpRequest) {
-        String userId = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        String userId = principal.getUserId();
         commentService.deleteComment(commentId, userId);
         return ApiResponse.success("评论已删除");
     }
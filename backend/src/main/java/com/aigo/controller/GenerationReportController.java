@@ -0,0 +1,59 @@
+package com.aigo.controller;
+
+import com.aigo.dto.ApiResponse;
+import com.aigo.dto.report.GenerationCostSummary;
+import com.aigo.dto.report.GenerationReportResponse;
+import com.aigo.security.JwtPrincipal;
+import com.aigo.service.GenerationReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 单集生成的消耗与耗时报告
+ */
+@RestController
+@RequestMapping("/api/generation-reports")
+@RequiredArgsConstructor
+public class GenerationReportController {
+
+    private final GenerationReportService generationReportService;
+
+    /**
+     * 某一集最近一次生成的报告
+     * GET /api/generation-reports/episodes/{episodeId}
+     */
+    @GetMapping("/episodes/{episodeId}")
+    public ApiResponse<GenerationReportResponse> getEpisodeReport(
+            @PathVariable String episodeId,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        return ApiResponse.success(generationReportService.getLatestReport(episodeId, principal.getUserId()));
+    }
+
+    /**
+     * 当前用户名下作品按作品汇总的生成消耗
+     * GET /api/generation-reports/works?sort=time|tokens&limit=20
+     */
+    @GetMapping("/works")
+    public ApiResponse<List<GenerationCostSummary>> getWorkCosts(
+            @RequestParam(defaultValue = "time") String sort,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        return ApiResponse.success(generationReportService.summarizeByWork(principal.getUserId(), sort, limit));
+    }
+
+    /**
+     * 当前用户的生成消耗合计
+     * GET /api/generation-reports/me
+     */
+    @GetMapping("/me")
+    public ApiResponse<GenerationCostSummary> getMyCosts(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ApiResponse.success(generationReportService.summarizeUser(principal.getUserId()));
+    }
+}
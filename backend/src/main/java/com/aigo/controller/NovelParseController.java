@@ -1,18 +1,17 @@
 package com.aigo.controller;
 
-import com.aigo.model.AnimeSegment;
+import com.aigo.dto.ApiResponse;
+import com.aigo.dto.novel.NovelParseJobResponse;
 import com.aigo.model.NovelParseRequest;
-import com.aigo.service.NovelParseService;
+import com.aigo.service.NovelParseJobService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api/novel")
 @CrossOrigin(origins = "*")
@@ -21,35 +20,29 @@ public class NovelParseController {
     private static final Logger logger = LoggerFactory.getLogger(NovelParseController.class);
     
     @Autowired
-    private NovelParseService novelParseService;
+    private NovelParseJobService novelParseJobService;
     
+    /**
+     * 提交解析任务，立即返回任务 ID
+     * POST /api/novel/parse
+     */
     @PostMapping("/parse")
-    public ResponseEntity<?> parseNovel(@Valid @RequestBody NovelParseRequest request) {
+    public ResponseEntity<ApiResponse<NovelParseJobResponse>> parseNovel(@Valid @RequestBody NovelParseRequest request) {
         logger.info("[NovelParseController] Received parse request - text length: {}, style: {}, targetAudience: {}", 
             request.getText() != null ? request.getText().length() : 0,
             request.getStyle(),
             request.getTargetAudience());
         
-        try {
-            AnimeSegment segment = novelParseService.parseNovelText(
-                request.getText(),
-                request.getStyle(),
-                request.getTargetAudience()
-            );
-            
-            logger.info("[NovelParseController] Successfully parsed novel - characters: {}, scenes: {}",
-                segment.getCharacters() != null ? segment.getCharacters().size() : 0,
-                segment.getScenes() != null ? segment.getScenes().size() : 0);
-            
-            return ResponseEntity.ok(segment);
-            
-        } catch (Exception e) {
-            logger.error("[NovelParseController] Failed to parse novel", e);
-            
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "解析失败");
-            error.put("message", e.getMessage());
-            return ResponseEntity.internalServerError().body(error);
-        }
+        NovelParseJobResponse job = novelParseJobService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(job));
+    }
+    
+    /**
+     * 查询解析任务状态和结果
+     * GET /api/novel/parse/{jobId}
+     */
+    @GetMapping("/parse/{jobId}")
+    public ResponseEntity<ApiResponse<NovelParseJobResponse>> getParseJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(novelParseJobService.getJob(jobId)));
     }
 }
@@ -6,11 +6,11 @@ import com.aigo.dto.user.RechargeRequest;
 import com.aigo.dto.user.RechargeResponse;
 import com.aigo.dto.user.UploadAvatarRequest;
 import com.aigo.dto.user.UploadAvatarResponse;
-import com.aigo.security.JwtUtil;
+import com.aigo.security.JwtPrincipal;
 import com.aigo.service.UserService;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,36 +23,26 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
     
     private final UserService userService;
-    private final JwtUtil jwtUtil;
-    
-    private String getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractClaims(token).get("userId", String.class);
-        }
-        return null;
-    }
     
     @GetMapping("/balance")
-    public ApiResponse<BalanceResponse> getBalance(HttpServletRequest httpRequest) {
-        String userId = getUserIdFromRequest(httpRequest);
+    public ApiResponse<BalanceResponse> getBalance(@AuthenticationPrincipal JwtPrincipal principal) {
+        String userId = principal.getUserId();
         BalanceResponse response = userService.getBalance(userId);
         return ApiResponse.success(response);
     }
     
     @PostMapping("/recharge")
     public ApiResponse<RechargeResponse> rechargeCoins(@Valid @RequestBody RechargeRequest request,
-                                                         HttpServletRequest httpRequest) {
-        String userId = getUserIdFromRequest(httpRequest);
+                                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        String userId = principal.getUserId();
         RechargeResponse response = userService.rechargeCoins(userId, request.getAmount());
         return ApiResponse.success(response);
     }
     
     @PostMapping("/avatar")
     public ApiResponse<UploadAvatarResponse> uploadAvatar(@Valid @RequestBody UploadAvatarRequest request,
-                                                            HttpServletRequest httpRequest) {
-        String userId = getUserIdFromRequest(httpRequest);
+                                                            @AuthenticationPrincipal JwtPrincipal principal) {
+        String userId = principal.getUserId();
         UploadAvatarResponse response = userService.uploadAvatar(userId, request.getAvatarData());
         return ApiResponse.success(response);
     }
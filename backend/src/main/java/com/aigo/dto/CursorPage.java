@@ -0,0 +1,34 @@
+package com.aigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ * nextCursor 为空表示没有更多数据
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasMore;
+    
+    /**
+     * 由多取一条的查询结果构造分页：结果超过 limit 说明还有下一页，
+     * 多出的一条丢弃，游标取本页最后一条
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+        boolean hasMore = fetched.size() > limit;
+        List<T> items = hasMore ? new ArrayList<>(fetched.subList(0, limit)) : fetched;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,48 @@
+package com.aigo.dto.comment;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 评论列表的分页游标
+ * 记录上一页最后一条评论的创建时间和 id，编码为不透明的 base64url 字符串返回给前端
+ */
+@Getter
+@AllArgsConstructor
+public class CommentCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private final LocalDateTime createdAt;
+    private final String id;
+    
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析游标；游标为空时返回 null 表示第一页
+     */
+    public static CommentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            if (parts.length != 2 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("cursor mismatch");
+            }
+            return new CommentCursor(LocalDateTime.parse(parts[0]), parts[1]);
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+}
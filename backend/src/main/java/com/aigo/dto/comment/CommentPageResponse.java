@@ -0,0 +1,23 @@
+package com.aigo.dto.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 评论分页结果
+ * totalCount 为评论对象上维护的评论总数，不随分页变化
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageResponse {
+    private List<CommentResponse> items;
+    private String nextCursor;
+    private Boolean hasMore;
+    private Integer totalCount;
+}
@@ -6,34 +6,54 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
+/**
+ * 集数列表项
+ * 只包含列表展示需要的字段，不含小说全文和场景数据，完整内容通过集数详情接口获取
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EpisodeListItem {
+
+    /**
+     * 列表中展示的小说开头长度
+     */
+    public static final int SUMMARY_LENGTH = 100;
+
     private String id;
+    private String workId;
     private Integer episodeNumber;
     private String title;
-    private String novelText;
+    private String summary;
     private Boolean isFree;
     private Integer coinPrice;
     private Boolean isPublished;
     private Boolean isPurchased;
-    private List<Episode.SceneData> scenes;
-    
+    private Integer sceneCount;
+
+    /**
+     * JPQL 构造器投影使用，见 EpisodeRepository
+     */
+    public EpisodeListItem(String id, String workId, Integer episodeNumber, String title, String summary,
+                           Boolean isFree, Integer coinPrice, Boolean isPublished, Integer sceneCount) {
+        this(id, workId, episodeNumber, title, summary, isFree, coinPrice, isPublished, false, sceneCount);
+    }
+
     public static EpisodeListItem fromEntity(Episode episode) {
+        String novelText = episode.getNovelText();
         return EpisodeListItem.builder()
                 .id(episode.getId())
+                .workId(episode.getWorkId())
                 .episodeNumber(episode.getEpisodeNumber())
                 .title(episode.getTitle())
-                .novelText(episode.getNovelText())
+                .summary(novelText != null && novelText.length() > SUMMARY_LENGTH
+                        ? novelText.substring(0, SUMMARY_LENGTH) : novelText)
                 .isFree(episode.getIsFree())
                 .coinPrice(episode.getCoinPrice())
                 .isPublished(episode.getIsPublished())
                 .isPurchased(false)
-                .scenes(episode.getScenes())
+                .sceneCount(episode.getScenes() != null ? episode.getScenes().size() : 0)
                 .build();
     }
 }
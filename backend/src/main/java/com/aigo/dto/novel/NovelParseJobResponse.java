@@ -0,0 +1,22 @@
+package com.aigo.dto.novel;
+
+import com.aigo.model.AnimeSegment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NovelParseJobResponse {
+    private String jobId;
+    private String status;
+    private AnimeSegment result;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
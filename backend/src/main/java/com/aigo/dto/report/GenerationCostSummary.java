@@ -0,0 +1,60 @@
+package com.aigo.dto.report;
+
+import com.aigo.repository.GenerationCostRow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按作品或用户汇总的生成消耗，包含失败和重试的生成
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationCostSummary {
+    /**
+     * 作品 id 或用户 id，取决于汇总维度
+     */
+    private String key;
+    private Long generations;
+    private Long failures;
+    private Long totalMs;
+    private Long avgMs;
+    private Long providerCalls;
+    private Long retries;
+    private Long imageCalls;
+    private Long ttsCalls;
+    private Long videoCalls;
+    private Long bytesUploaded;
+    private Long inputTokens;
+    private Long outputTokens;
+
+    /**
+     * 没有任何生成记录时的汇总
+     */
+    public static GenerationCostSummary empty(String key) {
+        return new GenerationCostSummary(key, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    public static GenerationCostSummary fromRow(GenerationCostRow row) {
+        long generations = row.getGenerations() != null ? row.getGenerations() : 0;
+        long totalMs = row.getTotalMs() != null ? row.getTotalMs() : 0;
+        return GenerationCostSummary.builder()
+                .key(row.getGroupKey())
+                .generations(generations)
+                .failures(row.getFailures())
+                .totalMs(totalMs)
+                .avgMs(generations > 0 ? totalMs / generations : 0)
+                .providerCalls(row.getProviderCalls())
+                .retries(row.getRetries())
+                .imageCalls(row.getImageCalls())
+                .ttsCalls(row.getTtsCalls())
+                .videoCalls(row.getVideoCalls())
+                .bytesUploaded(row.getBytesUploaded())
+                .inputTokens(row.getInputTokens())
+                .outputTokens(row.getOutputTokens())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.aigo.dto.report;
+
+import com.aigo.entity.EpisodeGenerationReport;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationReportResponse {
+    private String episodeId;
+    private String workId;
+    private String status;
+    private String contentType;
+    private Long totalMs;
+    private Long providerCalls;
+    private Long retries;
+    private Long imageCalls;
+    private Long ttsCalls;
+    private Long videoCalls;
+    private Long fallbacks;
+    private Long bytesUploaded;
+    private Long inputTokens;
+    private Long outputTokens;
+    private List<EpisodeGenerationReport.StageDetail> stages;
+    private List<EpisodeGenerationReport.ProviderDetail> providers;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+
+    public static GenerationReportResponse fromEntity(EpisodeGenerationReport report) {
+        return GenerationReportResponse.builder()
+                .episodeId(report.getEpisodeId())
+                .workId(report.getWorkId())
+                .status(report.getStatus())
+                .contentType(report.getContentType())
+                .totalMs(report.getTotalMs())
+                .providerCalls(report.getProviderCalls())
+                .retries(report.getRetries())
+                .imageCalls(report.getImageCalls())
+                .ttsCalls(report.getTtsCalls())
+                .videoCalls(report.getVideoCalls())
+                .fallbacks(report.getFallbacks())
+                .bytesUploaded(report.getBytesUploaded())
+                .inputTokens(report.getInputTokens())
+                .outputTokens(report.getOutputTokens())
+                .stages(report.getStages())
+                .providers(report.getProviders())
+                .errorMessage(report.getErrorMessage())
+                .createdAt(report.getCreatedAt())
+                .build();
+    }
+}
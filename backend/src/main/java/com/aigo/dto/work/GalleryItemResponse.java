@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class GalleryItemResponse {
@@ -27,6 +27,27 @@ public class GalleryItemResponse {
     private String authorName;
     private String authorAvatar;
     
+    /**
+     * 广场列表 JPQL 构造器投影使用，isLiked 由调用方按当前用户批量填充
+     */
+    public GalleryItemResponse(String id, String userId, String title, String description, String coverImage,
+                               String contentType, Integer likesCount, Integer viewsCount, Long episodeCount,
+                               LocalDateTime createdAt, String authorName, String authorAvatar) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.description = description;
+        this.coverImage = coverImage;
+        this.contentType = contentType;
+        this.likesCount = likesCount;
+        this.viewsCount = viewsCount;
+        this.isLiked = false;
+        this.episodeCount = episodeCount != null ? episodeCount.intValue() : 0;
+        this.createdAt = createdAt;
+        this.authorName = authorName;
+        this.authorAvatar = authorAvatar;
+    }
+    
     public static GalleryItemResponse fromEntity(Work work, boolean isLiked, int episodeCount) {
         return GalleryItemResponse.builder()
                 .id(work.getId())
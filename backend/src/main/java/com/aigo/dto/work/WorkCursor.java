@@ -0,0 +1,90 @@
+package com.aigo.dto.work;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 作品列表的分页游标
+ * 记录上一页最后一条的排序键和 id，编码为不透明的 base64url 字符串返回给前端
+ */
+@Getter
+@AllArgsConstructor
+public class WorkCursor {
+    
+    public static final String SORT_LATEST = "latest";
+    public static final String SORT_LIKES = "likes";
+    public static final String SORT_TRENDING = "trending";
+    
+    private static final String SEPARATOR = "|";
+    
+    private final String sort;
+    private final String key;
+    private final String id;
+    
+    public static WorkCursor latest(LocalDateTime createdAt, String id) {
+        return new WorkCursor(SORT_LATEST, createdAt.toString(), id);
+    }
+    
+    public static WorkCursor likes(Integer likesCount, String id) {
+        return new WorkCursor(SORT_LIKES, String.valueOf(likesCount), id);
+    }
+    
+    /**
+     * 热门趋势榜单没有可比较的排序键，记录下一页在榜单中的起始位置
+     */
+    public static WorkCursor trending(int offset, String id) {
+        return new WorkCursor(SORT_TRENDING, String.valueOf(offset), id);
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return LocalDateTime.parse(key);
+    }
+    
+    public Integer getLikesCount() {
+        return Integer.valueOf(key);
+    }
+    
+    public int getOffset() {
+        return Integer.parseInt(key);
+    }
+    
+    public String encode() {
+        String raw = sort + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析游标并校验排序方式与当前请求一致；游标为空时返回 null 表示第一页
+     */
+    public static WorkCursor decode(String cursor, String expectedSort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3 || !expectedSort.equals(parts[0]) || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("cursor mismatch");
+            }
+            WorkCursor decoded = new WorkCursor(parts[0], parts[1], parts[2]);
+            if (SORT_LIKES.equals(decoded.sort)) {
+                decoded.getLikesCount();
+            } else if (SORT_TRENDING.equals(decoded.sort)) {
+                if (decoded.getOffset() < 0) {
+                    throw new IllegalArgumentException("negative offset");
+                }
+            } else {
+                decoded.getCreatedAt();
+            }
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+}
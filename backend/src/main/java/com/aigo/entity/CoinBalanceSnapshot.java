@@ -0,0 +1,48 @@
+package com.aigo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 金币余额快照，每个用户一行
+ * balance 为 created_at 早于 asOf 的全部流水之和，当前余额 = balance + asOf 之后的流水之和。
+ * 扣减金币时锁定这一行，同一用户的扣减串行执行；充值只追加流水，不碰这一行
+ */
+@Entity
+@Table(name = "coin_balance_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoinBalanceSnapshot {
+
+    @Id
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Column(nullable = false)
+    private Integer balance;
+
+    @Column(name = "as_of", nullable = false, columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime asOf;
+
+    /**
+     * 版本号为空时按新实体插入，两个请求同时建立快照时后插入的一方触发主键冲突
+     */
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
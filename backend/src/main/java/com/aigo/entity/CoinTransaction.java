@@ -0,0 +1,65 @@
+package com.aigo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 金币流水，只追加不修改，是金币余额的唯一来源
+ * amount 为本次变动额（扣减为负数）；余额由 {@link CoinBalanceSnapshot} 加上其后的流水得出。
+ * created_at 与快照的 as_of 同为微秒精度，否则按秒取整后可能落到快照另一侧，被漏算或重复计算
+ */
+@Entity
+@Table(name = "coin_transactions", indexes = {
+    @Index(name = "idx_coin_tx_user_created", columnList = "user_id, created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoinTransaction {
+    
+    public static final String TYPE_RECHARGE = "RECHARGE";
+    public static final String TYPE_PURCHASE = "PURCHASE";
+    
+    @Id
+    @GeneratedValue(generator = "uuid")
+    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(length = 36)
+    private String id;
+    
+    @Column(name = "user_id", nullable = false, length = 36)
+    private String userId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private Integer amount;
+    
+    @Column(nullable = false, length = 20)
+    private String type;
+    
+    /**
+     * 关联的业务ID，购买时为集数ID
+     */
+    @Column(name = "reference_id", length = 36)
+    private String referenceId;
+    
+    @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments", indexes = {
-    @Index(name = "idx_target", columnList = "target_type, target_id"),
+    @Index(name = "idx_target_created", columnList = "target_type, target_id, created_at"),
     @Index(name = "idx_user_id", columnList = "user_id"),
     @Index(name = "idx_created_at", columnList = "created_at")
 })
@@ -55,6 +55,12 @@ public class Episode {
     @Column(columnDefinition = "JSON")
     private List<SceneData> scenes;
     
+    /**
+     * 场景数量，随 scenes 一起写入，列表页不必读取 scenes JSON
+     */
+    @Column(name = "scene_count")
+    private Integer sceneCount;
+    
     @Column(name = "is_free", nullable = false)
     @Builder.Default
     private Boolean isFree = true;
@@ -67,6 +73,13 @@ public class Episode {
     @Builder.Default
     private Boolean isPublished = false;
     
+    /**
+     * 集数的评论数，只随评论的新增、删除原子增减，保存集数时不回写
+     */
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer commentsCount = 0;
+    
     @Column(name = "status", length = 20)
     @Builder.Default
     private String status = "PENDING";
@@ -106,6 +119,12 @@ public class Episode {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        syncSceneCount();
+    }
+    
+    @PreUpdate
+    protected void syncSceneCount() {
+        sceneCount = scenes != null ? scenes.size() : 0;
     }
     
     @Data
@@ -0,0 +1,133 @@
+package com.aigo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 单次剧集生成的耗时与资源消耗报告
+ * 每次生成（包括重试）写入一行，按作品、用户汇总时重试的消耗也计入；
+ * 汇总用到的数值放在普通列中，各阶段、各提供方的明细以 JSON 保存
+ */
+@Entity
+@Table(name = "episode_generation_reports",
+    indexes = {
+        @Index(name = "idx_report_episode", columnList = "episode_id, created_at"),
+        @Index(name = "idx_report_work", columnList = "work_id"),
+        @Index(name = "idx_report_user", columnList = "user_id")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpisodeGenerationReport {
+
+    @Id
+    @GeneratedValue(generator = "uuid")
+    @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "episode_id", nullable = false, length = 36)
+    private String episodeId;
+
+    @Column(name = "work_id", length = 36)
+    private String workId;
+
+    /**
+     * 作品作者，即为这次生成付费的用户
+     */
+    @Column(name = "user_id", length = 36)
+    private String userId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "content_type", length = 20)
+    private String contentType;
+
+    @Column(name = "total_ms", nullable = false)
+    private Long totalMs;
+
+    @Column(name = "provider_calls", nullable = false)
+    private Long providerCalls;
+
+    @Column(name = "retries", nullable = false)
+    private Long retries;
+
+    @Column(name = "image_calls", nullable = false)
+    private Long imageCalls;
+
+    @Column(name = "tts_calls", nullable = false)
+    private Long ttsCalls;
+
+    @Column(name = "video_calls", nullable = false)
+    private Long videoCalls;
+
+    @Column(name = "fallbacks", nullable = false)
+    private Long fallbacks;
+
+    @Column(name = "bytes_uploaded", nullable = false)
+    private Long bytesUploaded;
+
+    @Column(name = "input_tokens", nullable = false)
+    private Long inputTokens;
+
+    @Column(name = "output_tokens", nullable = false)
+    private Long outputTokens;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "stages", columnDefinition = "JSON")
+    private List<StageDetail> stages;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "providers", columnDefinition = "JSON")
+    private List<ProviderDetail> providers;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * 单个阶段的调用次数与耗时
+     * busyMs 为各次调用耗时之和，wallMs 为第一次调用开始到最后一次结束，并行阶段 wallMs 远小于 busyMs
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageDetail {
+        private String stage;
+        private Long calls;
+        private Long errors;
+        private Long busyMs;
+        private Long wallMs;
+    }
+
+    /**
+     * 单个提供方实际发出的请求数（含重试）与重试次数
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProviderDetail {
+        private String provider;
+        private Long attempts;
+        private Long retries;
+    }
+}
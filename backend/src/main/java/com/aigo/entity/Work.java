@@ -15,7 +15,10 @@ import java.util.List;
 @Table(name = "works", indexes = {
     @Index(name = "idx_user_id", columnList = "user_id"),
     @Index(name = "idx_is_public", columnList = "is_public"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_works_public_created", columnList = "is_public, created_at, id"),
+    @Index(name = "idx_works_public_likes", columnList = "is_public, likes_count, id"),
+    @Index(name = "idx_works_user_created", columnList = "user_id, created_at, id")
 })
 @Data
 @Builder
@@ -53,14 +56,24 @@ public class Work {
     @Builder.Default
     private String contentType = "anime";
     
-    @Column(name = "likes_count", nullable = false)
+    /**
+     * 点赞数和浏览量只通过原子 UPDATE 增减，保存作品时不回写，避免覆盖并发的计数
+     */
+    @Column(name = "likes_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer likesCount = 0;
     
-    @Column(name = "views_count", nullable = false)
+    @Column(name = "views_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer viewsCount = 0;
     
+    /**
+     * 作品的评论数，只随评论的新增、删除原子增减，保存作品时不回写
+     */
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer commentsCount = 0;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
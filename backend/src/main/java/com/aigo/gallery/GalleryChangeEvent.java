@@ -0,0 +1,37 @@
+package com.aigo.gallery;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 影响作品广场内容的变更
+ * likesDelta 不为 0 时表示点赞数变化，可在缓存中增量修正；否则表示作品本身变化，需要重建。
+ * 取消点赞时 likedAt 为被取消的那次点赞的时间，热度按该时间扣除已衰减的贡献
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class GalleryChangeEvent {
+    
+    private final String workId;
+    private final int likesDelta;
+    private final LocalDateTime likedAt;
+    
+    public static GalleryChangeEvent likesChanged(String workId, int delta) {
+        return new GalleryChangeEvent(workId, delta, null);
+    }
+    
+    public static GalleryChangeEvent unliked(String workId, LocalDateTime likedAt) {
+        return new GalleryChangeEvent(workId, -1, likedAt);
+    }
+    
+    public static GalleryChangeEvent workChanged(String workId) {
+        return new GalleryChangeEvent(workId, 0, null);
+    }
+    
+    public boolean isLikesChange() {
+        return likesDelta != 0;
+    }
+}
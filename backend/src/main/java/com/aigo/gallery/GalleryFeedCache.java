@@ -0,0 +1,311 @@
+package com.aigo.gallery;
+
+import com.aigo.dto.work.GalleryItemResponse;
+import com.aigo.dto.work.WorkCursor;
+import com.aigo.repository.WorkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 作品广场 "最新" 与 "最热" 两个榜单的进程内缓存
+ * 每个榜单只保存前 N 条，翻页落在窗口内时直接从内存返回，超出窗口再回到数据库按游标查询。
+ * 作品发布、修改、删除时递增版本号，下次读取时重建；点赞只在已缓存的条目上增量修正。
+ * 每次点赞变更按顺序编号，榜单记录加载时已包含到的编号：编号不大于它的变更已在查询结果中，直接跳过；
+ * 重建期间到达的变更先记入最近变更队列，新榜单装入前按编号补上，既不重复计数也不丢失。
+ * 点赞提交与其提交后事件之间恰好开始的查询仍可能多算一次，与作者头像等未发布事件的变化一样，最多延迟一个 TTL
+ */
+@Component
+public class GalleryFeedCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GalleryFeedCache.class);
+
+    /**
+     * 最近变更队列的容量，重建期间到达的变更超过该数量时无法补齐，本次结果不缓存
+     */
+    private static final int MAX_RECENT_DELTAS = 1024;
+
+    private static final Comparator<GalleryItemResponse> LATEST_ORDER =
+            Comparator.comparing(GalleryItemResponse::getCreatedAt)
+                    .thenComparing(GalleryItemResponse::getId)
+                    .reversed();
+
+    private static final Comparator<GalleryItemResponse> LIKES_ORDER =
+            Comparator.comparing(GalleryItemResponse::getLikesCount)
+                    .thenComparing(GalleryItemResponse::getId)
+                    .reversed();
+
+    private final WorkRepository workRepository;
+    private final int feedSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final Map<String, AtomicReference<Feed>> feeds = Map.of(
+            WorkCursor.SORT_LATEST, new AtomicReference<>(),
+            WorkCursor.SORT_LIKES, new AtomicReference<>());
+
+    /**
+     * 点赞变更的编号和最近的变更，均由 likesLock 保护；榜单装入时也持有该锁，变更不会落在新旧榜单交替的间隙里
+     */
+    private final Object likesLock = new Object();
+    private final Deque<LikesDelta> recentDeltas = new ArrayDeque<>();
+    private volatile long likesSeq;
+
+    @Autowired
+    public GalleryFeedCache(WorkRepository workRepository,
+                            @Value("${aigo.gallery.feed-size:200}") int feedSize,
+                            @Value("${aigo.gallery.feed-ttl-seconds:60}") long ttlSeconds) {
+        this(workRepository, feedSize, ttlSeconds * 1000L, System::currentTimeMillis);
+    }
+
+    GalleryFeedCache(WorkRepository workRepository, int feedSize, long ttlMillis, LongSupplier clock) {
+        this.workRepository = workRepository;
+        this.feedSize = feedSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 从缓存取一页，最多返回 limit + 1 条（多出的一条用于判断是否还有下一页）
+     * 返回的是副本，调用方可以直接修改 isLiked
+     *
+     * @return 超出缓存窗口时返回 null，由调用方回退到数据库查询
+     */
+    public List<GalleryItemResponse> page(String sort, WorkCursor after, int limit) {
+        Feed feed = current(sort);
+        int start = after == null ? 0 : feed.indexAfter(probe(sort, after));
+        int end = start + limit + 1;
+        if (end > feed.items.size() && !feed.complete) {
+            return null;
+        }
+        return feed.items.subList(Math.min(start, feed.items.size()), Math.min(end, feed.items.size()))
+                .stream()
+                .map(item -> item.toBuilder().build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 事务提交后再处理，避免重建时读到未提交的数据
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGalleryChange(GalleryChangeEvent event) {
+        if (event.isLikesChange()) {
+            applyLikesDelta(event.getWorkId(), event.getLikesDelta());
+        } else {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        long newVersion = version.incrementAndGet();
+        logger.debug("[GalleryFeedCache] Invalidated, version now {}", newVersion);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.get();
+    }
+
+    private Feed current(String sort) {
+        AtomicReference<Feed> ref = feeds.get(sort);
+        Feed feed = ref.get();
+        if (isFresh(feed)) {
+            hits.incrementAndGet();
+            return feed;
+        }
+        // 同一榜单只允许一个线程重建，其余线程等待后直接复用结果
+        synchronized (ref) {
+            feed = ref.get();
+            if (isFresh(feed)) {
+                hits.incrementAndGet();
+                return feed;
+            }
+            return install(sort, ref, load(sort));
+        }
+    }
+
+    /**
+     * 补上加载期间到达的点赞变更后装入榜单
+     *
+     * @return 本次读取使用的榜单；补齐后需要丢弃时仍返回加载结果，下次读取再重建
+     */
+    private Feed install(String sort, AtomicReference<Feed> ref, Feed loaded) {
+        synchronized (likesLock) {
+            Feed feed = loaded;
+            if (loaded.likesSeq < likesSeq) {
+                LikesDelta oldest = recentDeltas.peekFirst();
+                if (oldest == null || oldest.seq() > loaded.likesSeq + 1) {
+                    logger.debug("[GalleryFeedCache] Too many likes during {} rebuild, not caching", sort);
+                    feed = null;
+                } else {
+                    for (LikesDelta change : recentDeltas) {
+                        feed = apply(sort, feed, change);
+                        if (feed == null) {
+                            break;
+                        }
+                    }
+                }
+            }
+            ref.set(feed);
+            return feed != null ? feed : loaded;
+        }
+    }
+
+    private boolean isFresh(Feed feed) {
+        return feed != null
+                && feed.version == version.get()
+                && clock.getAsLong() - feed.loadedAt < ttlMillis;
+    }
+
+    private Feed load(String sort) {
+        // 先读版本号和点赞编号再查询，查询期间发生的作品变更会让这份结果立即过期，点赞变更在装入时补上
+        long loadVersion = version.get();
+        long loadLikesSeq = likesSeq;
+        PageRequest window = PageRequest.of(0, feedSize + 1);
+        List<GalleryItemResponse> items = WorkCursor.SORT_LIKES.equals(sort)
+                ? workRepository.findGalleryItemsOrderByLikesCountDesc(window)
+                : workRepository.findGalleryItemsOrderByCreatedAtDesc(window);
+        boolean complete = items.size() <= feedSize;
+        if (!complete) {
+            items = items.subList(0, feedSize);
+        }
+        rebuilds.incrementAndGet();
+        logger.debug("[GalleryFeedCache] Rebuilt {} feed - items: {}, complete: {}, version: {}",
+                sort, items.size(), complete, loadVersion);
+        Comparator<GalleryItemResponse> order = WorkCursor.SORT_LIKES.equals(sort) ? LIKES_ORDER : LATEST_ORDER;
+        return new Feed(loadVersion, loadLikesSeq, clock.getAsLong(),
+                Collections.unmodifiableList(new ArrayList<>(items)), complete, order);
+    }
+
+    private void applyLikesDelta(String workId, int delta) {
+        synchronized (likesLock) {
+            LikesDelta change = new LikesDelta(likesSeq + 1, workId, delta);
+            likesSeq = change.seq();
+            recentDeltas.addLast(change);
+            if (recentDeltas.size() > MAX_RECENT_DELTAS) {
+                recentDeltas.removeFirst();
+            }
+            feeds.forEach((sort, ref) -> ref.set(apply(sort, ref.get(), change)));
+        }
+    }
+
+    /**
+     * 在榜单上应用一次点赞变更，榜单加载时已包含该变更则原样返回
+     *
+     * @return 无法增量修正时返回 null，下次读取重建
+     */
+    private static Feed apply(String sort, Feed feed, LikesDelta change) {
+        if (feed == null || change.seq() <= feed.likesSeq) {
+            return feed;
+        }
+        boolean cached = feed.contains(change.workId());
+        Feed updated = feed.withLikesDelta(change);
+        // 不在窗口内的作品可能因点赞进入前 N，窗口末尾的作品减少点赞后可能被窗口外的作品超过，这两种情况直接丢弃重建
+        if (WorkCursor.SORT_LIKES.equals(sort) && !feed.complete
+                && (!cached || (change.delta() < 0 && updated.isLast(change.workId())))) {
+            return null;
+        }
+        return updated;
+    }
+
+    private static GalleryItemResponse probe(String sort, WorkCursor cursor) {
+        GalleryItemResponse probe = new GalleryItemResponse();
+        probe.setId(cursor.getId());
+        if (WorkCursor.SORT_LIKES.equals(sort)) {
+            probe.setLikesCount(cursor.getLikesCount());
+        } else {
+            probe.setCreatedAt(cursor.getCreatedAt());
+        }
+        return probe;
+    }
+
+    private record LikesDelta(long seq, String workId, int delta) {
+    }
+
+    private static final class Feed {
+        private final long version;
+        private final long likesSeq;
+        private final long loadedAt;
+        private final List<GalleryItemResponse> items;
+        private final boolean complete;
+        private final Comparator<GalleryItemResponse> order;
+
+        private Feed(long version, long likesSeq, long loadedAt, List<GalleryItemResponse> items, boolean complete,
+                     Comparator<GalleryItemResponse> order) {
+            this.version = version;
+            this.likesSeq = likesSeq;
+            this.loadedAt = loadedAt;
+            this.items = items;
+            this.complete = complete;
+            this.order = order;
+        }
+
+        /**
+         * 游标之后第一条的下标；列表已按榜单顺序排列，二分查找
+         */
+        private int indexAfter(GalleryItemResponse cursorProbe) {
+            int low = 0;
+            int high = items.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (order.compare(items.get(mid), cursorProbe) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 应用变更后的榜单，作品不在窗口内时只推进编号
+         */
+        private Feed withLikesDelta(LikesDelta change) {
+            for (int i = 0; i < items.size(); i++) {
+                GalleryItemResponse item = items.get(i);
+                if (item.getId().equals(change.workId())) {
+                    List<GalleryItemResponse> updated = new ArrayList<>(items);
+                    int likes = Math.max(0, item.getLikesCount() + change.delta());
+                    updated.set(i, item.toBuilder().likesCount(likes).build());
+                    updated.sort(order);
+                    return new Feed(version, change.seq(), loadedAt, Collections.unmodifiableList(updated), complete, order);
+                }
+            }
+            return new Feed(version, change.seq(), loadedAt, items, complete, order);
+        }
+
+        private boolean contains(String workId) {
+            return items.stream().anyMatch(item -> item.getId().equals(workId));
+        }
+
+        private boolean isLast(String workId) {
+            return !items.isEmpty() && items.get(items.size() - 1).getId().equals(workId);
+        }
+    }
+}
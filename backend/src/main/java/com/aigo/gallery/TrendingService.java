@@ -0,0 +1,271 @@
+package com.aigo.gallery;
+
+import com.aigo.dto.CursorPage;
+import com.aigo.dto.work.GalleryItemResponse;
+import com.aigo.dto.work.WorkCursor;
+import com.aigo.repository.CommentRepository;
+import com.aigo.repository.EpisodeRepository;
+import com.aigo.repository.LikeRepository;
+import com.aigo.repository.PurchaseRepository;
+import com.aigo.repository.WorkActivityRow;
+import com.aigo.repository.WorkRepository;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 作品热门趋势
+ * 每个作品维护一个随时间指数衰减的分数，点赞、浏览、评论、购买时按权重累加；
+ * 定时从全部分数中选出前 K 名生成榜单，接口只读取榜单，不对 works 表排序
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    /**
+     * 衰减到该值以下的分数视为无热度，刷新时移除，避免分数表无限增长
+     */
+    private static final double MIN_SCORE = 0.01;
+
+    private final WorkRepository workRepository;
+    private final EpisodeRepository episodeRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final PurchaseRepository purchaseRepository;
+
+    private final Map<String, DecayedScore> scores = new ConcurrentHashMap<>();
+    private volatile Ranking ranking = new Ranking(List.of(), Map.of(), 0L);
+
+    @Value("${aigo.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${aigo.trending.top-k:200}")
+    private int topK;
+
+    @Value("${aigo.trending.seed-days:7}")
+    private int seedDays;
+
+    @Value("${aigo.trending.weight.like:5}")
+    private double likeWeight;
+
+    @Value("${aigo.trending.weight.view:1}")
+    private double viewWeight;
+
+    @Value("${aigo.trending.weight.comment:3}")
+    private double commentWeight;
+
+    @Value("${aigo.trending.weight.purchase:8}")
+    private double purchaseWeight;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    public TrendingService(WorkRepository workRepository, EpisodeRepository episodeRepository,
+                           LikeRepository likeRepository, CommentRepository commentRepository,
+                           PurchaseRepository purchaseRepository) {
+        this.workRepository = workRepository;
+        this.episodeRepository = episodeRepository;
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.purchaseRepository = purchaseRepository;
+    }
+
+    /**
+     * 启动时用最近 seed-days 天的点赞、评论、购买记录恢复分数，浏览没有时间记录，不参与恢复
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime since = LocalDateTime.now().minusDays(seedDays);
+        try {
+            int events = 0;
+            events += replay(likeRepository.findActivitySince(since), likeWeight);
+            events += replay(purchaseRepository.findActivitySince(since), purchaseWeight);
+            events += replay(commentRepository.findWorkCommentActivitySince(since), commentWeight);
+            events += replay(commentRepository.findEpisodeCommentActivitySince(since), commentWeight);
+            refresh();
+            logger.info("[TrendingService] Seeded from {} events since {} - tracked works: {}",
+                    events, since, scores.size());
+        } catch (Exception e) {
+            logger.warn("[TrendingService] Failed to seed trending scores: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 点赞按当前时间累加；取消点赞按原点赞时间扣除，只减去那次点赞衰减至今剩下的部分
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGalleryChange(GalleryChangeEvent event) {
+        if (event.isLikesChange()) {
+            long timestamp = event.getLikedAt() != null ? toMillis(event.getLikedAt()) : clock.getAsLong();
+            record(event.getWorkId(), likeWeight * event.getLikesDelta(), timestamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkActivity(WorkActivityEvent event) {
+        String workId = event.getWorkId();
+        if (workId == null && event.getEpisodeId() != null) {
+            workId = episodeRepository.findWorkIdById(event.getEpisodeId()).orElse(null);
+        }
+        if (workId == null) {
+            return;
+        }
+        double weight = switch (event.getType()) {
+            case VIEW -> viewWeight;
+            case COMMENT -> commentWeight;
+            case PURCHASE -> purchaseWeight;
+        };
+        record(workId, weight, clock.getAsLong());
+    }
+
+    /**
+     * 重新生成榜单：用容量为 K 的小顶堆从全部分数中选出前 K 名
+     */
+    @Scheduled(fixedDelayString = "${aigo.trending.refresh-ms:60000}",
+            initialDelayString = "${aigo.trending.refresh-ms:60000}")
+    public void refresh() {
+        long now = clock.getAsLong();
+        double decayRate = decayRate();
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+
+        scores.forEach((workId, score) -> {
+            double value = score.valueAt(now, decayRate);
+            if (value < MIN_SCORE) {
+                scores.remove(workId, score);
+                return;
+            }
+            heap.offer(Map.entry(workId, value));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        });
+
+        List<Map.Entry<String, Double>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        List<String> workIds = top.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        Map<String, Double> rankedScores = top.stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        ranking = new Ranking(Collections.unmodifiableList(workIds), rankedScores, now);
+
+        logger.debug("[TrendingService] Ranking refreshed - ranked: {}, tracked: {}", workIds.size(), scores.size());
+    }
+
+    /**
+     * 按榜单顺序取一页公开作品
+     * 榜单里也有私有或已删除的作品，跳过它们后继续往后取，直到凑满 limit 个或榜单取完；
+     * 游标记录下一页的起始位置和本页扫描到的最后一个作品，榜单刷新后优先从该作品之后继续
+     */
+    public CursorPage<GalleryItemResponse> page(WorkCursor after, int limit) {
+        List<String> ranked = ranking.getWorkIds();
+        int start = 0;
+        if (after != null) {
+            int lastIndex = ranked.indexOf(after.getId());
+            start = lastIndex >= 0 ? lastIndex + 1 : after.getOffset();
+        }
+        int next = Math.min(start, ranked.size());
+
+        List<GalleryItemResponse> items = new ArrayList<>();
+        while (items.size() < limit && next < ranked.size()) {
+            int end = Math.min(next + limit - items.size(), ranked.size());
+            List<String> batchIds = ranked.subList(next, end);
+            Map<String, GalleryItemResponse> byId = workRepository.findGalleryItemsByIds(batchIds).stream()
+                    .collect(Collectors.toMap(GalleryItemResponse::getId, Function.identity()));
+            batchIds.stream().map(byId::get).filter(Objects::nonNull).forEach(items::add);
+            next = end;
+        }
+
+        boolean hasMore = next < ranked.size();
+        String nextCursor = hasMore ? WorkCursor.trending(next, ranked.get(next - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public Ranking getRanking() {
+        return ranking;
+    }
+
+    public int getTrackedCount() {
+        return scores.size();
+    }
+
+    void record(String workId, double weight, long timestamp) {
+        scores.computeIfAbsent(workId, id -> new DecayedScore(timestamp)).add(weight, timestamp, decayRate());
+    }
+
+    private int replay(List<WorkActivityRow> rows, double weight) {
+        for (WorkActivityRow row : rows) {
+            record(row.getWorkId(), weight, toMillis(row.getOccurredAt()));
+        }
+        return rows.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 每毫秒的衰减系数，经过一个半衰期分数减半
+     */
+    private double decayRate() {
+        return Math.log(2) / (halfLifeHours * 3_600_000d);
+    }
+
+    /**
+     * 衰减分数：只保存最近一次更新时的值和时间，读取或累加时再按经过的时间衰减。
+     * 分数不低于 0：恢复窗口之前的点赞从未计入，取消时扣除的部分没有对应的累加
+     */
+    static final class DecayedScore {
+        private double value;
+        private long updatedAt;
+
+        DecayedScore(long updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        synchronized void add(double weight, long timestamp, double decayRate) {
+            if (timestamp >= updatedAt) {
+                value = value * Math.exp(-decayRate * (timestamp - updatedAt)) + weight;
+                updatedAt = timestamp;
+            } else {
+                // 启动恢复时记录可能乱序，较早的事件按自身时间衰减后再累加
+                value += weight * Math.exp(-decayRate * (updatedAt - timestamp));
+            }
+            value = Math.max(0, value);
+        }
+
+        synchronized double valueAt(long timestamp, double decayRate) {
+            return value * Math.exp(-decayRate * Math.max(0, timestamp - updatedAt));
+        }
+    }
+
+    @Getter
+    public static final class Ranking {
+        private final List<String> workIds;
+        private final Map<String, Double> scores;
+        private final long refreshedAt;
+
+        Ranking(List<String> workIds, Map<String, Double> scores, long refreshedAt) {
+            this.workIds = workIds;
+            this.scores = scores;
+            this.refreshedAt = refreshedAt;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.aigo.gallery;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 作品浏览量计数
+ * 浏览时只在内存中累加，定时把各作品的增量批量写回 works.views_count，
+ * 读取集数不再对作品行做读-改-写，热门作品也不会因为浏览而产生行锁竞争。
+ * 累加与写回时的取出都是对同一个键的原子操作，取出之后的浏览计入新的增量，不会丢失。
+ * 开启去重后，同一登录用户在窗口期内重复打开同一集只计一次
+ */
+@Component
+public class ViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCounter.class);
+
+    static final String INCREMENT_SQL = "UPDATE works SET views_count = views_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean dedupEnabled;
+    private final long dedupWindowMillis;
+    private final LongSupplier clock;
+
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> recentViews = new ConcurrentHashMap<>();
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong dedupedViews = new AtomicLong();
+
+    @Autowired
+    public ViewCounter(JdbcTemplate jdbcTemplate,
+                       @Value("${aigo.views.dedup-enabled:false}") boolean dedupEnabled,
+                       @Value("${aigo.views.dedup-window-minutes:30}") long dedupWindowMinutes) {
+        this(jdbcTemplate, dedupEnabled, dedupWindowMinutes * 60_000L, System::currentTimeMillis);
+    }
+
+    ViewCounter(JdbcTemplate jdbcTemplate, boolean dedupEnabled, long dedupWindowMillis, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dedupEnabled = dedupEnabled;
+        this.dedupWindowMillis = dedupWindowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 记录一次浏览
+     *
+     * @param viewerId 浏览者用户ID，匿名访问传 null，匿名浏览不去重
+     * @return 是否计入浏览量；去重窗口内的重复浏览返回 false
+     */
+    public boolean record(String workId, String episodeId, String viewerId) {
+        if (dedupEnabled && viewerId != null && isRepeat(viewerId + "|" + episodeId)) {
+            dedupedViews.incrementAndGet();
+            return false;
+        }
+        pending.merge(workId, 1L, Long::sum);
+        return true;
+    }
+
+    /**
+     * 把累计的增量一次批量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${aigo.views.flush-ms:5000}",
+            initialDelayString = "${aigo.views.flush-ms:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (String workId : pending.keySet()) {
+            Long delta = pending.remove(workId);
+            if (delta != null && delta > 0) {
+                batch.add(new Object[]{delta, workId});
+            }
+        }
+        pruneRecentViews();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+            long total = batch.stream().mapToLong(row -> (Long) row[0]).sum();
+            flushedViews.addAndGet(total);
+            logger.debug("[ViewCounter] Flushed {} views for {} works", total, batch.size());
+        } catch (Exception e) {
+            // 只把没有执行成功的增量放回去，下次重试；已经生效的行不再重复累加
+            int[] updateCounts = updateCounts(e);
+            long applied = 0;
+            int requeued = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Object[] row = batch.get(i);
+                if (i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED) {
+                    applied += (Long) row[0];
+                } else {
+                    pending.merge((String) row[1], (Long) row[0], Long::sum);
+                    requeued++;
+                }
+            }
+            flushedViews.addAndGet(applied);
+            logger.warn("[ViewCounter] Failed to flush views for {} of {} works: {}",
+                    requeued, batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 批量执行中途失败时驱动返回的各行结果；拿不到时视为全部未执行
+     */
+    private static int[] updateCounts(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batchError && batchError.getUpdateCounts() != null) {
+                return batchError.getUpdateCounts();
+            }
+        }
+        return new int[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 尚未写回数据库的浏览量
+     */
+    public long getPendingViews(String workId) {
+        return pending.getOrDefault(workId, 0L);
+    }
+
+    public long getFlushedViews() {
+        return flushedViews.get();
+    }
+
+    public long getDedupedViews() {
+        return dedupedViews.get();
+    }
+
+    private boolean isRepeat(String key) {
+        long now = clock.getAsLong();
+        boolean[] repeat = new boolean[1];
+        recentViews.compute(key, (k, lastCounted) -> {
+            if (lastCounted != null && now - lastCounted < dedupWindowMillis) {
+                repeat[0] = true;
+                return lastCounted;
+            }
+            return now;
+        });
+        return repeat[0];
+    }
+
+    private void pruneRecentViews() {
+        if (recentViews.isEmpty()) {
+            return;
+        }
+        long expiredBefore = clock.getAsLong() - dedupWindowMillis;
+        recentViews.values().removeIf(lastCounted -> lastCounted <= expiredBefore);
+    }
+}
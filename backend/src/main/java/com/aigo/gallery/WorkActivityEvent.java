@@ -0,0 +1,38 @@
+package com.aigo.gallery;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 作品上的用户行为，用于计算热门趋势
+ * 对集数的评论只知道 episodeId，由监听方换算成 workId
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class WorkActivityEvent {
+    
+    public enum Type {
+        VIEW, COMMENT, PURCHASE
+    }
+    
+    private final Type type;
+    private final String workId;
+    private final String episodeId;
+    
+    public static WorkActivityEvent view(String workId) {
+        return new WorkActivityEvent(Type.VIEW, workId, null);
+    }
+    
+    public static WorkActivityEvent purchase(String workId) {
+        return new WorkActivityEvent(Type.PURCHASE, workId, null);
+    }
+    
+    public static WorkActivityEvent workComment(String workId) {
+        return new WorkActivityEvent(Type.COMMENT, workId, null);
+    }
+    
+    public static WorkActivityEvent episodeComment(String episodeId) {
+        return new WorkActivityEvent(Type.COMMENT, null, episodeId);
+    }
+}
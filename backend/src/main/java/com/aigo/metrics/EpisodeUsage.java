@@ -0,0 +1,175 @@
+package com.aigo.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单集生成过程中的资源消耗累加器
+ * 由 PipelineMetrics.startEpisode 绑定到生成线程，经执行器装饰器传到并行场景任务；
+ * 各阶段、网关、上传和大模型调用只向当前线程绑定的累加器记账，没有绑定时不记录
+ */
+public class EpisodeUsage {
+
+    private static final ThreadLocal<EpisodeUsage> CURRENT = new ThreadLocal<>();
+
+    private final long startedAtMillis;
+    private final Map<String, StageUsage> stages = new ConcurrentHashMap<>();
+    private final Map<String, ProviderUsage> providers = new ConcurrentHashMap<>();
+    private final LongAdder bytesUploaded = new LongAdder();
+    private final LongAdder inputTokens = new LongAdder();
+    private final LongAdder outputTokens = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public EpisodeUsage(long startedAtMillis) {
+        this.startedAtMillis = startedAtMillis;
+    }
+
+    public static EpisodeUsage current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 把累加器绑定到当前线程，返回的 Scope 关闭时恢复之前的绑定
+     */
+    public Scope bind() {
+        EpisodeUsage previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    void recordStage(PipelineStage stage, long startMillis, long durationNanos, boolean success) {
+        stages.computeIfAbsent(stage.getTag(), key -> new StageUsage())
+                .record(startMillis, durationNanos, success);
+    }
+
+    void recordFallback() {
+        fallbacks.increment();
+    }
+
+    void recordUpload(long bytes) {
+        bytesUploaded.add(bytes);
+    }
+
+    void recordTokens(Integer input, Integer output) {
+        if (input != null) {
+            inputTokens.add(input);
+        }
+        if (output != null) {
+            outputTokens.add(output);
+        }
+    }
+
+    public void recordProviderAttempt(String provider) {
+        providers.computeIfAbsent(provider, key -> new ProviderUsage()).attempts.increment();
+    }
+
+    public void recordProviderRetry(String provider) {
+        providers.computeIfAbsent(provider, key -> new ProviderUsage()).retries.increment();
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getBytesUploaded() {
+        return bytesUploaded.sum();
+    }
+
+    public long getInputTokens() {
+        return inputTokens.sum();
+    }
+
+    public long getOutputTokens() {
+        return outputTokens.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * 某阶段的调用次数（含失败），阶段未发生时为 0
+     */
+    public long getStageCalls(PipelineStage stage) {
+        StageUsage usage = stages.get(stage.getTag());
+        return usage != null ? usage.calls.sum() : 0;
+    }
+
+    public long getProviderAttempts() {
+        return providers.values().stream().mapToLong(p -> p.attempts.sum()).sum();
+    }
+
+    public long getProviderRetries() {
+        return providers.values().stream().mapToLong(p -> p.retries.sum()).sum();
+    }
+
+    public List<StageSnapshot> stageSnapshots() {
+        List<StageSnapshot> snapshots = new ArrayList<>();
+        stages.forEach((stage, usage) -> snapshots.add(usage.snapshot(stage)));
+        return snapshots;
+    }
+
+    public List<ProviderSnapshot> providerSnapshots() {
+        List<ProviderSnapshot> snapshots = new ArrayList<>();
+        providers.forEach((provider, usage) ->
+                snapshots.add(new ProviderSnapshot(provider, usage.attempts.sum(), usage.retries.sum())));
+        return snapshots;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * @param busyMs 各次调用耗时之和
+     * @param wallMs 第一次调用开始到最后一次调用结束的时间，并行的场景图片远小于 busyMs
+     */
+    public record StageSnapshot(String stage, long calls, long errors, long busyMs, long wallMs) {
+    }
+
+    /**
+     * @param attempts 实际发出的请求数，包含重试
+     */
+    public record ProviderSnapshot(String provider, long attempts, long retries) {
+    }
+
+    private static final class StageUsage {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final AtomicLong firstStartMillis = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastEndMillis = new AtomicLong(Long.MIN_VALUE);
+
+        private void record(long startMillis, long durationNanos, boolean success) {
+            calls.increment();
+            if (!success) {
+                errors.increment();
+            }
+            busyNanos.add(durationNanos);
+            firstStartMillis.accumulateAndGet(startMillis, Math::min);
+            lastEndMillis.accumulateAndGet(startMillis + durationNanos / 1_000_000, Math::max);
+        }
+
+        private StageSnapshot snapshot(String stage) {
+            long wall = Math.max(0, lastEndMillis.get() - firstStartMillis.get());
+            return new StageSnapshot(stage, calls.sum(), errors.sum(), busyNanos.sum() / 1_000_000, wall);
+        }
+    }
+
+    private static final class ProviderUsage {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+    }
+}
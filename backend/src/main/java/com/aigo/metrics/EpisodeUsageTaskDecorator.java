@@ -0,0 +1,22 @@
+package com.aigo.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 把提交方线程绑定的 EpisodeUsage 带到执行线程，并行生成的场景图片计入同一集
+ */
+public class EpisodeUsageTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        EpisodeUsage usage = EpisodeUsage.current();
+        if (usage == null) {
+            return task;
+        }
+        return () -> {
+            try (EpisodeUsage.Scope ignored = usage.bind()) {
+                task.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.aigo.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 为 Spring 执行器记录排队等待时间、执行时间和正在执行的任务数
+ * 两个计时器与 Micrometer 的 ExecutorServiceMetrics 同名（executor.idle、executor），以 name 标签区分执行器；
+ * 正在执行的任务数用 executor.tasks.active，不与 ExecutorServiceMetrics 的 executor.active 重名，
+ * 否则同一执行器两处注册时后注册的 gauge 被忽略。线程池的队列长度、线程数由 Spring Boot 自动绑定。
+ * 执行器在 AsyncConfigurer 中创建得较早，MeterRegistry 在第一个任务提交时才解析
+ */
+public class InstrumentedTaskDecorator implements TaskDecorator {
+
+    private final String name;
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final AtomicInteger active = new AtomicInteger();
+
+    private volatile Meters meters;
+
+    public InstrumentedTaskDecorator(String name, ObjectProvider<MeterRegistry> registryProvider) {
+        this.name = name;
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        Meters m = meters();
+        if (m == null) {
+            return task;
+        }
+        long submitted = m.clock.monotonicTime();
+        return () -> {
+            long started = m.clock.monotonicTime();
+            m.idle.record(started - submitted, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                m.execution.record(m.clock.monotonicTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private Meters meters() {
+        Meters m = meters;
+        if (m == null) {
+            synchronized (this) {
+                m = meters;
+                if (m == null) {
+                    MeterRegistry registry = registryProvider.getIfAvailable();
+                    if (registry == null) {
+                        return null;
+                    }
+                    m = new Meters(registry);
+                    meters = m;
+                }
+            }
+        }
+        return m;
+    }
+
+    private final class Meters {
+        private final Clock clock;
+        private final Timer idle;
+        private final Timer execution;
+
+        private Meters(MeterRegistry registry) {
+            this.clock = registry.config().clock();
+            this.idle = Timer.builder("executor.idle")
+                    .description("Time tasks spend waiting before they start")
+                    .tag("name", name)
+                    .register(registry);
+            this.execution = Timer.builder("executor")
+                    .description("Task execution time")
+                    .tag("name", name)
+                    .register(registry);
+            Gauge.builder("executor.tasks.active", active, AtomicInteger::get)
+                    .description("Tasks currently running")
+                    .tag("name", name)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.aigo.metrics;
+
+import com.aigo.provider.ProviderCall;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成流程指标与链路追踪
+ * 每个阶段的耗时按 stage、provider、model、outcome 打标签记录到同一个计时器，同时开启一个同名 span，
+ * 阶段内经由 ProviderGateway 的外部调用成为它的子 span；阶段失败后回退到占位结果时另计一次 fallback，
+ * 整集生成另有按内容类型和结果区分的计时器，并作为该集所有阶段 span 的父 span。
+ * 同样的数据按集累加到 EpisodeUsage，生成结束后写入 EpisodeGenerationReport。
+ * 指标标签取值都来自固定枚举或配置项，不包含作品、剧集等高基数字段，剧集 id 只记录在 span 和报告上
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "aigo.pipeline.stage";
+    public static final String FALLBACK_COUNTER = "aigo.pipeline.fallback";
+    public static final String EPISODE_TIMER = "aigo.episode.generation";
+    public static final String UPLOAD_SIZE = "aigo.storage.upload.size";
+    public static final String LLM_TOKENS = "aigo.llm.tokens";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Tracer tracer;
+
+    @Autowired
+    public PipelineMetrics(MeterRegistry registry, ObjectProvider<Tracer> tracer) {
+        this(registry, tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this(registry, Tracer.NOOP);
+    }
+
+    public PipelineMetrics(MeterRegistry registry, Tracer tracer) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        this.tracer = tracer;
+    }
+
+    /**
+     * 执行一个阶段并记录耗时和 span，异常原样抛出，outcome 记为 error
+     */
+    public <T> T record(PipelineStage stage, String provider, String model, ProviderCall<T> call) throws Exception {
+        Span span = tracer.nextSpan()
+                .name(stage.getTag())
+                .tag("aigo.provider", tagValue(provider))
+                .tag("aigo.model", tagValue(model))
+                .start();
+        long startedAtMillis = clock.wallTime();
+        long startedAt = clock.monotonicTime();
+        String outcome = OUTCOME_ERROR;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            T result = call.call();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } catch (Exception e) {
+            span.error(e);
+            throw e;
+        } finally {
+            long durationNanos = clock.monotonicTime() - startedAt;
+            Timer.builder(STAGE_TIMER)
+                    .description("Latency of external calls per pipeline stage")
+                    .tag("stage", stage.getTag())
+                    .tag("provider", tagValue(provider))
+                    .tag("model", tagValue(model))
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            span.end();
+            EpisodeUsage usage = EpisodeUsage.current();
+            if (usage != null) {
+                usage.recordStage(stage, startedAtMillis, durationNanos, OUTCOME_SUCCESS.equals(outcome));
+            }
+        }
+    }
+
+    /**
+     * 阶段失败后使用了占位结果（占位图、空音频等）
+     */
+    public void recordFallback(PipelineStage stage) {
+        Counter.builder(FALLBACK_COUNTER)
+                .description("Pipeline stages that fell back to placeholder output")
+                .tag("stage", stage.getTag())
+                .register(registry)
+                .increment();
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            span.event("fallback " + stage.getTag());
+        }
+        EpisodeUsage usage = EpisodeUsage.current();
+        if (usage != null) {
+            usage.recordFallback();
+        }
+    }
+
+    /**
+     * 上传到对象存储的字节数
+     *
+     * @param kind image 或 audio
+     */
+    public void recordUpload(String kind, long bytes) {
+        DistributionSummary.builder(UPLOAD_SIZE)
+                .description("Size of files uploaded to object storage")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(registry)
+                .record(bytes);
+        EpisodeUsage usage = EpisodeUsage.current();
+        if (usage != null) {
+            usage.recordUpload(bytes);
+        }
+    }
+
+    /**
+     * 大模型返回的 token 用量，服务端未返回的项为 null
+     */
+    public void recordTokenUsage(String provider, String model, Integer inputTokens, Integer outputTokens) {
+        if (inputTokens != null) {
+            tokenCounter(provider, model, "input").increment(inputTokens);
+        }
+        if (outputTokens != null) {
+            tokenCounter(provider, model, "output").increment(outputTokens);
+        }
+        EpisodeUsage usage = EpisodeUsage.current();
+        if (usage != null) {
+            usage.recordTokens(inputTokens, outputTokens);
+        }
+    }
+
+    /**
+     * 开始一集的生成，返回的 EpisodeRun 必须在同一线程中交给 stopEpisode 结束
+     */
+    public EpisodeRun startEpisode(String episodeId) {
+        Span span = tracer.nextSpan()
+                .name("episode")
+                .tag("aigo.episode.id", tagValue(episodeId))
+                .start();
+        EpisodeUsage usage = new EpisodeUsage(clock.wallTime());
+        return new EpisodeRun(Timer.start(registry), span, tracer.withSpan(span), usage, usage.bind());
+    }
+
+    /**
+     * @param error 生成失败的原因，成功时为 null
+     */
+    public void stopEpisode(EpisodeRun run, String contentType, Throwable error) {
+        String outcome = error == null ? OUTCOME_SUCCESS : OUTCOME_ERROR;
+        run.sample.stop(Timer.builder(EPISODE_TIMER)
+                .description("End-to-end episode generation time")
+                .tag("content_type", tagValue(contentType))
+                .tag("outcome", outcome)
+                .register(registry));
+        run.span.tag("aigo.content_type", tagValue(contentType));
+        if (error != null) {
+            run.span.error(error);
+        }
+        run.usageScope.close();
+        run.scope.close();
+        run.span.end();
+    }
+
+    private Counter tokenCounter(String provider, String model, String type) {
+        return Counter.builder(LLM_TOKENS)
+                .description("Tokens consumed by LLM calls")
+                .tag("provider", tagValue(provider))
+                .tag("model", tagValue(model))
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private static String tagValue(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value;
+    }
+
+    public static final class EpisodeRun {
+        private final Timer.Sample sample;
+        private final Span span;
+        private final Tracer.SpanInScope scope;
+        private final EpisodeUsage usage;
+        private final EpisodeUsage.Scope usageScope;
+
+        private EpisodeRun(Timer.Sample sample, Span span, Tracer.SpanInScope scope,
+                           EpisodeUsage usage, EpisodeUsage.Scope usageScope) {
+            this.sample = sample;
+            this.span = span;
+            this.scope = scope;
+            this.usage = usage;
+            this.usageScope = usageScope;
+        }
+
+        public EpisodeUsage getUsage() {
+            return usage;
+        }
+    }
+}
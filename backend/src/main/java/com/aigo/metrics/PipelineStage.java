@@ -0,0 +1,24 @@
+package com.aigo.metrics;
+
+import lombok.Getter;
+
+/**
+ * 剧集生成流程中对外部服务调用的阶段，作为指标的 stage 标签
+ */
+@Getter
+public enum PipelineStage {
+
+    LLM_PARSE("llm-parse"),
+    NICKNAME_DETECT("nickname-detect"),
+    PORTRAIT("portrait"),
+    SCENE_IMAGE("scene-image"),
+    TTS("tts"),
+    UPLOAD("upload"),
+    VIDEO("video");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+}
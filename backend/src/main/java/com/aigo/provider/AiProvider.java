@@ -0,0 +1,32 @@
+package com.aigo.provider;
+
+import lombok.Getter;
+
+/**
+ * 外部 AI 服务提供方
+ * 默认限流参数可通过 provider.{key}.* 配置覆盖
+ */
+@Getter
+public enum AiProvider {
+
+    DEEPSEEK("deepseek", 2.0, 4, 4, 3),
+    TEXT_TO_IMAGE("text2img", 2.0, 4, 5, 3),
+    IMAGE_TO_IMAGE("img2img", 2.0, 4, 5, 3),
+    TTS("tts", 5.0, 10, 8, 3),
+    VIDEO("video", 1.0, 2, 2, 3);
+
+    private final String key;
+    private final double defaultPermitsPerSecond;
+    private final int defaultBurst;
+    private final int defaultMaxConcurrency;
+    private final int defaultMaxAttempts;
+
+    AiProvider(String key, double defaultPermitsPerSecond, int defaultBurst,
+               int defaultMaxConcurrency, int defaultMaxAttempts) {
+        this.key = key;
+        this.defaultPermitsPerSecond = defaultPermitsPerSecond;
+        this.defaultBurst = defaultBurst;
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+    }
+}
@@ -0,0 +1,23 @@
+package com.aigo.provider;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 共享 HTTP 连接池的租用、空闲和等待连接数
+ * GET /actuator/httppool，与其他管理端点一样只应对内网开放
+ */
+@Component
+@Endpoint(id = "httppool")
+@RequiredArgsConstructor
+public class HttpPoolEndpoint {
+
+    private final HttpPoolMonitor httpPoolMonitor;
+
+    @ReadOperation
+    public HttpPoolStats stats() {
+        return httpPoolMonitor.getStats();
+    }
+}
@@ -0,0 +1,41 @@
+package com.aigo.provider;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 读取共享 HTTP 连接池的运行状态
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpPoolMonitor {
+
+    private final PoolingHttpClientConnectionManager httpConnectionManager;
+
+    public HttpPoolStats getStats() {
+        List<HttpPoolStats> routes = httpConnectionManager.getRoutes().stream()
+                .map(route -> toStats(route.getTargetHost().toURI(), httpConnectionManager.getStats(route), null))
+                .toList();
+        return toStats("*", httpConnectionManager.getTotalStats(), routes);
+    }
+
+    public PoolStats getTotalStats() {
+        return httpConnectionManager.getTotalStats();
+    }
+
+    private HttpPoolStats toStats(String route, PoolStats stats, List<HttpPoolStats> routes) {
+        return HttpPoolStats.builder()
+                .route(route)
+                .leased(stats.getLeased())
+                .available(stats.getAvailable())
+                .pending(stats.getPending())
+                .max(stats.getMax())
+                .routes(routes)
+                .build();
+    }
+}
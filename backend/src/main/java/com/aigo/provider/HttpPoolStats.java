@@ -0,0 +1,26 @@
+package com.aigo.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * HTTP 连接池指标
+ * 顶层为整个连接池的汇总，routes 为各目标主机的明细
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpPoolStats {
+
+    private String route;
+    private Integer leased;
+    private Integer available;
+    private Integer pending;
+    private Integer max;
+    private List<HttpPoolStats> routes;
+}
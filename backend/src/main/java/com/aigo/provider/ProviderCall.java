@@ -0,0 +1,10 @@
+package com.aigo.provider;
+
+/**
+ * 一次对外部服务的调用
+ */
+@FunctionalInterface
+public interface ProviderCall<T> {
+
+    T call() throws Exception;
+}
@@ -0,0 +1,28 @@
+package com.aigo.provider;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 外部服务调用失败
+ * 携带 HTTP 状态码和 Retry-After，供网关判断是否重试
+ */
+@Getter
+public class ProviderCallException extends RuntimeException {
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public ProviderCallException(String message, int statusCode, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public ProviderCallException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.retryAfter = null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.aigo.provider;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 各提供方的并发、排队、熔断和重试指标
+ * GET /actuator/providers，与其他管理端点一样只应对内网开放
+ */
+@Component
+@Endpoint(id = "providers")
+@RequiredArgsConstructor
+public class ProviderEndpoint {
+
+    private final ProviderGateway providerGateway;
+
+    @ReadOperation
+    public List<ProviderStats> stats() {
+        return providerGateway.getStats();
+    }
+}
@@ -0,0 +1,352 @@
+package com.aigo.provider;
+
+import com.aigo.metrics.EpisodeUsage;
+import dev.ai4j.openai4j.OpenAiHttpException;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 服务调用网关
+ * 所有对 DeepSeek、文生图、图生图、TTS、视频生成的调用都经由此处，按提供方统一做：
+ * 令牌桶限流、并发上限、带抖动的指数退避重试（遵循 Retry-After）以及熔断。
+ * 每次 execute 对应一个 span，覆盖排队、限流等待和全部重试，重试以 span 事件标出
+ */
+@Slf4j
+@Component
+public class ProviderGateway {
+
+    private final Map<AiProvider, ProviderState> states = new EnumMap<>(AiProvider.class);
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long maxRetryAfterMs;
+    private final Tracer tracer;
+
+    Sleeper sleeper = Thread::sleep;
+
+    @Autowired
+    public ProviderGateway(Environment environment, ObjectProvider<Tracer> tracer) {
+        this(environment, tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    public ProviderGateway(Environment environment) {
+        this(environment, Tracer.NOOP);
+    }
+
+    public ProviderGateway(Environment environment, Tracer tracer) {
+        this.tracer = tracer;
+        this.baseDelayMs = environment.getProperty("provider.retry.base-delay-ms", Long.class, 1000L);
+        this.maxDelayMs = environment.getProperty("provider.retry.max-delay-ms", Long.class, 30000L);
+        this.maxRetryAfterMs = environment.getProperty("provider.retry.max-retry-after-ms", Long.class, 60000L);
+
+        for (AiProvider provider : AiProvider.values()) {
+            String prefix = "provider." + provider.getKey() + ".";
+            double permitsPerSecond = environment.getProperty(prefix + "permits-per-second", Double.class,
+                    provider.getDefaultPermitsPerSecond());
+            int burst = environment.getProperty(prefix + "burst", Integer.class, provider.getDefaultBurst());
+            int maxConcurrency = environment.getProperty(prefix + "max-concurrency", Integer.class,
+                    provider.getDefaultMaxConcurrency());
+            int maxAttempts = environment.getProperty(prefix + "max-attempts", Integer.class,
+                    provider.getDefaultMaxAttempts());
+            int failureThreshold = environment.getProperty(prefix + "failure-threshold", Integer.class, 5);
+            long openSeconds = environment.getProperty(prefix + "open-seconds", Long.class, 30L);
+
+            states.put(provider, new ProviderState(
+                    new TokenBucket(permitsPerSecond, burst),
+                    new Semaphore(maxConcurrency, true),
+                    new CircuitBreaker(failureThreshold, openSeconds * 1000L),
+                    maxConcurrency,
+                    Math.max(1, maxAttempts)));
+
+            log.info("[ProviderGateway] {} rate={}/s burst={} concurrency={} attempts={}",
+                    provider.getKey(), permitsPerSecond, burst, maxConcurrency, maxAttempts);
+        }
+    }
+
+    /**
+     * 通过网关执行一次外部调用
+     *
+     * @param provider  服务提供方
+     * @param operation 操作名称，用于日志和 span 名称
+     * @param call      实际调用
+     * @return 调用结果
+     */
+    public <T> T execute(AiProvider provider, String operation, ProviderCall<T> call) {
+        Span span = tracer.nextSpan()
+                .name(provider.getKey() + " " + operation)
+                .tag("aigo.provider", provider.getKey())
+                .tag("aigo.operation", operation)
+                .remoteServiceName(provider.getKey())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return execute(provider, operation, call, span);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private <T> T execute(AiProvider provider, String operation, ProviderCall<T> call, Span span) {
+        ProviderState state = states.get(provider);
+        // 生成流程中的调用计入所属剧集的生成报告
+        EpisodeUsage usage = EpisodeUsage.current();
+
+        for (int attempt = 1; ; attempt++) {
+            span.tag("aigo.attempts", String.valueOf(attempt));
+            if (state.breaker.getState() == CircuitBreaker.State.OPEN) {
+                state.rejected.incrementAndGet();
+                throw new ProviderUnavailableException(provider);
+            }
+
+            acquirePermits(provider, state);
+
+            Exception failure;
+            try {
+                if (!state.breaker.allowRequest()) {
+                    state.rejected.incrementAndGet();
+                    throw new ProviderUnavailableException(provider);
+                }
+                state.totalCalls.incrementAndGet();
+                if (usage != null) {
+                    usage.recordProviderAttempt(provider.getKey());
+                }
+                T result = call.call();
+                state.breaker.onSuccess();
+                return result;
+            } catch (ProviderUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                state.inFlight.decrementAndGet();
+                state.concurrency.release();
+            }
+
+            FailureInfo info = classify(failure);
+            if (!info.retryable) {
+                if (info.isClientError()) {
+                    // 4xx 说明服务本身可达，不计入熔断
+                    state.breaker.onSuccess();
+                } else {
+                    // 解析失败、200 响应中的错误等无法判断服务是否健康，不重置失败计数，也不关闭半开熔断
+                    state.breaker.onIgnored();
+                }
+                throw propagate(failure);
+            }
+
+            state.failures.incrementAndGet();
+            state.breaker.onFailure();
+
+            if (attempt >= state.maxAttempts || state.breaker.getState() == CircuitBreaker.State.OPEN) {
+                log.error("[ProviderGateway] {} {} failed after {} attempts: {}",
+                        provider.getKey(), operation, attempt, failure.getMessage());
+                throw propagate(failure);
+            }
+
+            long delayMs = backoffDelay(attempt, info.retryAfter);
+            state.retries.incrementAndGet();
+            span.event("retry status=" + info.statusCode + " delayMs=" + delayMs);
+            if (usage != null) {
+                usage.recordProviderRetry(provider.getKey());
+            }
+            log.warn("[ProviderGateway] {} {} attempt {}/{} failed (status={}), retrying in {}ms: {}",
+                    provider.getKey(), operation, attempt, state.maxAttempts, info.statusCode, delayMs,
+                    failure.getMessage());
+
+            if (info.statusCode == 429) {
+                // 429 时设置共享冷却期，本次重试与其他调用方一起在 acquirePermits 中等待
+                state.extendCooldown(delayMs);
+            } else {
+                sleepQuietly(delayMs);
+            }
+        }
+    }
+
+    /**
+     * 获取所有提供方的运行指标
+     */
+    public List<ProviderStats> getStats() {
+        List<ProviderStats> stats = new ArrayList<>();
+        for (Map.Entry<AiProvider, ProviderState> entry : states.entrySet()) {
+            ProviderState state = entry.getValue();
+            stats.add(ProviderStats.builder()
+                    .provider(entry.getKey().getKey())
+                    .inFlight(state.inFlight.get())
+                    .queued(state.queued.get())
+                    .maxConcurrency(state.maxConcurrency)
+                    .availableTokens(state.bucket.availableTokens())
+                    .circuitState(state.breaker.getState().name())
+                    .cooldownRemainingMs(state.cooldownRemainingMs())
+                    .totalCalls(state.totalCalls.get())
+                    .retries(state.retries.get())
+                    .failures(state.failures.get())
+                    .rejected(state.rejected.get())
+                    .build());
+        }
+        return stats;
+    }
+
+    private void acquirePermits(AiProvider provider, ProviderState state) {
+        state.queued.incrementAndGet();
+        try {
+            long cooldownMs = state.cooldownRemainingMs();
+            if (cooldownMs > 0) {
+                sleeper.sleep(cooldownMs);
+            }
+            state.bucket.acquire();
+            state.concurrency.acquire();
+            state.inFlight.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderCallException("Interrupted while waiting for provider " + provider.getKey(), e);
+        } finally {
+            state.queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Full jitter 指数退避；服务端给出 Retry-After 时至少等待该时长
+     */
+    long backoffDelay(int attempt, Duration retryAfter) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (retryAfter != null) {
+            delay = Math.max(delay, Math.min(retryAfter.toMillis(), maxRetryAfterMs));
+        }
+        return delay;
+    }
+
+    private void sleepQuietly(long delayMs) {
+        try {
+            sleeper.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderCallException("Interrupted during retry backoff", e);
+        }
+    }
+
+    private RuntimeException propagate(Exception e) {
+        if (e instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ProviderCallException(e.getMessage(), e);
+    }
+
+    static FailureInfo classify(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ProviderCallException pce && pce.getStatusCode() > 0) {
+                return FailureInfo.ofStatus(pce.getStatusCode(), pce.getRetryAfter());
+            }
+            if (t instanceof RestClientResponseException rce) {
+                HttpHeaders headers = rce.getResponseHeaders();
+                Duration retryAfter = headers != null ? parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER)) : null;
+                return FailureInfo.ofStatus(rce.getStatusCode().value(), retryAfter);
+            }
+            if (t instanceof OpenAiHttpException oae) {
+                return FailureInfo.ofStatus(oae.code(), null);
+            }
+            if (t instanceof ResourceAccessException || t instanceof IOException || t instanceof TimeoutException) {
+                return new FailureInfo(true, 0, null);
+            }
+        }
+        return new FailureInfo(false, 0, null);
+    }
+
+    /**
+     * 解析 Retry-After，支持秒数和 HTTP 日期两种格式
+     */
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration duration = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    record FailureInfo(boolean retryable, int statusCode, Duration retryAfter) {
+
+        static FailureInfo ofStatus(int status, Duration retryAfter) {
+            boolean retryable = status == 408 || status == 429 || status >= 500;
+            return new FailureInfo(retryable, status, retryAfter);
+        }
+
+        boolean isClientError() {
+            return statusCode >= 400 && statusCode < 500;
+        }
+    }
+
+    private static class ProviderState {
+        final TokenBucket bucket;
+        final Semaphore concurrency;
+        final CircuitBreaker breaker;
+        final int maxConcurrency;
+        final int maxAttempts;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicLong totalCalls = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong cooldownUntilMs = new AtomicLong();
+
+        ProviderState(TokenBucket bucket, Semaphore concurrency, CircuitBreaker breaker,
+                      int maxConcurrency, int maxAttempts) {
+            this.bucket = bucket;
+            this.concurrency = concurrency;
+            this.breaker = breaker;
+            this.maxConcurrency = maxConcurrency;
+            this.maxAttempts = maxAttempts;
+        }
+
+        /**
+         * 收到 429 后，该提供方的所有调用方共同等待，避免各自重试放大流量
+         */
+        void extendCooldown(long delayMs) {
+            long until = System.currentTimeMillis() + delayMs;
+            cooldownUntilMs.accumulateAndGet(until, Math::max);
+        }
+
+        long cooldownRemainingMs() {
+            return Math.max(0, cooldownUntilMs.get() - System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.aigo.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个服务提供方的网关运行指标
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderStats {
+
+    private String provider;
+    private Integer inFlight;
+    private Integer queued;
+    private Integer maxConcurrency;
+    private Double availableTokens;
+    private String circuitState;
+    private Long cooldownRemainingMs;
+    private Long totalCalls;
+    private Long retries;
+    private Long failures;
+    private Long rejected;
+}
@@ -0,0 +1,17 @@
+package com.aigo.provider;
+
+import lombok.Getter;
+
+/**
+ * 熔断器打开时快速失败
+ */
+@Getter
+public class ProviderUnavailableException extends RuntimeException {
+
+    private final AiProvider provider;
+
+    public ProviderUnavailableException(AiProvider provider) {
+        super("Provider " + provider.getKey() + " is temporarily unavailable (circuit open)");
+        this.provider = provider;
+    }
+}
@@ -0,0 +1,86 @@
+package com.aigo.provider;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 令牌桶
+ * 按固定速率补充令牌，允许不超过容量的突发请求
+ * acquire() 采用预约方式：先扣减令牌，再等待到令牌可用的时刻，调用方之间按到达顺序排队
+ */
+public class TokenBucket {
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int capacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and capacity must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * 获取一个令牌，必要时阻塞等待
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000L, (int) (waitNanos % 1_000_000L));
+        }
+    }
+
+    /**
+     * 尝试立即获取一个令牌
+     *
+     * @return 是否获取成功
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 预约一个令牌，返回需要等待的纳秒数
+     */
+    synchronized long reserve() {
+        refill();
+        tokens -= 1.0;
+        if (tokens >= 0) {
+            return 0L;
+        }
+        return (long) Math.ceil(-tokens / permitsPerSecond * 1_000_000_000L);
+    }
+
+    /**
+     * 当前可用令牌数（可能为负，表示已有等待中的预约）
+     */
+    public synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * permitsPerSecond / 1_000_000_000L);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.aigo.repository;
+
+import com.aigo.entity.CoinBalanceSnapshot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CoinBalanceSnapshotRepository extends JpaRepository<CoinBalanceSnapshot, String> {
+    
+    /**
+     * 锁定用户的余额快照行，直到事务结束
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CoinBalanceSnapshot s WHERE s.userId = :userId")
+    Optional<CoinBalanceSnapshot> findForUpdate(String userId);
+}
@@ -0,0 +1,32 @@
+package com.aigo.repository;
+
+import com.aigo.entity.CoinTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CoinTransactionRepository extends JpaRepository<CoinTransaction, String> {
+    
+    List<CoinTransaction> findByUserIdOrderByCreatedAtDesc(String userId);
+    
+    /**
+     * 快照之后的流水合计，走 (user_id, created_at) 索引，行数只与快照间隔内的变动次数有关
+     */
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM CoinTransaction t WHERE t.userId = :userId AND t.createdAt >= :since")
+    long sumAmountSince(String userId, LocalDateTime since);
+    
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM CoinTransaction t " +
+           "WHERE t.userId = :userId AND t.createdAt >= :from AND t.createdAt < :to")
+    long sumAmountBetween(String userId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * 快照之后、截止时间之前有新流水的用户，即需要推进快照的用户
+     */
+    @Query("SELECT DISTINCT t.userId FROM CoinTransaction t, CoinBalanceSnapshot s " +
+           "WHERE s.userId = t.userId AND t.createdAt >= s.asOf AND t.createdAt < :cutoff")
+    List<String> findUserIdsWithEntriesBefore(LocalDateTime cutoff);
+}
@@ -1,15 +1,52 @@
 package com.aigo.repository;
 
+import com.aigo.dto.comment.CommentResponse;
 import com.aigo.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, String> {
     
-    List<Comment> findByTargetTypeAndTargetIdOrderByCreatedAtDesc(String targetType, String targetId);
+    /**
+     * 评论与作者信息在一条 JOIN 查询中取出，不再逐条加载 user 关联
+     */
+    String COMMENT_RESPONSE_SELECT = "SELECT new com.aigo.dto.comment.CommentResponse(" +
+            "c.id, c.targetType, c.targetId, c.userId, u.username, u.avatarUrl, c.content, c.createdAt) " +
+            "FROM Comment c LEFT JOIN c.user u WHERE c.targetType = :targetType AND c.targetId = :targetId ";
     
-    Long countByTargetTypeAndTargetId(String targetType, String targetId);
+    String ORDER_BY_CREATED_AT = "ORDER BY c.createdAt DESC, c.id DESC";
+    
+    /**
+     * 评论列表为键集分页，按 (createdAt, id) 倒序，命中 idx_target_created
+     */
+    @Query(COMMENT_RESPONSE_SELECT + ORDER_BY_CREATED_AT)
+    List<CommentResponse> findPageByTarget(String targetType, String targetId, Pageable pageable);
+    
+    @Query(COMMENT_RESPONSE_SELECT +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            ORDER_BY_CREATED_AT)
+    List<CommentResponse> findPageByTargetCreatedBefore(String targetType, String targetId,
+                                                        LocalDateTime createdAt, String id, Pageable pageable);
+    
+    /**
+     * 删除评论并返回删除行数，并发删除同一条评论时只有一次返回 1
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :commentId")
+    int deleteComment(String commentId);
+    
+    @Query("SELECT c.targetId AS workId, c.createdAt AS occurredAt FROM Comment c " +
+            "WHERE c.targetType = 'work' AND c.createdAt >= :since")
+    List<WorkActivityRow> findWorkCommentActivitySince(LocalDateTime since);
+    
+    @Query("SELECT e.workId AS workId, c.createdAt AS occurredAt FROM Comment c, Episode e " +
+            "WHERE c.targetType = 'episode' AND c.targetId = e.id AND c.createdAt >= :since")
+    List<WorkActivityRow> findEpisodeCommentActivitySince(LocalDateTime since);
 }
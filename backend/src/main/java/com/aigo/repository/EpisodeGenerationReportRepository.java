@@ -0,0 +1,40 @@
+package com.aigo.repository;
+
+import com.aigo.entity.EpisodeGenerationReport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EpisodeGenerationReportRepository extends JpaRepository<EpisodeGenerationReport, String> {
+
+    String COST_COLUMNS = "COUNT(r) AS generations, " +
+            "SUM(CASE WHEN r.status = 'FAILED' THEN 1 ELSE 0 END) AS failures, " +
+            "SUM(r.totalMs) AS totalMs, SUM(r.providerCalls) AS providerCalls, SUM(r.retries) AS retries, " +
+            "SUM(r.imageCalls) AS imageCalls, SUM(r.ttsCalls) AS ttsCalls, SUM(r.videoCalls) AS videoCalls, " +
+            "SUM(r.bytesUploaded) AS bytesUploaded, SUM(r.inputTokens) AS inputTokens, " +
+            "SUM(r.outputTokens) AS outputTokens ";
+
+    Optional<EpisodeGenerationReport> findFirstByEpisodeIdOrderByCreatedAtDesc(String episodeId);
+
+    /**
+     * 某个用户名下各作品的生成消耗，userId 为作品作者
+     */
+    @Query("SELECT r.workId AS groupKey, " + COST_COLUMNS +
+           "FROM EpisodeGenerationReport r WHERE r.userId = :userId AND r.workId IS NOT NULL " +
+           "GROUP BY r.workId ORDER BY SUM(r.totalMs) DESC")
+    List<GenerationCostRow> sumByWorkOrderByTime(String userId, Pageable pageable);
+
+    @Query("SELECT r.workId AS groupKey, " + COST_COLUMNS +
+           "FROM EpisodeGenerationReport r WHERE r.userId = :userId AND r.workId IS NOT NULL " +
+           "GROUP BY r.workId ORDER BY SUM(r.inputTokens + r.outputTokens) DESC")
+    List<GenerationCostRow> sumByWorkOrderByTokens(String userId, Pageable pageable);
+
+    @Query("SELECT r.userId AS groupKey, " + COST_COLUMNS +
+           "FROM EpisodeGenerationReport r WHERE r.userId = :userId GROUP BY r.userId")
+    Optional<GenerationCostRow> sumByUser(String userId);
+}
@@ -0,0 +1,15 @@
+package com.aigo.repository;
+
+/**
+ * 购买集数时需要的信息投影：价格和作品作者，一次查询取出
+ */
+public interface EpisodePurchaseInfo {
+    
+    String getWorkId();
+    
+    String getOwnerId();
+    
+    Boolean getIsFree();
+    
+    Integer getCoinPrice();
+}
@@ -1,22 +1,51 @@
 package com.aigo.repository;
 
+import com.aigo.dto.episode.EpisodeListItem;
 import com.aigo.entity.Episode;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EpisodeRepository extends JpaRepository<Episode, String> {
     
+    /**
+     * 列表投影只读取展示需要的列，小说全文只截取开头，scenes / characters JSON 不会被读取
+     */
+    String LIST_ITEM_SELECT = "SELECT new com.aigo.dto.episode.EpisodeListItem("
+            + "e.id, e.workId, e.episodeNumber, e.title, "
+            + "SUBSTRING(e.novelText, 1, " + EpisodeListItem.SUMMARY_LENGTH + "), "
+            + "e.isFree, e.coinPrice, e.isPublished, COALESCE(e.sceneCount, 0)) "
+            + "FROM Episode e ";
+    
     List<Episode> findByWorkIdOrderByEpisodeNumberAsc(String workId);
     
     List<Episode> findByWorkIdAndIsPublishedTrueOrderByEpisodeNumberAsc(String workId);
     
+    @Query(LIST_ITEM_SELECT + "WHERE e.workId = :workId ORDER BY e.episodeNumber ASC")
+    List<EpisodeListItem> findListItemsByWorkId(String workId);
+    
+    @Query(LIST_ITEM_SELECT + "WHERE e.workId = :workId AND e.isPublished = true ORDER BY e.episodeNumber ASC")
+    List<EpisodeListItem> findPublishedListItemsByWorkId(String workId);
+    
+    @Query(LIST_ITEM_SELECT + "WHERE e.workId IN :workIds ORDER BY e.episodeNumber ASC")
+    List<EpisodeListItem> findListItemsByWorkIdIn(Collection<String> workIds);
+    
     Optional<Episode> findByWorkIdAndEpisodeNumber(String workId, Integer episodeNumber);
     
+    @Query("SELECT e.workId AS workId, w.userId AS ownerId, e.isFree AS isFree, e.coinPrice AS coinPrice " +
+           "FROM Episode e JOIN e.work w WHERE e.id = :id")
+    Optional<EpisodePurchaseInfo> findPurchaseInfoById(String id);
+    
+    @Query("SELECT e.workId FROM Episode e WHERE e.id = :id")
+    Optional<String> findWorkIdById(String id);
+    
     @Query("SELECT MAX(e.episodeNumber) FROM Episode e WHERE e.workId = :workId")
     Optional<Integer> findMaxEpisodeNumberByWorkId(String workId);
     
@@ -24,4 +53,28 @@ public interface EpisodeRepository extends JpaRepository<Episode, String> {
     
     @Query("SELECT e FROM Episode e LEFT JOIN FETCH e.work w LEFT JOIN FETCH w.user WHERE e.id = :id")
     Optional<Episode> findByIdWithWorkAndUser(String id);
+    
+    /**
+     * 评论数原子增减，集数不存在时返回 0
+     */
+    @Modifying
+    @Query("UPDATE Episode e SET e.commentsCount = e.commentsCount + 1 WHERE e.id = :episodeId")
+    int incrementCommentsCount(String episodeId);
+    
+    @Modifying
+    @Query("UPDATE Episode e SET e.commentsCount = e.commentsCount - 1 WHERE e.id = :episodeId AND e.commentsCount > 0")
+    int decrementCommentsCount(String episodeId);
+    
+    @Query("SELECT e.commentsCount FROM Episode e WHERE e.id = :episodeId")
+    Optional<Integer> findCommentsCountById(String episodeId);
+    
+    @Query("SELECT e.id FROM Episode e WHERE e.sceneCount IS NULL")
+    List<String> findIdsWithoutSceneCount(Pageable pageable);
+    
+    /**
+     * 只回填仍为空的场景数量，不覆盖同时写入的新值
+     */
+    @Modifying
+    @Query("UPDATE Episode e SET e.sceneCount = :sceneCount WHERE e.id = :id AND e.sceneCount IS NULL")
+    int fillSceneCount(String id, int sceneCount);
 }
@@ -0,0 +1,31 @@
+package com.aigo.repository;
+
+/**
+ * 生成报告按作品或用户汇总的投影，groupKey 为作品 id 或用户 id
+ */
+public interface GenerationCostRow {
+
+    String getGroupKey();
+
+    Long getGenerations();
+
+    Long getFailures();
+
+    Long getTotalMs();
+
+    Long getProviderCalls();
+
+    Long getRetries();
+
+    Long getImageCalls();
+
+    Long getTtsCalls();
+
+    Long getVideoCalls();
+
+    Long getBytesUploaded();
+
+    Long getInputTokens();
+
+    Long getOutputTokens();
+}
@@ -2,8 +2,13 @@ package com.aigo.repository;
 
 import com.aigo.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,17 @@ public interface LikeRepository extends JpaRepository<Like, String> {
     boolean existsByUserIdAndWorkId(String userId, String workId);
     
     void deleteByUserIdAndWorkId(String userId, String workId);
+    
+    /**
+     * 直接删除并返回删除行数，并发取消点赞时只有一个请求会删到记录
+     */
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.userId = :userId AND l.workId = :workId")
+    int deleteLike(String userId, String workId);
+    
+    @Query("SELECT l.workId FROM Like l WHERE l.userId = :userId AND l.workId IN :workIds")
+    List<String> findLikedWorkIds(String userId, Collection<String> workIds);
+    
+    @Query("SELECT l.workId AS workId, l.createdAt AS occurredAt FROM Like l WHERE l.createdAt >= :since")
+    List<WorkActivityRow> findActivitySince(LocalDateTime since);
 }
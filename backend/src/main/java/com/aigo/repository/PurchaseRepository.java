@@ -2,8 +2,11 @@ package com.aigo.repository;
 
 import com.aigo.entity.Purchase;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,11 @@ public interface PurchaseRepository extends JpaRepository<Purchase, String> {
     Optional<Purchase> findByUserIdAndEpisodeId(String userId, String episodeId);
     
     boolean existsByUserIdAndEpisodeId(String userId, String episodeId);
+    
+    @Query("SELECT p.episodeId FROM Purchase p JOIN p.episode e WHERE p.userId = :userId AND e.workId = :workId")
+    List<String> findPurchasedEpisodeIdsByWorkId(String userId, String workId);
+    
+    @Query("SELECT e.workId AS workId, p.purchasedAt AS occurredAt FROM Purchase p JOIN p.episode e " +
+            "WHERE p.purchasedAt >= :since")
+    List<WorkActivityRow> findActivitySince(LocalDateTime since);
 }
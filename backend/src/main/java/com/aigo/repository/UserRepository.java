@@ -2,7 +2,10 @@ package com.aigo.repository;
 
 import com.aigo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -16,4 +19,20 @@ public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    /**
+     * 用户的期初金币，只在建立余额快照时读取一次，之后的变动全部记在金币流水里
+     */
+    @Query("SELECT u.coinBalance FROM User u WHERE u.id = :userId")
+    Optional<Integer> findCoinBalanceById(String userId);
+    
+    /**
+     * 登录后按新强度重算的哈希写回，仅当密码哈希仍是旧值时更新，避免覆盖期间修改过的密码
+     *
+     * @return 更新的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :userId AND u.passwordHash = :oldHash")
+    int updatePasswordHash(String userId, String oldHash, String newHash);
 }
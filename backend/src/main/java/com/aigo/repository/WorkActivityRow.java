@@ -0,0 +1,13 @@
+package com.aigo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 作品行为记录投影：发生在哪个作品、什么时间
+ */
+public interface WorkActivityRow {
+    
+    String getWorkId();
+    
+    LocalDateTime getOccurredAt();
+}
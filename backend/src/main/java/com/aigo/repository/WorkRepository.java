@@ -1,10 +1,15 @@
 package com.aigo.repository;
 
+import com.aigo.dto.work.GalleryItemResponse;
 import com.aigo.entity.Work;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,18 +27,88 @@ public interface WorkRepository extends JpaRepository<Work, String> {
     @Query("SELECT w FROM Work w LEFT JOIN FETCH w.episodes WHERE w.id = :id")
     Optional<Work> findByIdWithEpisodes(String id);
     
-    @Query("SELECT w FROM Work w WHERE w.id IN (SELECT l.workId FROM Like l WHERE l.userId = :userId) ORDER BY w.createdAt DESC")
-    List<Work> findLikedWorksByUserId(String userId);
+    @Query("SELECT w FROM Work w LEFT JOIN FETCH w.user WHERE w.id = :id")
+    Optional<Work> findByIdWithUser(String id);
     
-    @Query("SELECT w FROM Work w LEFT JOIN FETCH w.user WHERE w.isPublic = true ORDER BY w.createdAt DESC")
-    List<Work> findByIsPublicTrueWithUserOrderByCreatedAtDesc();
+    /**
+     * 我的作品首页，按 (createdAt, id) 倒序，命中 idx_works_user_created
+     */
+    List<Work> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
     
-    @Query("SELECT w FROM Work w LEFT JOIN FETCH w.user WHERE w.isPublic = true ORDER BY w.likesCount DESC")
-    List<Work> findByIsPublicTrueWithUserOrderByLikesCountDesc();
+    @Query("SELECT w FROM Work w WHERE w.userId = :userId " +
+            "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) " +
+            "ORDER BY w.createdAt DESC, w.id DESC")
+    List<Work> findByUserIdCreatedBefore(String userId, LocalDateTime createdAt, String id, Pageable pageable);
     
-    @Query("SELECT w FROM Work w LEFT JOIN FETCH w.user WHERE w.id = :id")
-    Optional<Work> findByIdWithUser(String id);
+    String GALLERY_ITEM_FIELDS = "SELECT new com.aigo.dto.work.GalleryItemResponse(" +
+            "w.id, w.userId, w.title, w.description, w.coverImage, w.contentType, w.likesCount, w.viewsCount, " +
+            "(SELECT COUNT(e) FROM Episode e WHERE e.workId = w.id AND e.isPublished = true), " +
+            "w.createdAt, u.username, u.avatarUrl) ";
+    
+    String GALLERY_ITEM_SELECT = GALLERY_ITEM_FIELDS +
+            "FROM Work w LEFT JOIN w.user u WHERE w.isPublic = true ";
+    
+    String FAVORITE_ITEM_SELECT = GALLERY_ITEM_FIELDS +
+            "FROM Like l JOIN l.work w LEFT JOIN w.user u WHERE l.userId = :userId ";
+    
+    String ORDER_BY_CREATED_AT = "ORDER BY w.createdAt DESC, w.id DESC";
+    
+    String ORDER_BY_LIKES_COUNT = "ORDER BY w.likesCount DESC, w.id DESC";
+    
+    /**
+     * 以下广场与收藏查询均为键集分页：只按上一页最后一条的 (排序键, id) 继续向后取，
+     * 不使用 OFFSET，翻到多深每页代价都相同
+     */
+    @Query(GALLERY_ITEM_SELECT + ORDER_BY_CREATED_AT)
+    List<GalleryItemResponse> findGalleryItemsOrderByCreatedAtDesc(Pageable pageable);
+    
+    @Query(GALLERY_ITEM_SELECT +
+            "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) " +
+            ORDER_BY_CREATED_AT)
+    List<GalleryItemResponse> findGalleryItemsCreatedBefore(LocalDateTime createdAt, String id, Pageable pageable);
+    
+    @Query(GALLERY_ITEM_SELECT + ORDER_BY_LIKES_COUNT)
+    List<GalleryItemResponse> findGalleryItemsOrderByLikesCountDesc(Pageable pageable);
+    
+    @Query(GALLERY_ITEM_SELECT +
+            "AND (w.likesCount < :likesCount OR (w.likesCount = :likesCount AND w.id < :id)) " +
+            ORDER_BY_LIKES_COUNT)
+    List<GalleryItemResponse> findGalleryItemsLikesBelow(Integer likesCount, String id, Pageable pageable);
+    
+    @Query(GALLERY_ITEM_SELECT + "AND w.id IN :ids")
+    List<GalleryItemResponse> findGalleryItemsByIds(Collection<String> ids);
+    
+    @Query(FAVORITE_ITEM_SELECT + ORDER_BY_CREATED_AT)
+    List<GalleryItemResponse> findFavoriteItems(String userId, Pageable pageable);
+    
+    @Query(FAVORITE_ITEM_SELECT +
+            "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) " +
+            ORDER_BY_CREATED_AT)
+    List<GalleryItemResponse> findFavoriteItemsCreatedBefore(String userId, LocalDateTime createdAt, String id,
+                                                             Pageable pageable);
+    
+    /**
+     * 点赞数原子加一，不读取也不整行回写作品，不会更新 updated_at
+     */
+    @Modifying
+    @Query("UPDATE Work w SET w.likesCount = w.likesCount + 1 WHERE w.id = :workId")
+    int incrementLikesCount(String workId);
+    
+    @Modifying
+    @Query("UPDATE Work w SET w.likesCount = w.likesCount - 1 WHERE w.id = :workId AND w.likesCount > 0")
+    int decrementLikesCount(String workId);
+    
+    /**
+     * 评论数原子增减，作品不存在时返回 0
+     */
+    @Modifying
+    @Query("UPDATE Work w SET w.commentsCount = w.commentsCount + 1 WHERE w.id = :workId")
+    int incrementCommentsCount(String workId);
+    
+    @Modifying
+    @Query("UPDATE Work w SET w.commentsCount = w.commentsCount - 1 WHERE w.id = :workId AND w.commentsCount > 0")
+    int decrementCommentsCount(String workId);
     
-    @Query("SELECT w FROM Work w LEFT JOIN FETCH w.user WHERE w.id IN (SELECT l.workId FROM Like l WHERE l.userId = :userId) ORDER BY w.createdAt DESC")
-    List<Work> findLikedWorksByUserIdWithUser(String userId);
+    @Query("SELECT w.commentsCount FROM Work w WHERE w.id = :workId")
+    Optional<Integer> findCommentsCountById(String workId);
 }
@@ -9,6 +9,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,8 +26,20 @@ import java.util.ArrayList;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
-    private final JwtUtil jwtUtil;
+    public static final Profiles SIMULATOR_PROFILE = Profiles.of("simulator");
+    
+    private final VerifiedTokenCache tokenCache;
     private final ObjectMapper objectMapper;
+    private final Environment environment;
+    
+    /**
+     * 模拟器接口收到的是调用方携带的 AI 服务 API Key，不是登录令牌；只在 simulator profile 下跳过
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/simulator/") && environment.acceptsProfiles(SIMULATOR_PROFILE);
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -41,12 +55,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         try {
             String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
             
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(token, username)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // 同一令牌只在首次出现时验签，之后命中缓存；过期或已吊销的令牌直接抛出异常
+                JwtPrincipal principal = tokenCache.verify(token);
+                if (principal.getUsername() != null) {
                     UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
+                        new UsernamePasswordAuthenticationToken(principal, null, new ArrayList<>());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
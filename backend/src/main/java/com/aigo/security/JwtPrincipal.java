@@ -0,0 +1,42 @@
+package com.aigo.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * 已验签的登录用户
+ * 由 JwtAuthenticationFilter 解析一次令牌后放入 SecurityContext，控制器通过
+ * {@code @AuthenticationPrincipal} 读取，不再重复解析 Authorization 头
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal {
+    
+    private final String userId;
+    private final String username;
+    private final String email;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    
+    public static JwtPrincipal from(Claims claims) {
+        return new JwtPrincipal(
+                claims.get("userId", String.class),
+                claims.getSubject(),
+                claims.get("email", String.class),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()));
+    }
+    
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+    
+    @Override
+    public String toString() {
+        return username;
+    }
+}
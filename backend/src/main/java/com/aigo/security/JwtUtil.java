@@ -1,6 +1,7 @@
 package com.aigo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,17 +12,21 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
 
+/**
+ * 签名密钥和解析器在构造时创建一次，JwtParser 不可变、线程安全，每次请求直接复用
+ */
 @Component
 public class JwtUtil {
     
-    @Value("${jwt.secret:aigo-secret-key-for-jwt-token-generation-must-be-at-least-256-bits}")
-    private String secret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration;
     
-    @Value("${jwt.expiration:86400000}")
-    private Long expiration;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public JwtUtil(@Value("${jwt.secret:aigo-secret-key-for-jwt-token-generation-must-be-at-least-256-bits}") String secret,
+                   @Value("${jwt.expiration:86400000}") long expiration) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expiration = expiration;
     }
     
     public String generateToken(String username, Map<String, Object> claims) {
@@ -33,7 +38,7 @@ public class JwtUtil {
         claims.forEach(builder::claim);
         
         return builder
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
@@ -41,12 +46,18 @@ public class JwtUtil {
         return generateToken(username, Map.of());
     }
     
+    /**
+     * 验签并解析令牌，过期或签名不符时抛出 JwtException
+     */
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+    
+    /**
+     * 一次解析得到登录用户，验签和过期检查都在解析时完成
+     */
+    public JwtPrincipal parse(String token) {
+        return JwtPrincipal.from(extractClaims(token));
     }
     
     public String extractUsername(String token) {
@@ -61,6 +72,13 @@ public class JwtUtil {
         return extractExpiration(token).before(new Date());
     }
     
+    /**
+     * 令牌有效期（毫秒）
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+    
     public boolean validateToken(String token, String username) {
         return (username.equals(extractUsername(token)) && !isTokenExpired(token));
     }
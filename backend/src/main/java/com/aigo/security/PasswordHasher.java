@@ -0,0 +1,57 @@
+package com.aigo.security;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 在独立的有界线程池中计算密码哈希
+ * 请求线程只提交任务并立即返回 CompletableFuture；队列已满时直接拒绝，返回 429 而不是排队等待
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final TaskExecutor passwordHashExecutor;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Qualifier("passwordHashExecutor") TaskExecutor passwordHashExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 已保存的哈希强度低于当前配置时返回 true
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, passwordHashExecutor);
+        } catch (TaskRejectedException e) {
+            logger.warn("[PasswordHasher] Hash queue full, rejecting request");
+            throw new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED, "登录请求过多，请稍后重试");
+        }
+    }
+}
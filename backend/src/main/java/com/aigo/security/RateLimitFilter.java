@@ -0,0 +1,155 @@
+package com.aigo.security;
+
+import com.aigo.dto.ApiResponse;
+import com.aigo.dto.ErrorCode;
+import com.aigo.provider.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 按用户和接口分组限流
+ * 位于 JwtAuthenticationFilter 之后，已登录请求按 userId 计数，匿名请求按客户端 IP 计数；
+ * 每个 (分组, 调用方) 一个令牌桶，超出配额直接返回 429，不进入任何业务代码。
+ * 令牌桶闲置到完全补满后即被清理，清理不会改变限流结果
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<RateLimitGroup, Quota> quotas = new EnumMap<>(RateLimitGroup.class);
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimitFilter(ObjectMapper objectMapper, Environment environment) {
+        this(objectMapper, environment, System::nanoTime);
+    }
+
+    RateLimitFilter(ObjectMapper objectMapper, Environment environment, LongSupplier nanoClock) {
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.enabled = environment.getProperty("aigo.rate-limit.enabled", Boolean.class, true);
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            String prefix = "aigo.rate-limit." + group.getKey() + ".";
+            int permitsPerMinute = environment.getProperty(prefix + "permits-per-minute", Integer.class,
+                    group.getDefaultPermitsPerMinute());
+            int burst = environment.getProperty(prefix + "burst", Integer.class, group.getDefaultBurst());
+            quotas.put(group, new Quota(permitsPerMinute / 60.0, burst));
+            log.info("[RateLimitFilter] {} rate={}/min burst={}", group.getKey(), permitsPerMinute, burst);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimitGroup group = RateLimitGroup.match(request.getMethod(), path);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Quota quota = quotas.get(group);
+        String key = group.getKey() + ":" + callerOf(request);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(new TokenBucket(quota.permitsPerSecond, quota.burst)));
+        bucket.lastSeenNanos = nanoClock.getAsLong();
+
+        if (bucket.tokens.tryAcquire()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("[RateLimitFilter] Rejected {} {} for {}", request.getMethod(), request.getRequestURI(), key);
+        response.setStatus(ErrorCode.RATE_LIMIT_EXCEEDED.getHttpStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((long) Math.ceil(1.0 / quota.permitsPerSecond)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        ApiResponse<Void> errorResponse = ApiResponse.error(ErrorCode.RATE_LIMIT_EXCEEDED.getCode(), "请求过于频繁，请稍后再试");
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    /**
+     * 清理已经补满的令牌桶：闲置时间超过补满所需时间的桶与新建的桶状态相同
+     */
+    @Scheduled(fixedDelayString = "${aigo.rate-limit.purge-ms:60000}",
+            initialDelayString = "${aigo.rate-limit.purge-ms:60000}")
+    public void purgeIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.entrySet().removeIf(entry -> {
+            Quota quota = quotas.get(groupOf(entry.getKey()));
+            return quota == null || now - entry.getValue().lastSeenNanos > quota.refillNanos();
+        });
+        int purged = before - buckets.size();
+        if (purged > 0) {
+            log.debug("[RateLimitFilter] Purged {} idle buckets, {} remaining", purged, buckets.size());
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                && principal.getUserId() != null) {
+            return "user:" + principal.getUserId();
+        }
+        // 部署在反向代理之后时需开启 server.forward-headers-strategy，remoteAddr 才是真实客户端地址
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static RateLimitGroup groupOf(String bucketKey) {
+        String groupKey = bucketKey.substring(0, bucketKey.indexOf(':'));
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            if (group.getKey().equals(groupKey)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private record Quota(double permitsPerSecond, int burst) {
+
+        private long refillNanos() {
+            return (long) Math.ceil(burst / permitsPerSecond * 1_000_000_000L);
+        }
+    }
+
+    private static final class Bucket {
+        private final TokenBucket tokens;
+        private volatile long lastSeenNanos;
+
+        private Bucket(TokenBucket tokens) {
+            this.tokens = tokens;
+        }
+    }
+}
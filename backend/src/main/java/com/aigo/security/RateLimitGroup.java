@@ -0,0 +1,56 @@
+package com.aigo.security;
+
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * 需要限流的接口分组，每组都会触发耗时的模型调用
+ * 同一分组内的接口共用一份配额，默认配额可通过 aigo.rate-limit.{key}.* 覆盖
+ */
+@Getter
+public enum RateLimitGroup {
+
+    EPISODE_GENERATION("episode-generation", 6, 3, List.of(
+            new Route(HttpMethod.POST, "/api/works/*/episodes"),
+            new Route(HttpMethod.POST, "/api/episodes/*/retry"))),
+    CHARACTER_IMAGE("character-image", 10, 5, List.of(
+            new Route(HttpMethod.POST, "/api/characters/*/generate-image"),
+            new Route(HttpMethod.PUT, "/api/characters/*/regenerate-image"),
+            new Route(HttpMethod.PUT, "/api/characters/*/description"))),
+    NOVEL_PARSE("novel-parse", 4, 2, List.of(
+            new Route(HttpMethod.POST, "/api/novel/parse")));
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final String key;
+    private final int defaultPermitsPerMinute;
+    private final int defaultBurst;
+    private final List<Route> routes;
+
+    RateLimitGroup(String key, int defaultPermitsPerMinute, int defaultBurst, List<Route> routes) {
+        this.key = key;
+        this.defaultPermitsPerMinute = defaultPermitsPerMinute;
+        this.defaultBurst = defaultBurst;
+        this.routes = routes;
+    }
+
+    /**
+     * @return 请求所属的分组，不需要限流时返回 null
+     */
+    public static RateLimitGroup match(String method, String path) {
+        for (RateLimitGroup group : values()) {
+            for (Route route : group.routes) {
+                if (route.method.matches(method) && PATH_MATCHER.match(route.pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private record Route(HttpMethod method, String pattern) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.aigo.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 令牌缓存指标
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenCacheStats {
+
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long misses;
+    private Double hitRate;
+    private Long evictions;
+    private Integer revokedTokens;
+    private Integer revokedUsers;
+}
@@ -0,0 +1,224 @@
+package com.aigo.security;
+
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 已验签令牌的进程内缓存
+ * 以令牌的 SHA-256 为键缓存解析结果，同一令牌在有效期内只验签一次；条目在令牌过期时失效。
+ * 缓存按键分段，每段是一个按访问顺序淘汰的 LRU，总容量有上限，段之间互不加锁。
+ * 吊销记录同样只保存在本进程内：注销的令牌保留到其过期时间，按用户吊销时该时刻及之前签发的令牌
+ * 全部失效，记录保留一个令牌有效期。多实例部署时吊销只在收到请求的实例上生效
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private static final int SEGMENTS = 16;
+
+    private final JwtUtil jwtUtil;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${aigo.auth.token-cache-size:10000}") int maxSize) {
+        this(jwtUtil, maxSize, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, int maxSize, LongSupplier clock) {
+        this.jwtUtil = jwtUtil;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * 校验令牌并返回登录用户，命中缓存时不再验签
+     * 令牌无效、过期或已被吊销时抛出 JwtException
+     */
+    public JwtPrincipal verify(String token) {
+        String key = hash(token);
+        if (revokedTokens.containsKey(key)) {
+            throw new JwtException("Token has been revoked");
+        }
+        Segment segment = segmentFor(key);
+        JwtPrincipal principal = segment.get(key, clock.getAsLong());
+        if (principal != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            principal = jwtUtil.parse(token);
+            if (principal.getExpiresAt() != null && segment.put(key, principal)) {
+                evictions.increment();
+            }
+        }
+        Long userCutoff = principal.getUserId() != null ? revokedUsers.get(principal.getUserId()) : null;
+        if (userCutoff != null && isIssuedBefore(principal, userCutoff)) {
+            throw new JwtException("Token has been revoked");
+        }
+        return principal;
+    }
+
+    /**
+     * 注销单个令牌，记录保留到令牌自身过期
+     */
+    public void revoke(String token) {
+        JwtPrincipal principal = verify(token);
+        String key = hash(token);
+        long until = principal.getExpiresAt() != null
+                ? principal.getExpiresAt().toEpochMilli()
+                : clock.getAsLong() + jwtUtil.getExpiration();
+        revokedTokens.put(key, until);
+        segmentFor(key).remove(key);
+        logger.debug("[VerifiedTokenCache] Revoked token of user {}", principal.getUserId());
+    }
+
+    /**
+     * 吊销用户此刻及之前签发的全部令牌，用于退出所有设备或封禁
+     * 令牌的签发时间只精确到秒，同一秒内重新登录得到的令牌也会被拒绝
+     */
+    public void revokeUser(String userId) {
+        revokedUsers.put(userId, clock.getAsLong());
+        logger.info("[VerifiedTokenCache] Revoked all tokens of user {}", userId);
+    }
+
+    /**
+     * 清理已过期的缓存条目和吊销记录
+     */
+    @Scheduled(fixedDelayString = "${aigo.auth.token-cache-purge-ms:60000}",
+            initialDelayString = "${aigo.auth.token-cache-purge-ms:60000}")
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        int purged = 0;
+        for (Segment segment : segments) {
+            purged += segment.purgeExpired(now);
+        }
+        revokedTokens.values().removeIf(until -> until <= now);
+        long userRetention = jwtUtil.getExpiration();
+        revokedUsers.values().removeIf(cutoff -> cutoff + userRetention <= now);
+        if (purged > 0) {
+            logger.debug("[VerifiedTokenCache] Purged {} expired tokens, hit rate {}", purged, getStats().getHitRate());
+        }
+    }
+
+    public TokenCacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return TokenCacheStats.builder()
+                .size(size)
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(total == 0 ? 0.0 : (double) hitCount / total)
+                .evictions(evictions.sum())
+                .revokedTokens(revokedTokens.size())
+                .revokedUsers(revokedUsers.size())
+                .build();
+    }
+
+    private static boolean isIssuedBefore(JwtPrincipal principal, long cutoffMillis) {
+        // iat 只有秒级精度，按秒比较，同一秒签发的令牌视为吊销之前签发
+        return principal.getIssuedAt() == null
+                || principal.getIssuedAt().getEpochSecond() <= Instant.ofEpochMilli(cutoffMillis).getEpochSecond();
+    }
+
+    private Segment segmentFor(String key) {
+        return segments[(key.hashCode() & 0x7fffffff) % SEGMENTS];
+    }
+
+    /**
+     * 缓存中不保存令牌原文
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Segment {
+        private final int capacity;
+        private final LinkedHashMap<String, JwtPrincipal> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * 已过期的条目顺带移除并视为未命中，由调用方重新解析（解析会因过期而失败）
+         */
+        private synchronized JwtPrincipal get(String key, long now) {
+            JwtPrincipal principal = entries.get(key);
+            if (principal != null && principal.getExpiresAt().toEpochMilli() <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return principal;
+        }
+
+        /**
+         * @return 是否因容量已满淘汰了最久未使用的条目
+         */
+        private synchronized boolean put(String key, JwtPrincipal principal) {
+            entries.put(key, principal);
+            if (entries.size() > capacity) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        private synchronized int purgeExpired(long now) {
+            int before = entries.size();
+            entries.values().removeIf(principal -> principal.getExpiresAt().toEpochMilli() <= now);
+            return before - entries.size();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+}
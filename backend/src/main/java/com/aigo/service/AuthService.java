@@ -7,29 +7,40 @@ import com.aigo.entity.User;
 import com.aigo.exception.BusinessException;
 import com.aigo.repository.UserRepository;
 import com.aigo.security.JwtUtil;
+import com.aigo.security.PasswordHasher;
+import com.aigo.security.VerifiedTokenCache;
 import com.aigo.dto.ErrorCode;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * 注册与登录
+ * 密码哈希在 PasswordHasher 的线程池中计算，请求线程不等待；哈希完成后的保存用户、签发令牌
+ * 在同一个哈希线程上继续执行，耗时远小于一次 BCrypt
+ */
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+    
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final CoinService coinService;
+    private final VerifiedTokenCache tokenCache;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
     private static final String DEFAULT_AVATAR_URL = "http://demo-videos.qnsdk.com/avatar_1761751958257_cab6c0720b704146bdde2fb59c00e546.png";
     
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new BusinessException(ErrorCode.BAD_REQUEST, "用户名已存在");
         }
@@ -38,56 +49,96 @@ public class AuthService {
             throw new BusinessException(ErrorCode.BAD_REQUEST, "邮箱已被注册");
         }
         
-        User user = User.builder()
-            .username(request.getUsername())
-            .email(request.getEmail())
-            .passwordHash(passwordEncoder.encode(request.getPassword()))
-            .coinBalance(100)
-            .avatarUrl(DEFAULT_AVATAR_URL)
-            .build();
-        
-        user = userRepository.save(user);
-        
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId());
-        claims.put("email", user.getEmail());
-        String token = jwtUtil.generateToken(user.getUsername(), claims);
-        
-        return AuthResponse.builder()
-            .user(AuthResponse.UserInfo.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .coinBalance(user.getCoinBalance())
-                .avatarUrl(user.getAvatarUrl())
-                .createdAt(user.getCreatedAt().format(DATE_FORMATTER))
-                .build())
-            .token(token)
-            .build();
+        return passwordHasher.encode(request.getPassword()).thenApply(passwordHash -> {
+            User user = User.builder()
+                .username(request.getUsername())
+                .email(request.getEmail())
+                .passwordHash(passwordHash)
+                .coinBalance(100)
+                .avatarUrl(DEFAULT_AVATAR_URL)
+                .build();
+            
+            user = userRepository.save(user);
+            
+            return AuthResponse.builder()
+                .user(AuthResponse.UserInfo.builder()
+                    .id(user.getId())
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .coinBalance(user.getCoinBalance())
+                    .avatarUrl(user.getAvatarUrl())
+                    .createdAt(user.getCreatedAt().format(DATE_FORMATTER))
+                    .build())
+                .token(generateToken(user))
+                .build();
+        });
     }
     
-    public AuthResponse login(LoginRequest request) {
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
         User user = userRepository.findByUsername(request.getUsername())
             .orElseThrow(() -> new BusinessException(ErrorCode.UNAUTHORIZED, "用户名或密码错误"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new BusinessException(ErrorCode.UNAUTHORIZED, "用户名或密码错误");
-        }
-        
+        return passwordHasher.matches(request.getPassword(), user.getPasswordHash()).thenApply(matched -> {
+            if (!matched) {
+                throw new BusinessException(ErrorCode.UNAUTHORIZED, "用户名或密码错误");
+            }
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                rehash(user, request.getPassword());
+            }
+            
+            return AuthResponse.builder()
+                .user(AuthResponse.UserInfo.builder()
+                    .id(user.getId())
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .coinBalance(coinService.getBalance(user.getId()))
+                    .avatarUrl(user.getAvatarUrl())
+                    .build())
+                .token(generateToken(user))
+                .build();
+        });
+    }
+    
+    private String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId());
         claims.put("email", user.getEmail());
-        String token = jwtUtil.generateToken(user.getUsername(), claims);
-        
-        return AuthResponse.builder()
-            .user(AuthResponse.UserInfo.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .coinBalance(user.getCoinBalance())
-                .avatarUrl(user.getAvatarUrl())
-                .build())
-            .token(token)
-            .build();
+        return jwtUtil.generateToken(user.getUsername(), claims);
+    }
+    
+    /**
+     * 密码强度配置调高后，在后台按新强度重算哈希，不影响本次登录的响应时间；
+     * 线程池繁忙时跳过，下次登录再试
+     */
+    private void rehash(User user, String rawPassword) {
+        String oldHash = user.getPasswordHash();
+        try {
+            passwordHasher.encode(rawPassword)
+                .thenAccept(newHash -> {
+                    if (userRepository.updatePasswordHash(user.getId(), oldHash, newHash) == 1) {
+                        logger.info("[AuthService] Upgraded password hash for user {}", user.getId());
+                    }
+                })
+                .exceptionally(e -> {
+                    logger.warn("[AuthService] Failed to upgrade password hash for user {}: {}", user.getId(), e.getMessage());
+                    return null;
+                });
+        } catch (BusinessException e) {
+            logger.debug("[AuthService] Hash pool busy, skipping rehash for user {}", user.getId());
+        }
+    }
+    
+    /**
+     * 注销当前令牌，之后携带该令牌的请求直接返回 401
+     */
+    public void logout(String token) {
+        tokenCache.revoke(token);
+    }
+    
+    /**
+     * 吊销该用户此前签发的全部令牌，所有设备需要重新登录
+     */
+    public void logoutAll(String userId) {
+        tokenCache.revokeUser(userId);
     }
 }
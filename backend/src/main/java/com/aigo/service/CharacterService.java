@@ -3,6 +3,8 @@ package com.aigo.service;
 import com.aigo.entity.CharacterEntity;
 import com.aigo.exception.BusinessException;
 import com.aigo.dto.ErrorCode;
+import com.aigo.provider.AiProvider;
+import com.aigo.provider.ProviderGateway;
 import com.aigo.repository.CharacterRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -30,6 +32,7 @@ public class CharacterService {
     
     private final CharacterRepository characterRepository;
     private final TextToImageService textToImageService;
+    private final ProviderGateway providerGateway;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Value("${deepseek.api.key}")
@@ -530,10 +533,10 @@ public class CharacterService {
                 .modelName(modelName)
                 .temperature(0.8)
                 .timeout(Duration.ofSeconds(30))
-                .maxRetries(2)
+                .maxRetries(1)
                 .build();
             
-            String response = model.generate(prompt);
+            String response = providerGateway.execute(AiProvider.DEEPSEEK, "character-features", () -> model.generate(prompt));
             logger.info("[CharacterService] LLM response: {}", response);
             
             String jsonContent = extractJsonFromResponse(response);
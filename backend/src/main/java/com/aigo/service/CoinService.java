@@ -0,0 +1,203 @@
+package com.aigo.service;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.entity.CoinBalanceSnapshot;
+import com.aigo.entity.CoinTransaction;
+import com.aigo.exception.BusinessException;
+import com.aigo.repository.CoinBalanceSnapshotRepository;
+import com.aigo.repository.CoinTransactionRepository;
+import com.aigo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * 金币账本
+ * 金币流水只追加不修改，余额 = 用户的余额快照 + 快照之后的流水之和。
+ * 充值只插入一条流水，不锁任何行；扣减需要保证余额不为负，因此锁定该用户的快照行后再读余额，
+ * 同一用户的扣减串行执行，不同用户之间互不影响，users 表不再因金币变动而被更新。
+ * 定时任务把快照推进到"当前时间 - 延迟"，使快照之后的流水始终只有最近一小段
+ */
+@Service
+public class CoinService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoinService.class);
+
+    private final UserRepository userRepository;
+    private final CoinTransactionRepository coinTransactionRepository;
+    private final CoinBalanceSnapshotRepository snapshotRepository;
+    private final TransactionTemplate ledgerTransaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration snapshotLag;
+    private final Clock clock;
+
+    @Autowired
+    public CoinService(UserRepository userRepository,
+                       CoinTransactionRepository coinTransactionRepository,
+                       CoinBalanceSnapshotRepository snapshotRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${aigo.coins.snapshot-lag-seconds:60}") long snapshotLagSeconds) {
+        this(userRepository, coinTransactionRepository, snapshotRepository, transactionManager,
+                Duration.ofSeconds(snapshotLagSeconds), Clock.systemDefaultZone());
+    }
+
+    CoinService(UserRepository userRepository,
+                CoinTransactionRepository coinTransactionRepository,
+                CoinBalanceSnapshotRepository snapshotRepository,
+                PlatformTransactionManager transactionManager,
+                Duration snapshotLag,
+                Clock clock) {
+        this.userRepository = userRepository;
+        this.coinTransactionRepository = coinTransactionRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotLag = snapshotLag;
+        this.clock = clock;
+        this.ledgerTransaction = new TransactionTemplate(transactionManager);
+        this.ledgerTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 在读已提交隔离级别的事务中执行，需要把扣减金币和其他写操作放在同一事务里时使用。
+     * 可重复读下拿到快照行锁之后仍可能读到旧的流水合计，扣减的外层事务必须由这里开启
+     */
+    public <T> T inLedgerTransaction(TransactionCallback<T> action) {
+        return ledgerTransaction.execute(action);
+    }
+
+    /**
+     * 扣减金币，余额不足时整笔失败
+     *
+     * @return 扣减后的余额
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int debit(String userId, int amount, String type, String referenceId) {
+        CoinBalanceSnapshot snapshot = snapshotRepository.findForUpdate(userId)
+                .orElseGet(() -> {
+                    openSnapshot(userId);
+                    return snapshotRepository.findForUpdate(userId).orElseThrow();
+                });
+        int balance = balanceOf(snapshot);
+        if (balance < amount) {
+            throw new BusinessException(ErrorCode.INSUFFICIENT_COINS,
+                    String.format("金币不足，需要 %d 金币，当前余额 %d", amount, balance));
+        }
+        append(userId, -amount, type, referenceId);
+        return balance - amount;
+    }
+
+    /**
+     * 增加金币，只追加流水
+     *
+     * @return 增加后的余额
+     */
+    @Transactional
+    public int credit(String userId, int amount, String type, String referenceId) {
+        CoinBalanceSnapshot snapshot = findSnapshot(userId);
+        append(userId, amount, type, referenceId);
+        return balanceOf(snapshot);
+    }
+
+    @Transactional(readOnly = true)
+    public int getBalance(String userId) {
+        return balanceOf(findSnapshot(userId));
+    }
+
+    /**
+     * 把有新流水的用户的快照推进到截止时间
+     * 截止时间比当前时间早 snapshot-lag，充值不持锁，创建时间早于截止时间但尚未提交的流水
+     * 会被快照漏掉，延迟必须远大于一次充值事务的耗时
+     */
+    @Scheduled(fixedDelayString = "${aigo.coins.snapshot-ms:300000}",
+            initialDelayString = "${aigo.coins.snapshot-ms:300000}")
+    public void refreshSnapshots() {
+        LocalDateTime cutoff = now().minus(snapshotLag);
+        List<String> userIds = coinTransactionRepository.findUserIdsWithEntriesBefore(cutoff);
+        int advanced = 0;
+        for (String userId : userIds) {
+            try {
+                ledgerTransaction.executeWithoutResult(status -> advanceSnapshot(userId, cutoff));
+                advanced++;
+            } catch (Exception e) {
+                logger.warn("[CoinService] Failed to advance balance snapshot for user {}: {}", userId, e.getMessage());
+            }
+        }
+        if (advanced > 0) {
+            logger.debug("[CoinService] Advanced {} balance snapshots to {}", advanced, cutoff);
+        }
+    }
+
+    private void advanceSnapshot(String userId, LocalDateTime cutoff) {
+        CoinBalanceSnapshot snapshot = snapshotRepository.findForUpdate(userId).orElse(null);
+        if (snapshot == null || !snapshot.getAsOf().isBefore(cutoff)) {
+            return;
+        }
+        long delta = coinTransactionRepository.sumAmountBetween(userId, snapshot.getAsOf(), cutoff);
+        snapshot.setBalance(Math.toIntExact(snapshot.getBalance() + delta));
+        snapshot.setAsOf(cutoff);
+        snapshotRepository.save(snapshot);
+    }
+
+    private int balanceOf(CoinBalanceSnapshot snapshot) {
+        long tail = coinTransactionRepository.sumAmountSince(snapshot.getUserId(), snapshot.getAsOf());
+        return Math.toIntExact(snapshot.getBalance() + tail);
+    }
+
+    private CoinBalanceSnapshot findSnapshot(String userId) {
+        return snapshotRepository.findById(userId).orElseGet(() -> openSnapshot(userId));
+    }
+
+    /**
+     * 首次访问时在独立事务中建立快照，期初余额取 users.coin_balance，此前的流水已体现在其中，不再累加。
+     * 两个请求同时建立时后插入的一方主键冲突，改为读取已有快照
+     */
+    private CoinBalanceSnapshot openSnapshot(String userId) {
+        try {
+            return snapshotTransaction.execute(status -> {
+                int opening = userRepository.findCoinBalanceById(userId)
+                        .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "用户不存在"));
+                return snapshotRepository.saveAndFlush(CoinBalanceSnapshot.builder()
+                        .userId(userId)
+                        .balance(opening)
+                        .asOf(now())
+                        .build());
+            });
+        } catch (DataIntegrityViolationException e) {
+            return snapshotTransaction.execute(status -> snapshotRepository.findById(userId).orElseThrow());
+        }
+    }
+
+    private void append(String userId, int amount, String type, String referenceId) {
+        coinTransactionRepository.save(CoinTransaction.builder()
+                .userId(userId)
+                .amount(amount)
+                .type(type)
+                .referenceId(referenceId)
+                .createdAt(now())
+                .build());
+    }
+
+    /**
+     * 截到微秒，与 created_at、as_of 的列精度一致，写入后比较的仍是同一个值
+     */
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.MICROS);
+    }
+}
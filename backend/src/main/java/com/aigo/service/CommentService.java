@@ -1,48 +1,103 @@
 package com.aigo.service;
 
+import com.aigo.dto.CursorPage;
 import com.aigo.dto.ErrorCode;
+import com.aigo.dto.comment.CommentCursor;
+import com.aigo.dto.comment.CommentPageResponse;
 import com.aigo.dto.comment.CommentResponse;
 import com.aigo.dto.comment.CreateCommentRequest;
 import com.aigo.entity.Comment;
 import com.aigo.entity.User;
 import com.aigo.exception.BusinessException;
+import com.aigo.gallery.WorkActivityEvent;
 import com.aigo.repository.CommentRepository;
+import com.aigo.repository.EpisodeRepository;
 import com.aigo.repository.UserRepository;
+import com.aigo.repository.WorkRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CommentService {
     
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    
+    private static final String TARGET_WORK = "work";
+    private static final String TARGET_EPISODE = "episode";
+    
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
+    private final WorkRepository workRepository;
+    private final EpisodeRepository episodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
+    /**
+     * 分页获取评论，按创建时间倒序
+     * 总数直接读取作品或集数上维护的评论数，不做 COUNT 查询
+     */
     @Transactional(readOnly = true)
-    public List<CommentResponse> getComments(String targetType, String targetId) {
-        List<Comment> comments = commentRepository.findByTargetTypeAndTargetIdOrderByCreatedAtDesc(targetType, targetId);
-        return comments.stream()
-                .map(this::toCommentResponse)
-                .collect(Collectors.toList());
+    public CommentPageResponse getComments(String targetType, String targetId, String cursor, Integer limit) {
+        String target = resolveTargetType(targetType);
+        int pageSize = normalizeLimit(limit);
+        CommentCursor after = CommentCursor.decode(cursor);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+        
+        List<CommentResponse> comments = after == null
+                ? commentRepository.findPageByTarget(target, targetId, fetch)
+                : commentRepository.findPageByTargetCreatedBefore(target, targetId,
+                        after.getCreatedAt(), after.getId(), fetch);
+        CursorPage<CommentResponse> page = CursorPage.of(comments, pageSize,
+                comment -> new CommentCursor(comment.getCreatedAt(), comment.getId()).encode());
+        
+        Integer totalCount = TARGET_WORK.equals(target)
+                ? workRepository.findCommentsCountById(targetId).orElse(0)
+                : episodeRepository.findCommentsCountById(targetId).orElse(0);
+        
+        return CommentPageResponse.builder()
+                .items(page.getItems())
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.getHasMore())
+                .totalCount(totalCount)
+                .build();
     }
     
+    /**
+     * 发表评论，评论对象的评论数在同一事务内原子加一；评论对象不存在时整笔失败
+     */
     @Transactional
     public CommentResponse createComment(CreateCommentRequest request, String userId) {
+        String target = resolveTargetType(request.getTargetType());
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "用户不存在"));
         
+        int updated = TARGET_WORK.equals(target)
+                ? workRepository.incrementCommentsCount(request.getTargetId())
+                : episodeRepository.incrementCommentsCount(request.getTargetId());
+        if (updated == 0) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "评论对象不存在");
+        }
+        
         Comment comment = Comment.builder()
-                .targetType(request.getTargetType())
+                .targetType(target)
                 .targetId(request.getTargetId())
                 .userId(userId)
                 .content(request.getContent())
                 .build();
         
         Comment saved = commentRepository.save(comment);
+        if (TARGET_WORK.equals(target)) {
+            eventPublisher.publishEvent(WorkActivityEvent.workComment(saved.getTargetId()));
+        } else {
+            eventPublisher.publishEvent(WorkActivityEvent.episodeComment(saved.getTargetId()));
+        }
         
         CommentResponse response = toCommentResponse(saved);
         response.setUsername(user.getUsername());
@@ -50,6 +105,9 @@ public class CommentService {
         return response;
     }
     
+    /**
+     * 删除评论，只有真正删除了评论的请求才会把评论数减一
+     */
     @Transactional
     public void deleteComment(String commentId, String userId) {
         Comment comment = commentRepository.findById(commentId)
@@ -59,7 +117,34 @@ public class CommentService {
             throw new BusinessException(ErrorCode.FORBIDDEN, "无权限删除此评论");
         }
         
-        commentRepository.delete(comment);
+        if (commentRepository.deleteComment(commentId) == 0) {
+            return;
+        }
+        if (TARGET_WORK.equalsIgnoreCase(comment.getTargetType())) {
+            workRepository.decrementCommentsCount(comment.getTargetId());
+        } else if (TARGET_EPISODE.equalsIgnoreCase(comment.getTargetType())) {
+            episodeRepository.decrementCommentsCount(comment.getTargetId());
+        }
+    }
+    
+    /**
+     * 评论对象只能是作品或集数，大小写不敏感；入库和查询统一使用小写，不依赖数据库排序规则忽略大小写
+     */
+    private String resolveTargetType(String targetType) {
+        if (TARGET_WORK.equalsIgnoreCase(targetType)) {
+            return TARGET_WORK;
+        }
+        if (TARGET_EPISODE.equalsIgnoreCase(targetType)) {
+            return TARGET_EPISODE;
+        }
+        throw new BusinessException(ErrorCode.BAD_REQUEST, "评论对象类型只能是 work 或 episode");
+    }
+    
+    private int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
     
     private CommentResponse toCommentResponse(Comment comment) {
@@ -68,8 +153,6 @@ public class CommentService {
                 .targetType(comment.getTargetType())
                 .targetId(comment.getTargetId())
                 .userId(comment.getUserId())
-                .username(comment.getUser() != null ? comment.getUser().getUsername() : null)
-                .avatarUrl(comment.getUser() != null ? comment.getUser().getAvatarUrl() : null)
                 .content(comment.getContent())
                 .createdAt(comment.getCreatedAt())
                 .build();
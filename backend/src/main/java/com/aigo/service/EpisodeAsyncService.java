@@ -2,6 +2,8 @@ package com.aigo.service;
 
 import com.aigo.entity.Episode;
 import com.aigo.entity.Work;
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.metrics.PipelineStage;
 import com.aigo.model.AnimeSegment;
 import com.aigo.repository.EpisodeRepository;
 import com.aigo.repository.WorkRepository;
@@ -11,6 +13,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,11 +23,15 @@ public class EpisodeAsyncService {
     
     private static final Logger logger = LoggerFactory.getLogger(EpisodeAsyncService.class);
     
+    private static final Pattern AGE_PATTERN = Pattern.compile("\\d+岁");
+    
     private final EpisodeRepository episodeRepository;
     private final WorkRepository workRepository;
     private final NovelParseService novelParseService;
     private final CharacterService characterService;
     private final VideoGenerationService videoGenerationService;
+    private final PipelineMetrics pipelineMetrics;
+    private final GenerationReportService generationReportService;
     
     @Async
     public void processEpisodeAsync(String episodeId, String novelText) {
@@ -33,22 +41,28 @@ public class EpisodeAsyncService {
         logger.info("[EpisodeAsyncService] Novel text content: {}", novelText);
         logger.info("[EpisodeAsyncService] ================================================");
         
+        PipelineMetrics.EpisodeRun run = pipelineMetrics.startEpisode(episodeId);
+        String contentType = null;
+        Work work = null;
+        Exception failure = null;
         try {
             Episode episode = episodeRepository.findById(episodeId).orElse(null);
             if (episode == null) {
                 logger.error("[EpisodeAsyncService] Episode not found: {}", episodeId);
+                pipelineMetrics.stopEpisode(run, null, new IllegalStateException("Episode not found: " + episodeId));
                 return;
             }
             
             episode.setStatus("PROCESSING");
             episodeRepository.save(episode);
             
-            Work work = workRepository.findById(episode.getWorkId()).orElse(null);
+            work = workRepository.findById(episode.getWorkId()).orElse(null);
             if (work == null) {
                 throw new RuntimeException("Work not found for episode: " + episodeId);
             }
             
-            boolean isVideoContent = "video".equalsIgnoreCase(work.getContentType());
+            contentType = work.getContentType();
+            boolean isVideoContent = "video".equalsIgnoreCase(contentType);
             
             AnimeSegment segment = novelParseService.parseNovelTextWithWorkId(
                 novelText, 
@@ -112,6 +126,7 @@ public class EpisodeAsyncService {
                     logger.info("[EpisodeAsyncService] Video generated successfully: {}", videoUrl);
                 } catch (Exception e) {
                     logger.error("[EpisodeAsyncService] Video generation failed, but keeping anime scenes", e);
+                    pipelineMetrics.recordFallback(PipelineStage.VIDEO);
                 }
             }
             
@@ -121,6 +136,7 @@ public class EpisodeAsyncService {
             logger.info("[EpisodeAsyncService] Episode {} processed successfully", episodeId);
             
         } catch (Exception e) {
+            failure = e;
             logger.error("[EpisodeAsyncService] Failed to process episode " + episodeId, e);
             
             Episode episode = episodeRepository.findById(episodeId).orElse(null);
@@ -130,6 +146,13 @@ public class EpisodeAsyncService {
                 episodeRepository.save(episode);
             }
         }
+        
+        // 计时、span 和消耗报告放在状态落库之后，只执行一次，出错也不会改写已经确定的集数状态
+        pipelineMetrics.stopEpisode(run, contentType, failure);
+        generationReportService.record(episodeId,
+                work != null ? work.getId() : null,
+                work != null ? work.getUserId() : null,
+                contentType, run.getUsage(), failure);
     }
     
     private String generateVideoFromSegment(AnimeSegment segment, String workId) {
@@ -197,7 +220,7 @@ public class EpisodeAsyncService {
         return videoGenerationService.generateVideoFromScenes(scenePrompts, baseImageUrl);
     }
     
-    private String extractAgeInfo(String description) {
+    String extractAgeInfo(String description) {
         if (description == null || description.isEmpty()) {
             return null;
         }
@@ -223,12 +246,9 @@ public class EpisodeAsyncService {
             return "儿童";
         }
         
-        if (description.matches(".*\\d+岁.*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)岁");
-            java.util.regex.Matcher matcher = pattern.matcher(description);
-            if (matcher.find()) {
-                return matcher.group(0);
-            }
+        Matcher matcher = AGE_PATTERN.matcher(description);
+        if (matcher.find()) {
+            return matcher.group(0);
         }
         
         return null;
@@ -0,0 +1,79 @@
+package com.aigo.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 单集出图上下文
+ * 保存本集角色的外观描述、特征数据和预先拼好的角色提示片段，以及同类场景的延续描述。
+ * 场景图在场景执行器上并行生成，可变部分均为并发安全；上下文由调用方按集创建，生成结束即不再被引用，
+ * 不同集数、不同作品之间互不影响
+ */
+public class EpisodeRenderContext {
+
+    private final Map<String, String> characterAppearances;
+    private final Map<String, CharacterRender> characters = new ConcurrentHashMap<>();
+    private final Map<String, String> sceneContexts = new ConcurrentHashMap<>();
+
+    EpisodeRenderContext(Map<String, String> characterAppearances) {
+        Map<String, String> appearances = new HashMap<>();
+        if (characterAppearances != null) {
+            characterAppearances.forEach((name, appearance) -> {
+                if (name != null && appearance != null) {
+                    appearances.put(name, appearance);
+                }
+            });
+        }
+        this.characterAppearances = Collections.unmodifiableMap(appearances);
+    }
+
+    /**
+     * 角色外观描述，未知角色直接使用角色名
+     */
+    public String getAppearance(String characterName) {
+        return characterAppearances.getOrDefault(characterName, characterName);
+    }
+
+    Map<String, String> getCharacterAppearances() {
+        return characterAppearances;
+    }
+
+    CharacterRender getCharacter(String characterName) {
+        return characterName != null ? characters.get(characterName) : null;
+    }
+
+    /**
+     * 获取角色的出图数据，不存在时由 loader 生成；同一角色只生成一次
+     */
+    CharacterRender character(String characterName, Function<String, CharacterRender> loader) {
+        return characterName != null ? characters.computeIfAbsent(characterName, loader) : null;
+    }
+
+    void putCharacter(String characterName, CharacterRender character) {
+        characters.put(characterName, character);
+    }
+
+    String getSceneContext(String contextKey) {
+        return sceneContexts.get(contextKey);
+    }
+
+    /**
+     * 同类场景第一次出现时记录延续描述，之后的场景沿用
+     */
+    void sceneContext(String contextKey, Function<String, String> creator) {
+        sceneContexts.computeIfAbsent(contextKey, creator);
+    }
+
+    int getSceneContextCount() {
+        return sceneContexts.size();
+    }
+
+    /**
+     * 角色特征数据及由其拼好的提示片段，每个场景直接拼接片段，不再逐项格式化
+     */
+    record CharacterRender(Map<String, Object> embedding, String promptFragment) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.aigo.service;
+
+import com.aigo.entity.Episode;
+import com.aigo.repository.EpisodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 回填 scene_count
+ * 该列由 ddl-auto 新增，已有的集数为空，列表页会显示 0 个场景。
+ * 启动后按批读取为空的集数，按 scenes JSON 的长度写入；全部回填后每次启动只执行一次空查询
+ */
+@Component
+public class EpisodeSceneCountBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(EpisodeSceneCountBackfill.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final EpisodeRepository episodeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public EpisodeSceneCountBackfill(EpisodeRepository episodeRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.episodeRepository = episodeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int filled = 0;
+        try {
+            while (true) {
+                Integer batch = transactionTemplate.execute(status -> fillBatch());
+                if (batch == null || batch == 0) {
+                    break;
+                }
+                filled += batch;
+            }
+        } catch (Exception e) {
+            logger.warn("[EpisodeSceneCountBackfill] Failed to backfill scene counts: {}", e.getMessage());
+        }
+        if (filled > 0) {
+            logger.info("[EpisodeSceneCountBackfill] Backfilled scene count for {} episodes", filled);
+        }
+    }
+
+    /**
+     * 回填一批，返回实际写入的行数；一行都没写入时停止，避免反复读取同一批
+     */
+    private int fillBatch() {
+        List<String> ids = episodeRepository.findIdsWithoutSceneCount(PageRequest.of(0, BATCH_SIZE));
+        int filled = 0;
+        for (Episode episode : episodeRepository.findAllById(ids)) {
+            int sceneCount = episode.getScenes() != null ? episode.getScenes().size() : 0;
+            filled += episodeRepository.fillSceneCount(episode.getId(), sceneCount);
+        }
+        return filled;
+    }
+}
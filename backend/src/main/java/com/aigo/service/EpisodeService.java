@@ -5,18 +5,23 @@ import com.aigo.dto.episode.CreateEpisodeRequest;
 import com.aigo.dto.episode.EpisodeResponse;
 import com.aigo.dto.episode.PurchaseResponse;
 import com.aigo.dto.episode.UpdateEpisodeRequest;
+import com.aigo.entity.CoinTransaction;
 import com.aigo.entity.Episode;
 import com.aigo.entity.Purchase;
-import com.aigo.entity.User;
 import com.aigo.entity.Work;
 import com.aigo.exception.BusinessException;
+import com.aigo.gallery.GalleryChangeEvent;
+import com.aigo.gallery.ViewCounter;
+import com.aigo.gallery.WorkActivityEvent;
+import com.aigo.repository.EpisodePurchaseInfo;
 import com.aigo.repository.EpisodeRepository;
 import com.aigo.repository.PurchaseRepository;
-import com.aigo.repository.UserRepository;
 import com.aigo.repository.WorkRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,8 +37,10 @@ public class EpisodeService {
     private final EpisodeRepository episodeRepository;
     private final WorkRepository workRepository;
     private final PurchaseRepository purchaseRepository;
-    private final UserRepository userRepository;
     private final EpisodeAsyncService episodeAsyncService;
+    private final CoinService coinService;
+    private final ViewCounter viewCounter;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public EpisodeResponse createEpisode(String userId, String workId, CreateEpisodeRequest request) {
@@ -65,7 +72,7 @@ public class EpisodeService {
         return EpisodeResponse.fromEntity(episode);
     }
     
-    @Transactional
+    @Transactional(readOnly = true)
     public Object getEpisode(String userId, String episodeId) {
         Episode episode = episodeRepository.findByIdWithWorkAndUser(episodeId)
                 .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "集数不存在"));
@@ -79,8 +86,10 @@ public class EpisodeService {
         
         if (episode.getIsFree() || work.getUserId().equals(userId) || 
             (userId != null && purchaseRepository.existsByUserIdAndEpisodeId(userId, episodeId))) {
-            work.setViewsCount(work.getViewsCount() + 1);
-            workRepository.save(work);
+            // 浏览量在内存中累加后批量写回，不在读取路径上更新作品行
+            if (viewCounter.record(work.getId(), episodeId, userId)) {
+                eventPublisher.publishEvent(WorkActivityEvent.view(work.getId()));
+            }
             
             return EpisodeResponse.fromEntity(episode);
         }
@@ -153,55 +162,51 @@ public class EpisodeService {
         
         episode.setIsPublished(true);
         episode = episodeRepository.save(episode);
+        if (work.getIsPublic()) {
+            eventPublisher.publishEvent(GalleryChangeEvent.workChanged(work.getId()));
+        }
         
         return EpisodeResponse.fromEntity(episode);
     }
     
-    @Transactional
+    /**
+     * 购买集数
+     * 先插入购买记录，重复购买由 unique_user_episode 唯一约束拦下（包括并发的重复请求），整个事务回滚；
+     * 再锁定买家的余额快照行，校验余额后追加扣减流水，余额不足时同样整笔回滚，不会出现负余额或重复扣费
+     */
     public PurchaseResponse purchaseEpisode(String userId, String episodeId) {
-        Episode episode = episodeRepository.findById(episodeId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "集数不存在"));
-        
-        Work work = workRepository.findById(episode.getWorkId())
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "作品不存在"));
-        
-        if (episode.getIsFree()) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, "免费集数无需购买");
-        }
-        
-        if (work.getUserId().equals(userId)) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, "无需购买自己的作品");
+        try {
+            return coinService.inLedgerTransaction(status -> {
+                EpisodePurchaseInfo episode = episodeRepository.findPurchaseInfoById(episodeId)
+                        .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "集数不存在"));
+                
+                if (episode.getIsFree()) {
+                    throw new BusinessException(ErrorCode.BAD_REQUEST, "免费集数无需购买");
+                }
+                
+                if (episode.getOwnerId().equals(userId)) {
+                    throw new BusinessException(ErrorCode.BAD_REQUEST, "无需购买自己的作品");
+                }
+                
+                Purchase purchase = purchaseRepository.saveAndFlush(Purchase.builder()
+                        .userId(userId)
+                        .episodeId(episodeId)
+                        .coinCost(episode.getCoinPrice())
+                        .build());
+                int newBalance = coinService.debit(userId, episode.getCoinPrice(),
+                        CoinTransaction.TYPE_PURCHASE, episodeId);
+                eventPublisher.publishEvent(WorkActivityEvent.purchase(episode.getWorkId()));
+                
+                return PurchaseResponse.builder()
+                        .episodeId(episodeId)
+                        .coinCost(episode.getCoinPrice())
+                        .newBalance(newBalance)
+                        .purchasedAt(purchase.getPurchasedAt())
+                        .build();
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException(ErrorCode.ALREADY_PURCHASED, "已购买过该集数");
         }
-        
-        if (purchaseRepository.existsByUserIdAndEpisodeId(userId, episodeId)) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, "已购买过该集数");
-        }
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "用户不存在"));
-        
-        if (user.getCoinBalance() < episode.getCoinPrice()) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, 
-                String.format("金币不足，需要 %d 金币，当前余额 %d", episode.getCoinPrice(), user.getCoinBalance()));
-        }
-        
-        user.setCoinBalance(user.getCoinBalance() - episode.getCoinPrice());
-        userRepository.save(user);
-        
-        Purchase purchase = Purchase.builder()
-                .userId(userId)
-                .episodeId(episodeId)
-                .coinCost(episode.getCoinPrice())
-                .build();
-        
-        purchase = purchaseRepository.save(purchase);
-        
-        return PurchaseResponse.builder()
-                .episodeId(episodeId)
-                .coinCost(episode.getCoinPrice())
-                .newBalance(user.getCoinBalance())
-                .purchasedAt(purchase.getPurchasedAt())
-                .build();
     }
     
     @Transactional
@@ -0,0 +1,134 @@
+package com.aigo.service;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.dto.report.GenerationCostSummary;
+import com.aigo.dto.report.GenerationReportResponse;
+import com.aigo.entity.EpisodeGenerationReport;
+import com.aigo.exception.BusinessException;
+import com.aigo.metrics.EpisodeUsage;
+import com.aigo.metrics.PipelineStage;
+import com.aigo.repository.EpisodeGenerationReportRepository;
+import com.aigo.repository.GenerationCostRow;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 单集生成的消耗与耗时报告
+ * 每次生成（包括失败和重新生成）落一条记录，按作品或用户汇总时重试产生的消耗同样计入
+ */
+@Service
+@RequiredArgsConstructor
+public class GenerationReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationReportService.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private static final String SORT_TIME = "time";
+    private static final String SORT_TOKENS = "tokens";
+
+    private final EpisodeGenerationReportRepository reportRepository;
+
+    /**
+     * 根据生成过程中累计的用量写入报告
+     * 报告只用于统计，写入失败只记录日志，不影响生成结果
+     */
+    public void record(String episodeId, String workId, String userId, String contentType,
+                       EpisodeUsage usage, Throwable error) {
+        try {
+            reportRepository.save(buildReport(episodeId, workId, userId, contentType, usage, error));
+        } catch (Exception e) {
+            logger.warn("[GenerationReportService] Failed to save generation report for episode {}", episodeId, e);
+        }
+    }
+
+    EpisodeGenerationReport buildReport(String episodeId, String workId, String userId, String contentType,
+                                        EpisodeUsage usage, Throwable error) {
+        return EpisodeGenerationReport.builder()
+                .episodeId(episodeId)
+                .workId(workId)
+                .userId(userId)
+                .status(error == null ? "SUCCESS" : "FAILED")
+                .contentType(contentType)
+                .totalMs(Math.max(0, System.currentTimeMillis() - usage.getStartedAtMillis()))
+                .providerCalls(usage.getProviderAttempts())
+                .retries(usage.getProviderRetries())
+                .imageCalls(usage.getStageCalls(PipelineStage.SCENE_IMAGE) + usage.getStageCalls(PipelineStage.PORTRAIT))
+                .ttsCalls(usage.getStageCalls(PipelineStage.TTS))
+                .videoCalls(usage.getStageCalls(PipelineStage.VIDEO))
+                .fallbacks(usage.getFallbacks())
+                .bytesUploaded(usage.getBytesUploaded())
+                .inputTokens(usage.getInputTokens())
+                .outputTokens(usage.getOutputTokens())
+                .stages(usage.stageSnapshots().stream()
+                        .map(s -> new EpisodeGenerationReport.StageDetail(
+                                s.stage(), s.calls(), s.errors(), s.busyMs(), s.wallMs()))
+                        .toList())
+                .providers(usage.providerSnapshots().stream()
+                        .map(p -> new EpisodeGenerationReport.ProviderDetail(p.provider(), p.attempts(), p.retries()))
+                        .toList())
+                .errorMessage(error != null ? error.getMessage() : null)
+                .build();
+    }
+
+    /**
+     * 获取某一集最近一次生成的报告，仅作品作者可见
+     */
+    @Transactional(readOnly = true)
+    public GenerationReportResponse getLatestReport(String episodeId, String userId) {
+        EpisodeGenerationReport report = reportRepository.findFirstByEpisodeIdOrderByCreatedAtDesc(episodeId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "生成报告不存在"));
+        if (!userId.equals(report.getUserId())) {
+            throw new BusinessException(ErrorCode.FORBIDDEN, "无权查看该生成报告");
+        }
+        return GenerationReportResponse.fromEntity(report);
+    }
+
+    /**
+     * 按作品汇总当前用户名下作品的生成消耗，不包含其他用户的作品
+     * @param sort time 按累计耗时倒序，tokens 按累计 token 倒序
+     */
+    @Transactional(readOnly = true)
+    public List<GenerationCostSummary> summarizeByWork(String userId, String sort, Integer limit) {
+        Pageable pageable = PageRequest.of(0, normalizeLimit(limit));
+        List<GenerationCostRow> rows = sortByTokens(sort)
+                ? reportRepository.sumByWorkOrderByTokens(userId, pageable)
+                : reportRepository.sumByWorkOrderByTime(userId, pageable);
+        return rows.stream().map(GenerationCostSummary::fromRow).toList();
+    }
+
+    /**
+     * 当前用户全部作品的生成消耗合计
+     */
+    @Transactional(readOnly = true)
+    public GenerationCostSummary summarizeUser(String userId) {
+        return reportRepository.sumByUser(userId)
+                .map(GenerationCostSummary::fromRow)
+                .orElseGet(() -> GenerationCostSummary.empty(userId));
+    }
+
+    private static boolean sortByTokens(String sort) {
+        if (sort == null || SORT_TIME.equals(sort)) {
+            return false;
+        }
+        if (SORT_TOKENS.equals(sort)) {
+            return true;
+        }
+        throw new BusinessException(ErrorCode.BAD_REQUEST, "排序方式只支持 time 或 tokens");
+    }
+
+    private static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,130 @@
+package com.aigo.service;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.dto.novel.NovelParseJobResponse;
+import com.aigo.exception.BusinessException;
+import com.aigo.model.AnimeSegment;
+import com.aigo.model.NovelParseRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 小说解析任务
+ * 解析流程耗时数分钟，提交后立即返回任务 ID，在有界线程池中执行，结果通过任务 ID 查询；
+ * 已结束的任务在内存中保留 job-ttl-minutes 后清除
+ */
+@Service
+public class NovelParseJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NovelParseJobService.class);
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+
+    private final NovelParseService novelParseService;
+    private final TaskExecutor novelParseExecutor;
+    private final Map<String, NovelParseJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${aigo.novel-parse.job-ttl-minutes:30}")
+    private long jobTtlMinutes;
+
+    public NovelParseJobService(NovelParseService novelParseService,
+                                @Qualifier("novelParseExecutor") TaskExecutor novelParseExecutor) {
+        this.novelParseService = novelParseService;
+        this.novelParseExecutor = novelParseExecutor;
+    }
+
+    public NovelParseJobResponse submit(NovelParseRequest request) {
+        purgeExpiredJobs();
+
+        NovelParseJob job = new NovelParseJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+
+        try {
+            novelParseExecutor.execute(() -> run(job, request));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            logger.warn("[NovelParseJobService] Parse queue full, rejecting job {}", job.id);
+            throw new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED, "解析任务过多，请稍后重试");
+        }
+
+        logger.info("[NovelParseJobService] Submitted job {} - text length: {}", job.id,
+            request.getText() != null ? request.getText().length() : 0);
+        return toResponse(job);
+    }
+
+    public NovelParseJobResponse getJob(String jobId) {
+        NovelParseJob job = jobs.get(jobId);
+        if (job == null || job.isExpired(jobTtlMinutes)) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "解析任务不存在或已过期");
+        }
+        return toResponse(job);
+    }
+
+    private void run(NovelParseJob job, NovelParseRequest request) {
+        job.status = STATUS_RUNNING;
+        try {
+            AnimeSegment segment = novelParseService.parseNovelText(
+                request.getText(),
+                request.getStyle(),
+                request.getTargetAudience()
+            );
+            job.result = segment;
+            job.status = STATUS_COMPLETED;
+            logger.info("[NovelParseJobService] Job {} completed - characters: {}, scenes: {}", job.id,
+                segment.getCharacters() != null ? segment.getCharacters().size() : 0,
+                segment.getScenes() != null ? segment.getScenes().size() : 0);
+        } catch (Exception e) {
+            logger.error("[NovelParseJobService] Job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = STATUS_FAILED;
+        } finally {
+            job.completedAt = LocalDateTime.now();
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        jobs.values().removeIf(job -> job.isExpired(jobTtlMinutes));
+    }
+
+    private NovelParseJobResponse toResponse(NovelParseJob job) {
+        return NovelParseJobResponse.builder()
+            .jobId(job.id)
+            .status(job.status)
+            .result(job.result)
+            .error(job.error)
+            .createdAt(job.createdAt)
+            .completedAt(job.completedAt)
+            .build();
+    }
+
+    private static class NovelParseJob {
+        private final String id;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile String status = STATUS_PENDING;
+        private volatile AnimeSegment result;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        NovelParseJob(String id) {
+            this.id = id;
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            LocalDateTime finishedAt = completedAt;
+            return finishedAt != null && finishedAt.plusMinutes(ttlMinutes).isBefore(LocalDateTime.now());
+        }
+    }
+}
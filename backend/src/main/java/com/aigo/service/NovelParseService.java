@@ -1,12 +1,20 @@
 package com.aigo.service;
 
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.metrics.PipelineStage;
 import com.aigo.model.AnimeSegment;
 import com.aigo.model.Character;
 import com.aigo.model.Scene;
+import com.aigo.provider.AiProvider;
+import com.aigo.provider.ProviderGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
 import org.slf4j.Logger;
 import java.time.Duration;
 import org.slf4j.LoggerFactory;
@@ -45,6 +53,12 @@ public class NovelParseService {
     @Autowired
     private CharacterService characterService;
     
+    @Autowired
+    private ProviderGateway providerGateway;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     public AnimeSegment parseNovelText(String text, String style, String targetAudience) {
@@ -81,13 +95,13 @@ public class NovelParseService {
                 .modelName(modelName)
                 .temperature(0.7)
                 .timeout(Duration.ofSeconds(60))
-                .maxRetries(3)
+                .maxRetries(1)
                 .build();
             
             String prompt = buildPromptWithWorkCharacters(text, style, targetAudience, workCharacters);
             
             logger.info("[NovelParseService] Calling LLM model");
-            String response = model.generate(prompt);
+            String response = generate(model, PipelineStage.LLM_PARSE, "parse-novel", prompt);
             logger.info("[NovelParseService] LLM response received");
             
             AnimeSegment segment = parseResponse(response);
@@ -258,6 +272,9 @@ public class NovelParseService {
             logger.info("[NovelParseService] Generating scene images using Image-to-Image for {} scenes", 
                 segment.getScenes().size());
             
+            // 文生图回退共用本集的出图上下文，随本方法结束释放
+            EpisodeRenderContext renderContext = textToImageService.createRenderContext(characterAppearances, null);
+            
             for (Scene scene : segment.getScenes()) {
                 String characterName = scene.getCharacter();
                 String visualDescription = scene.getVisualDescription();
@@ -303,7 +320,7 @@ public class NovelParseService {
                         
                         try {
                             String fallbackUrl = textToImageService.generateImageForScene(
-                                scene, characterAppearances, null);
+                                scene, renderContext);
                             scene.setImageUrl(fallbackUrl);
                         } catch (Exception fallbackError) {
                             logger.error("[NovelParseService] Fallback text-to-image also failed for scene {}", 
@@ -313,7 +330,7 @@ public class NovelParseService {
                 } else {
                     try {
                         String imageUrl = textToImageService.generateImageForScene(
-                            scene, characterAppearances, null);
+                            scene, renderContext);
                         scene.setImageUrl(imageUrl);
                         logger.info("[NovelParseService] Generated scene {} using text-to-image (no base image available)", 
                             scene.getSceneNumber());
@@ -385,7 +402,7 @@ public class NovelParseService {
         return buildPromptWithWorkCharacters(text, style, targetAudience, null);
     }
     
-    private String buildPromptWithWorkCharacters(String text, String style, String targetAudience, List<com.aigo.entity.CharacterEntity> workCharacters) {
+    String buildPromptWithWorkCharacters(String text, String style, String targetAudience, List<com.aigo.entity.CharacterEntity> workCharacters) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("你是一个专业的动漫脚本分析师。请深度理解以下小说文本,并将其转换为动漫桥段。\n\n");
         
@@ -462,7 +479,7 @@ public class NovelParseService {
         return prompt.toString();
     }
     
-    private AnimeSegment parseResponse(String response) {
+    AnimeSegment parseResponse(String response) {
         try {
             int jsonStart = response.indexOf("{");
             int jsonEnd = response.lastIndexOf("}") + 1;
@@ -818,10 +835,10 @@ public class NovelParseService {
                 .modelName(modelName)
                 .temperature(0.3)
                 .timeout(Duration.ofSeconds(30))
-                .maxRetries(2)
+                .maxRetries(1)
                 .build();
             
-            String response = model.generate(prompt);
+            String response = generate(model, PipelineStage.NICKNAME_DETECT, "detect-nicknames", prompt);
             logger.info("[NovelParseService] Nickname detection response: {}", response);
             
             String jsonContent = extractJsonFromResponse(response);
@@ -839,7 +856,21 @@ public class NovelParseService {
         }
     }
     
-    private String extractJsonFromResponse(String response) {
+    /**
+     * 经网关调用大模型，记录阶段耗时和返回的 token 用量
+     */
+    private String generate(ChatLanguageModel model, PipelineStage stage, String operation, String prompt) throws Exception {
+        Response<AiMessage> response = pipelineMetrics.record(stage, AiProvider.DEEPSEEK.getKey(), modelName,
+            () -> providerGateway.execute(AiProvider.DEEPSEEK, operation, () -> model.generate(UserMessage.from(prompt))));
+        TokenUsage tokenUsage = response.tokenUsage();
+        if (tokenUsage != null) {
+            pipelineMetrics.recordTokenUsage(AiProvider.DEEPSEEK.getKey(), modelName,
+                tokenUsage.inputTokenCount(), tokenUsage.outputTokenCount());
+        }
+        return response.content().text();
+    }
+    
+    String extractJsonFromResponse(String response) {
         if (response == null) {
             return "{}";
         }
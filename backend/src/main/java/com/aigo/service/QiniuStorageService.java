@@ -1,5 +1,7 @@
 package com.aigo.service;
 
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.metrics.PipelineStage;
 import com.qiniu.common.QiniuException;
 import com.qiniu.http.Response;
 import com.qiniu.storage.Configuration;
@@ -8,6 +10,7 @@ import com.qiniu.storage.UploadManager;
 import com.qiniu.util.Auth;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +22,8 @@ public class QiniuStorageService {
     
     private static final Logger logger = LoggerFactory.getLogger(QiniuStorageService.class);
     
+    private static final String STORAGE_PROVIDER = "qiniu";
+    
     @Value("${qiniu.storage.access.key}")
     private String accessKey;
     
@@ -31,6 +36,15 @@ public class QiniuStorageService {
     @Value("${qiniu.storage.domain}")
     private String domain;
     
+    /**
+     * 模拟上传：照常解码并记录上传指标，但不发往七牛，用于 simulator profile 下的本机压测
+     */
+    @Value("${qiniu.storage.simulated:false}")
+    private boolean simulated;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
     private UploadManager uploadManager;
     private Auth auth;
     
@@ -48,6 +62,10 @@ public class QiniuStorageService {
             return "http://via.placeholder.com/1024x1024.png?text=" + filePrefix;
         }
         
+        if (simulated) {
+            return simulateUpload(decodeBase64Image(base64Data), generateFileName(filePrefix), "image");
+        }
+        
         initializeIfNeeded();
         
         try {
@@ -57,9 +75,11 @@ public class QiniuStorageService {
             
             String uploadToken = auth.uploadToken(bucketName);
             
-            Response response = uploadManager.put(imageBytes, fileName, uploadToken);
+            Response response = pipelineMetrics.record(PipelineStage.UPLOAD, STORAGE_PROVIDER, "image",
+                () -> uploadManager.put(imageBytes, fileName, uploadToken));
             
             if (response.isOK()) {
+                pipelineMetrics.recordUpload("image", imageBytes.length);
                 String publicUrl = buildPublicUrl(fileName);
                 logger.info("[QiniuStorageService] Successfully uploaded image: {}", publicUrl);
                 return publicUrl;
@@ -76,7 +96,7 @@ public class QiniuStorageService {
         }
     }
     
-    private byte[] decodeBase64Image(String base64Data) {
+    byte[] decodeBase64Image(String base64Data) {
         String base64Content = base64Data;
         if (base64Data.contains(",")) {
             base64Content = base64Data.split(",")[1];
@@ -96,6 +116,10 @@ public class QiniuStorageService {
             return "https://example.com/audio/" + filePrefix + ".mp3";
         }
         
+        if (simulated) {
+            return simulateUpload(decodeBase64Audio(base64Data), generateAudioFileName(filePrefix), "audio");
+        }
+        
         initializeIfNeeded();
         
         try {
@@ -105,9 +129,11 @@ public class QiniuStorageService {
             
             String uploadToken = auth.uploadToken(bucketName);
             
-            Response response = uploadManager.put(audioBytes, fileName, uploadToken);
+            Response response = pipelineMetrics.record(PipelineStage.UPLOAD, STORAGE_PROVIDER, "audio",
+                () -> uploadManager.put(audioBytes, fileName, uploadToken));
             
             if (response.isOK()) {
+                pipelineMetrics.recordUpload("audio", audioBytes.length);
                 String publicUrl = buildPublicUrl(fileName);
                 logger.info("[QiniuStorageService] Successfully uploaded audio: {}", publicUrl);
                 return publicUrl;
@@ -138,6 +164,16 @@ public class QiniuStorageService {
         return String.format("%s_%s_%s.mp3", prefix, timestamp, uuid);
     }
     
+    private String simulateUpload(byte[] bytes, String fileName, String kind) {
+        try {
+            pipelineMetrics.record(PipelineStage.UPLOAD, STORAGE_PROVIDER, kind, () -> bytes.length);
+        } catch (Exception e) {
+            throw new RuntimeException("模拟上传失败: " + e.getMessage(), e);
+        }
+        pipelineMetrics.recordUpload(kind, bytes.length);
+        return buildPublicUrl(fileName);
+    }
+    
     private String buildPublicUrl(String fileName) {
         String domainUrl = domain;
         if (!domainUrl.startsWith("http://") && !domainUrl.startsWith("https://")) {
@@ -1,18 +1,22 @@
 package com.aigo.service;
 
 import com.aigo.entity.CharacterEntity;
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.metrics.PipelineStage;
 import com.aigo.model.Scene;
+import com.aigo.provider.AiProvider;
+import com.aigo.provider.ProviderGateway;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -20,7 +24,6 @@ import java.io.ByteArrayInputStream;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.Base64;
 
@@ -38,59 +41,65 @@ public class TextToImageService {
     @Value("${qiniu.text2img.model.name:gemini-2.5-flash-image}")
     private String modelName;
     
+    @Value("${qiniu.img2img.api.base.url:https://api.qnaigc.com/v1}")
+    private String img2imgBaseUrl;
+    
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Map<String, String> characterDescriptions = new HashMap<>();
-    private final Map<String, Map<String, Object>> characterEmbeddings = new HashMap<>();
-    private final Map<String, String> sceneContexts = new HashMap<>();
     private final QiniuStorageService qiniuStorageService;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    private final ProviderGateway providerGateway;
+    private final ExecutorService executorService;
+    private final PipelineMetrics pipelineMetrics;
     
     @Autowired
-    public TextToImageService(QiniuStorageService qiniuStorageService) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000);
-        factory.setReadTimeout(30000);
-        this.restTemplate = new RestTemplate(factory);
+    public TextToImageService(QiniuStorageService qiniuStorageService, ProviderGateway providerGateway,
+                              @Qualifier("sceneExecutor") ExecutorService executorService,
+                              @Qualifier("imageRestTemplate") RestTemplate restTemplate,
+                              PipelineMetrics pipelineMetrics) {
+        this.restTemplate = restTemplate;
         this.qiniuStorageService = qiniuStorageService;
+        this.providerGateway = providerGateway;
+        this.executorService = executorService;
+        this.pipelineMetrics = pipelineMetrics;
     }
     
-    public String generateImageForScene(Scene scene, Map<String, String> characterAppearances) {
-        return generateImageForScene(scene, characterAppearances, null);
+    /**
+     * 按集创建出图上下文：已有特征数据优先，其余角色由外观描述提取，并预先拼好每个角色的提示片段
+     */
+    public EpisodeRenderContext createRenderContext(Map<String, String> characterAppearances,
+                                                    Map<String, Map<String, Object>> existingEmbeddings) {
+        EpisodeRenderContext context = new EpisodeRenderContext(characterAppearances);
+        
+        if (existingEmbeddings != null && !existingEmbeddings.isEmpty()) {
+            existingEmbeddings.forEach((characterName, embedding) -> {
+                if (characterName != null && embedding != null) {
+                    context.putCharacter(characterName, toCharacterRender(embedding));
+                }
+            });
+            logger.info("[TextToImageService] Loaded {} existing character embeddings", existingEmbeddings.size());
+        }
+        
+        context.getCharacterAppearances().forEach((characterName, appearance) ->
+            context.character(characterName, name -> toCharacterRender(extractCharacterEmbedding(appearance, name))));
+        
+        return context;
     }
     
-    public String generateImageForScene(Scene scene, Map<String, String> characterAppearances, 
-                                       Map<String, Map<String, Object>> existingEmbeddings) {
+    public String generateImageForScene(Scene scene, EpisodeRenderContext context) {
         if ("demo-key".equals(apiKey)) {
             logger.info("[TextToImageService] Using demo mode for scene {}", scene.getSceneNumber());
             return createDemoImageUrl(scene);
         }
         
         try {
-            String characterKey = scene.getCharacter();
-            String characterDesc = characterAppearances.getOrDefault(characterKey, characterKey);
-            characterDescriptions.putIfAbsent(characterKey, characterDesc);
-            
-            if (existingEmbeddings != null && existingEmbeddings.containsKey(characterKey)) {
-                characterEmbeddings.put(characterKey, existingEmbeddings.get(characterKey));
-                logger.info("[TextToImageService] Using existing character embedding for '{}'", characterKey);
-            }
-            
-            String prompt = buildImagePrompt(scene, characterDesc);
+            String prompt = buildImagePrompt(scene, context);
             
             logger.info("[TextToImageService] Generating image for scene {}", scene.getSceneNumber());
-            String base64ImageData = callTextToImageApi(prompt);
+            String base64ImageData = pipelineMetrics.record(PipelineStage.SCENE_IMAGE,
+                AiProvider.TEXT_TO_IMAGE.getKey(), modelName, () -> callTextToImageApi(prompt));
             
             String filePrefix = "scene_" + scene.getSceneNumber();
-            String publicUrl = qiniuStorageService.uploadBase64Image(base64ImageData, filePrefix);
-            
-            if (!characterEmbeddings.containsKey(characterKey)) {
-                Map<String, Object> embedding = extractCharacterEmbedding(characterDesc, characterKey);
-                characterEmbeddings.put(characterKey, embedding);
-                logger.info("[TextToImageService] Extracted and stored character embedding for '{}'", characterKey);
-            }
-            
-            return publicUrl;
+            return qiniuStorageService.uploadBase64Image(base64ImageData, filePrefix);
             
         } catch (Exception e) {
             logger.error("[TextToImageService] Failed to generate image for scene {}", scene.getSceneNumber(), e);
@@ -104,56 +113,28 @@ public class TextToImageService {
     
     public List<String> generateImagesForScenes(List<Scene> scenes, Map<String, String> characterAppearances,
                                                 Map<String, Map<String, Object>> existingEmbeddings) {
+        return generateImagesForScenes(scenes, createRenderContext(characterAppearances, existingEmbeddings));
+    }
+    
+    public List<String> generateImagesForScenes(List<Scene> scenes, EpisodeRenderContext context) {
         logger.info("[TextToImageService] Generating images for {} scenes in parallel", scenes.size());
         
         if (scenes.isEmpty()) {
             return new ArrayList<>();
         }
         
-        if (existingEmbeddings != null && !existingEmbeddings.isEmpty()) {
-            for (Map.Entry<String, Map<String, Object>> entry : existingEmbeddings.entrySet()) {
-                characterEmbeddings.put(entry.getKey(), entry.getValue());
-            }
-            logger.info("[TextToImageService] Loaded {} existing character embeddings", existingEmbeddings.size());
-        }
-        
         List<CompletableFuture<ImageResult>> futures = scenes.stream()
             .map(scene -> CompletableFuture.supplyAsync(() -> {
-                int maxRetries = 3;
-                int retryDelay = 3000;
-                Exception lastException = null;
-                
-                for (int attempt = 1; attempt <= maxRetries; attempt++) {
-                    try {
-                        String imageUrl = generateImageForScene(scene, characterAppearances);
-                        if (attempt > 1) {
-                            logger.info("[TextToImageService] Scene {} succeeded on attempt {}", 
-                                scene.getSceneNumber(), attempt);
-                        }
-                        return new ImageResult(scene.getSceneNumber(), imageUrl, null);
-                    } catch (Exception e) {
-                        lastException = e;
-                        if (attempt < maxRetries) {
-                            logger.warn("[TextToImageService] Scene {} failed on attempt {}/{}, retrying in {}ms", 
-                                scene.getSceneNumber(), attempt, maxRetries, retryDelay);
-                            try {
-                                Thread.sleep(retryDelay);
-                            } catch (InterruptedException ie) {
-                                Thread.currentThread().interrupt();
-                                logger.error("[TextToImageService] Retry interrupted for scene {}", 
-                                    scene.getSceneNumber());
-                                break;
-                            }
-                        } else {
-                            logger.error("[TextToImageService] Scene {} failed after {} attempts, using placeholder", 
-                                scene.getSceneNumber(), maxRetries, e);
-                        }
-                    }
+                // 重试、限流由 ProviderGateway 统一处理，这里只负责失败时回退到占位图
+                try {
+                    String imageUrl = generateImageForScene(scene, context);
+                    return new ImageResult(scene.getSceneNumber(), imageUrl, null);
+                } catch (Exception e) {
+                    logger.error("[TextToImageService] Scene {} failed, using placeholder", 
+                        scene.getSceneNumber(), e);
+                    pipelineMetrics.recordFallback(PipelineStage.SCENE_IMAGE);
+                    return new ImageResult(scene.getSceneNumber(), createDemoImageUrl(scene), e.getMessage());
                 }
-                
-                String placeholder = createDemoImageUrl(scene);
-                return new ImageResult(scene.getSceneNumber(), placeholder, 
-                    lastException != null ? lastException.getMessage() : "Unknown error");
             }, executorService))
             .collect(Collectors.toList());
         
@@ -173,70 +154,32 @@ public class TextToImageService {
         return imageUrls;
     }
     
-    private String buildImagePrompt(Scene scene, String characterDescription) {
+    String buildImagePrompt(Scene scene, EpisodeRenderContext context) {
         StringBuilder prompt = new StringBuilder();
         
         prompt.append("动漫/漫画风格插画。");
         
-        String characterKey = scene.getCharacter();
-        
         String sceneContextKey = extractSceneContextKey(scene);
-        if (sceneContexts.containsKey(sceneContextKey)) {
-            prompt.append("场景延续：").append(sceneContexts.get(sceneContextKey)).append("。");
+        String sceneContext = context.getSceneContext(sceneContextKey);
+        if (sceneContext != null) {
+            prompt.append("场景延续：").append(sceneContext).append("。");
         }
         
-        prompt.append("角色：").append(characterDescription)
-            .append("。");
-        
-        if (characterEmbeddings.containsKey(characterKey)) {
-            Map<String, Object> embedding = characterEmbeddings.get(characterKey);
-            
-            if (embedding.containsKey("strictFeatures")) {
-                prompt.append("\n\n【关键约束 - 必须遵守】: ").append(embedding.get("strictFeatures")).append("。");
-            }
-            
-            prompt.append("\n\n参考角色特征数据库：");
-            if (embedding.containsKey("visualStyle")) {
-                prompt.append("\n- 视觉风格: ").append(embedding.get("visualStyle"));
-            }
-            if (embedding.containsKey("keyFeatures")) {
-                prompt.append("\n- 关键特征: ").append(embedding.get("keyFeatures"));
-            }
-            if (embedding.containsKey("hairColor")) {
-                prompt.append("\n- 发色: ").append(embedding.get("hairColor"));
-            }
-            if (embedding.containsKey("hairType")) {
-                prompt.append("\n- 发型: ").append(embedding.get("hairType"));
-            }
-            if (embedding.containsKey("eyeColor")) {
-                prompt.append("\n- 眼睛颜色: ").append(embedding.get("eyeColor"));
-            }
-            if (embedding.containsKey("eyeType")) {
-                prompt.append("\n- 眼型: ").append(embedding.get("eyeType"));
-            }
-            if (embedding.containsKey("faceShape")) {
-                prompt.append("\n- 脸型: ").append(embedding.get("faceShape"));
-            }
-            if (embedding.containsKey("skinTone")) {
-                prompt.append("\n- 肤色: ").append(embedding.get("skinTone"));
-            }
-            if (embedding.containsKey("bodyType")) {
-                prompt.append("\n- 体型: ").append(embedding.get("bodyType"));
-            }
-            if (embedding.containsKey("clothingStyle")) {
-                prompt.append("\n- 服装风格: ").append(embedding.get("clothingStyle"));
-            }
-            
-            if (embedding.containsKey("consistencyPrompt")) {
-                prompt.append("\n\n").append(embedding.get("consistencyPrompt"));
-            }
+        // 旁白等没有角色的场景不输出角色段
+        String characterKey = scene.getCharacter();
+        if (characterKey != null && !characterKey.isEmpty()) {
+            String characterDescription = context.getAppearance(characterKey);
+            prompt.append("角色：").append(characterDescription)
+                .append("。");
             
-            prompt.append("\n\n注意：角色的发色、发型、眼睛特征在所有画面中必须完全相同，不允许有任何变化。");
+            EpisodeRenderContext.CharacterRender character = context.character(characterKey,
+                name -> toCharacterRender(extractCharacterEmbedding(characterDescription, name)));
+            prompt.append(character.promptFragment());
         }
         
         if (scene.getVisualDescription() != null && !scene.getVisualDescription().isEmpty()) {
             prompt.append("场景：").append(scene.getVisualDescription()).append("。");
-            updateSceneContext(sceneContextKey, scene.getVisualDescription());
+            updateSceneContext(context, sceneContextKey, scene.getVisualDescription());
         }
         
         if (scene.getAction() != null && !scene.getAction().isEmpty()) {
@@ -252,6 +195,58 @@ public class TextToImageService {
         return prompt.toString();
     }
     
+    private EpisodeRenderContext.CharacterRender toCharacterRender(Map<String, Object> embedding) {
+        return new EpisodeRenderContext.CharacterRender(
+            Collections.unmodifiableMap(new HashMap<>(embedding)), buildCharacterPromptFragment(embedding));
+    }
+    
+    private String buildCharacterPromptFragment(Map<String, Object> embedding) {
+        StringBuilder fragment = new StringBuilder();
+        
+        if (embedding.containsKey("strictFeatures")) {
+            fragment.append("\n\n【关键约束 - 必须遵守】: ").append(embedding.get("strictFeatures")).append("。");
+        }
+        
+        fragment.append("\n\n参考角色特征数据库：");
+        if (embedding.containsKey("visualStyle")) {
+            fragment.append("\n- 视觉风格: ").append(embedding.get("visualStyle"));
+        }
+        if (embedding.containsKey("keyFeatures")) {
+            fragment.append("\n- 关键特征: ").append(embedding.get("keyFeatures"));
+        }
+        if (embedding.containsKey("hairColor")) {
+            fragment.append("\n- 发色: ").append(embedding.get("hairColor"));
+        }
+        if (embedding.containsKey("hairType")) {
+            fragment.append("\n- 发型: ").append(embedding.get("hairType"));
+        }
+        if (embedding.containsKey("eyeColor")) {
+            fragment.append("\n- 眼睛颜色: ").append(embedding.get("eyeColor"));
+        }
+        if (embedding.containsKey("eyeType")) {
+            fragment.append("\n- 眼型: ").append(embedding.get("eyeType"));
+        }
+        if (embedding.containsKey("faceShape")) {
+            fragment.append("\n- 脸型: ").append(embedding.get("faceShape"));
+        }
+        if (embedding.containsKey("skinTone")) {
+            fragment.append("\n- 肤色: ").append(embedding.get("skinTone"));
+        }
+        if (embedding.containsKey("bodyType")) {
+            fragment.append("\n- 体型: ").append(embedding.get("bodyType"));
+        }
+        if (embedding.containsKey("clothingStyle")) {
+            fragment.append("\n- 服装风格: ").append(embedding.get("clothingStyle"));
+        }
+        
+        if (embedding.containsKey("consistencyPrompt")) {
+            fragment.append("\n\n").append(embedding.get("consistencyPrompt"));
+        }
+        
+        fragment.append("\n\n注意：角色的发色、发型、眼睛特征在所有画面中必须完全相同，不允许有任何变化。");
+        return fragment.toString();
+    }
+    
     private String extractSceneContextKey(Scene scene) {
         if (scene.getVisualDescription() != null && !scene.getVisualDescription().isEmpty()) {
             String desc = scene.getVisualDescription();
@@ -264,8 +259,8 @@ public class TextToImageService {
         return "general_" + (scene.getSceneNumber() / 3);
     }
     
-    private void updateSceneContext(String contextKey, String visualDescription) {
-        if (!sceneContexts.containsKey(contextKey)) {
+    private void updateSceneContext(EpisodeRenderContext renderContext, String contextKey, String visualDescription) {
+        renderContext.sceneContext(contextKey, key -> {
             String context = "保持相同的场景背景和环境";
             if (visualDescription.contains("房间")) {
                 context = "保持相同的房间布局、装饰和光照";
@@ -276,9 +271,9 @@ public class TextToImageService {
             } else if (visualDescription.contains("公园")) {
                 context = "保持相同的公园景色和环境";
             }
-            sceneContexts.put(contextKey, context);
-            logger.info("[TextToImageService] Created scene context for '{}': {}", contextKey, context);
-        }
+            logger.info("[TextToImageService] Created scene context for '{}': {}", key, context);
+            return context;
+        });
     }
     
     private String callTextToImageApi(String prompt) throws Exception {
@@ -297,12 +292,13 @@ public class TextToImageService {
         
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
         
-        ResponseEntity<String> response = restTemplate.exchange(
-            url,
-            HttpMethod.POST,
-            entity,
-            String.class
-        );
+        ResponseEntity<String> response = providerGateway.execute(AiProvider.TEXT_TO_IMAGE, "images/generations",
+            () -> restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                String.class
+            ));
         
         JsonNode responseJson = objectMapper.readTree(response.getBody());
         JsonNode dataArray = responseJson.get("data");
@@ -549,62 +545,33 @@ public class TextToImageService {
         return embedding;
     }
     
-    public Map<String, Map<String, Object>> getCharacterEmbeddings() {
-        return new HashMap<>(characterEmbeddings);
-    }
-    
-    public void setCharacterEmbedding(String characterName, Map<String, Object> embedding) {
-        if (characterName != null && embedding != null) {
-            characterEmbeddings.put(characterName, embedding);
-            logger.info("[TextToImageService] Set character embedding for '{}'", characterName);
-        }
-    }
-    
     public String generateBaseCharacterImage(CharacterEntity character) {
         if ("demo-key".equals(apiKey)) {
             logger.info("[TextToImageService] Using demo mode for base character image: {}", character.getName());
             return "http://via.placeholder.com/1024x1024.png?text=Character+" + character.getName();
         }
         
-        int maxRetries = 5;
-        int retryDelaySeconds = 30;
-        Exception lastException = null;
-        
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                String prompt = buildBaseCharacterPrompt(character);
-                
-                logger.info("[TextToImageService] Generating base image for character '{}' (attempt {}/{})", 
-                    character.getName(), attempt, maxRetries);
-                String base64ImageData = callTextToImageApi(prompt);
-                
-                String filePrefix = "character_base_" + character.getName() + "_" + System.currentTimeMillis();
-                String publicUrl = qiniuStorageService.uploadBase64Image(base64ImageData, filePrefix);
-                
-                logger.info("[TextToImageService] Base character image generated: {}", publicUrl);
-                return publicUrl;
-                
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("[TextToImageService] Failed to generate base character image for '{}' (attempt {}/{})", 
-                    character.getName(), attempt, maxRetries, e);
-                
-                if (attempt < maxRetries) {
-                    try {
-                        logger.info("[TextToImageService] Retrying in {} seconds...", retryDelaySeconds);
-                        Thread.sleep(retryDelaySeconds * 1000L);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("重试被中断: " + ie.getMessage(), ie);
-                    }
-                }
-            }
+        try {
+            String prompt = buildBaseCharacterPrompt(character);
+            
+            logger.info("[TextToImageService] Generating base image for character '{}'", character.getName());
+            String base64ImageData = pipelineMetrics.record(PipelineStage.PORTRAIT,
+                AiProvider.TEXT_TO_IMAGE.getKey(), modelName, () -> callTextToImageApi(prompt));
+            
+            String filePrefix = "character_base_" + character.getName() + "_" + System.currentTimeMillis();
+            String publicUrl = qiniuStorageService.uploadBase64Image(base64ImageData, filePrefix);
+            
+            logger.info("[TextToImageService] Base character image generated: {}", publicUrl);
+            return publicUrl;
+            
+        } catch (Exception e) {
+            logger.error("[TextToImageService] Failed to generate base character image for '{}'", 
+                character.getName(), e);
+            throw new RuntimeException("基础角色图片生成失败: " + e.getMessage(), e);
         }
-        
-        throw new RuntimeException("基础角色图片生成失败，已重试" + maxRetries + "次: " + lastException.getMessage(), lastException);
     }
     
-    private String buildBaseCharacterPrompt(CharacterEntity character) {
+    String buildBaseCharacterPrompt(CharacterEntity character) {
         StringBuilder prompt = new StringBuilder();
         
         prompt.append("动漫/漫画风格角色立绘。");
@@ -668,7 +635,8 @@ public class TextToImageService {
             
             logger.info("[TextToImageService] Generating scene {} from {} base image(s) using Image-to-Image", 
                 scene.getSceneNumber(), baseImageUrls.size());
-            String base64ImageData = callImageToImageApi(baseImageUrls, prompt);
+            String base64ImageData = pipelineMetrics.record(PipelineStage.SCENE_IMAGE,
+                AiProvider.IMAGE_TO_IMAGE.getKey(), modelName, () -> callImageToImageApi(baseImageUrls, prompt));
             
             String filePrefix = "scene_" + scene.getSceneNumber() + "_" + System.currentTimeMillis();
             String publicUrl = qiniuStorageService.uploadBase64Image(base64ImageData, filePrefix);
@@ -716,7 +684,7 @@ public class TextToImageService {
     }
     
     private String callImageToImageApi(List<String> imageUrls, String prompt) throws Exception {
-        String url = "https://api.qnaigc.com/v1/images/edits";
+        String url = img2imgBaseUrl + "/images/edits";
         
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + apiKey);
@@ -739,12 +707,13 @@ public class TextToImageService {
         logger.info("[TextToImageService] Calling Image-to-Image API with {} base image(s) and prompt: {}", 
             imageUrls.size(), prompt);
         
-        ResponseEntity<String> response = restTemplate.exchange(
-            url,
-            HttpMethod.POST,
-            entity,
-            String.class
-        );
+        ResponseEntity<String> response = providerGateway.execute(AiProvider.IMAGE_TO_IMAGE, "images/edits",
+            () -> restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                String.class
+            ));
         
         JsonNode responseJson = objectMapper.readTree(response.getBody());
         JsonNode dataArray = responseJson.get("data");
@@ -1,19 +1,26 @@
 package com.aigo.service;
 
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.metrics.PipelineStage;
 import com.aigo.model.Character;
 import com.aigo.model.Scene;
+import com.aigo.provider.AiProvider;
+import com.aigo.provider.ProviderGateway;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.util.*;
 
 @Service
@@ -30,8 +37,17 @@ public class TextToSpeechService {
     @Autowired
     private QiniuStorageService qiniuStorageService;
     
+    @Autowired
+    private ProviderGateway providerGateway;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    @Qualifier("ttsRestTemplate")
+    private RestTemplate restTemplate;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient httpClient = HttpClient.newHttpClient();
     
     private final Map<String, String> characterVoiceCache = new HashMap<>();
     private List<VoiceProfile> availableVoices = null;
@@ -68,6 +84,7 @@ public class TextToSpeechService {
             } catch (Exception e) {
                 logger.error("[TextToSpeechService] Failed to generate audio for scene {}", 
                     scene.getSceneNumber(), e);
+                pipelineMetrics.recordFallback(PipelineStage.TTS);
                 audioUrls.add(null);
             }
         }
@@ -99,23 +116,25 @@ public class TextToSpeechService {
         
         logger.debug("[TextToSpeechService] Request body: {}", jsonBody);
         
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(endpoint))
-            .header("Content-Type", "application/json")
-            .header("Authorization", "Bearer " + apiKey)
-            .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-            .build();
-        
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200) {
-            logger.error("[TextToSpeechService] TTS API failed with status: {}", response.statusCode());
-            logger.error("[TextToSpeechService] Request body was: {}", jsonBody);
-            logger.error("[TextToSpeechService] Response body: {}", response.body());
-            throw new RuntimeException("TTS API failed with status: " + response.statusCode() + ", response: " + response.body());
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Content-Type", "application/json");
+        headers.set("Authorization", "Bearer " + apiKey);
+        HttpEntity<String> entity = new HttpEntity<>(jsonBody, headers);
+        
+        // TTS 接口没有模型名，以音色作为 model 标签，音色来自服务端的固定列表
+        ResponseEntity<String> response = pipelineMetrics.record(PipelineStage.TTS, AiProvider.TTS.getKey(), voiceType,
+            () -> providerGateway.execute(AiProvider.TTS, "voice/tts", () -> {
+                try {
+                    return restTemplate.exchange(endpoint, HttpMethod.POST, entity, String.class);
+                } catch (RestClientResponseException e) {
+                    logger.error("[TextToSpeechService] TTS API failed with status: {}", e.getStatusCode().value());
+                    logger.error("[TextToSpeechService] Request body was: {}", jsonBody);
+                    logger.error("[TextToSpeechService] Response body: {}", e.getResponseBodyAsString());
+                    throw e;
+                }
+            }));
         
-        JsonNode responseJson = objectMapper.readTree(response.body());
+        JsonNode responseJson = objectMapper.readTree(response.getBody());
         String base64Audio = responseJson.get("data").asText();
         
         String audioUrl = qiniuStorageService.uploadBase64Audio(base64Audio, "scene_" + sceneNumber);
@@ -313,16 +332,14 @@ public class TextToSpeechService {
         try {
             String endpoint = baseUrl + "/voice/list";
             
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(endpoint))
-                .header("Authorization", "Bearer " + apiKey)
-                .GET()
-                .build();
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + apiKey);
             
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            ResponseEntity<String> response = restTemplate.exchange(
+                endpoint, HttpMethod.GET, new HttpEntity<>(headers), String.class);
             
-            if (response.statusCode() == 200) {
-                JsonNode voicesJson = objectMapper.readTree(response.body());
+            if (response.getStatusCode().value() == 200) {
+                JsonNode voicesJson = objectMapper.readTree(response.getBody());
                 availableVoices = parseVoiceList(voicesJson);
                 logger.info("[TextToSpeechService] Fetched {} available voices", availableVoices.size());
             }
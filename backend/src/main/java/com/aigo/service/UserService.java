@@ -4,6 +4,7 @@ import com.aigo.dto.ErrorCode;
 import com.aigo.dto.user.BalanceResponse;
 import com.aigo.dto.user.RechargeResponse;
 import com.aigo.dto.user.UploadAvatarResponse;
+import com.aigo.entity.CoinTransaction;
 import com.aigo.entity.User;
 import com.aigo.exception.BusinessException;
 import com.aigo.repository.UserRepository;
@@ -17,22 +18,17 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final QiniuStorageService qiniuStorageService;
+    private final CoinService coinService;
     
     @Transactional(readOnly = true)
     public BalanceResponse getBalance(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "用户不存在"));
-        
         return BalanceResponse.builder()
-                .balance(user.getCoinBalance())
+                .balance(coinService.getBalance(userId))
                 .build();
     }
     
     @Transactional
     public RechargeResponse rechargeCoins(String userId, Integer amount) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "用户不存在"));
-        
         if (amount == null || amount <= 0) {
             throw new BusinessException(ErrorCode.BAD_REQUEST, "充值金额必须大于0");
         }
@@ -41,12 +37,11 @@ public class UserService {
             throw new BusinessException(ErrorCode.BAD_REQUEST, "单次充值金额不能超过1000金币");
         }
         
-        user.setCoinBalance(user.getCoinBalance() + amount);
-        userRepository.save(user);
+        int newBalance = coinService.credit(userId, amount, CoinTransaction.TYPE_RECHARGE, null);
         
         return RechargeResponse.builder()
                 .rechargeAmount(amount)
-                .newBalance(user.getCoinBalance())
+                .newBalance(newBalance)
                 .build();
     }
     
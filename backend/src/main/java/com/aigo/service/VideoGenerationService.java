@@ -1,16 +1,20 @@
 package com.aigo.service;
 
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.metrics.PipelineStage;
+import com.aigo.provider.AiProvider;
+import com.aigo.provider.ProviderGateway;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -30,17 +34,23 @@ public class VideoGenerationService {
     @Value("${qiniu.video.model.name:veo-3.0-fast-generate-001}")
     private String modelName;
     
+    @Value("${qiniu.video.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+    
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final QiniuStorageService qiniuStorageService;
+    private final ProviderGateway providerGateway;
+    private final PipelineMetrics pipelineMetrics;
     
     @Autowired
-    public VideoGenerationService(QiniuStorageService qiniuStorageService) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(30000);
-        factory.setReadTimeout(120000);
-        this.restTemplate = new RestTemplate(factory);
+    public VideoGenerationService(QiniuStorageService qiniuStorageService, ProviderGateway providerGateway,
+                                  @Qualifier("videoRestTemplate") RestTemplate restTemplate,
+                                  PipelineMetrics pipelineMetrics) {
+        this.restTemplate = restTemplate;
         this.qiniuStorageService = qiniuStorageService;
+        this.providerGateway = providerGateway;
+        this.pipelineMetrics = pipelineMetrics;
     }
     
     public String generateVideoFromImageAndPrompt(String baseImageUrl, String prompt) {
@@ -53,13 +63,16 @@ public class VideoGenerationService {
             logger.info("[VideoGenerationService] Starting video generation with prompt: {}", 
                 prompt.substring(0, Math.min(100, prompt.length())));
             
-            String taskId = createVideoGenerationTask(baseImageUrl, prompt);
-            logger.info("[VideoGenerationService] Video generation task created with ID: {}", taskId);
-            
-            String videoUrl = pollVideoGenerationStatus(taskId);
-            logger.info("[VideoGenerationService] Video generation completed: {}", videoUrl);
-            
-            return videoUrl;
+            // 计时覆盖建任务和轮询，即用户实际等待视频的时间
+            return pipelineMetrics.record(PipelineStage.VIDEO, AiProvider.VIDEO.getKey(), modelName, () -> {
+                String taskId = createVideoGenerationTask(baseImageUrl, prompt);
+                logger.info("[VideoGenerationService] Video generation task created with ID: {}", taskId);
+                
+                String videoUrl = pollVideoGenerationStatus(taskId);
+                logger.info("[VideoGenerationService] Video generation completed: {}", videoUrl);
+                
+                return videoUrl;
+            });
             
         } catch (Exception e) {
             logger.error("[VideoGenerationService] Failed to generate video", e);
@@ -97,7 +110,8 @@ public class VideoGenerationService {
         logger.debug("[VideoGenerationService] Request body: {}", requestJson);
         
         HttpEntity<String> entity = new HttpEntity<>(requestJson, headers);
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+        ResponseEntity<String> response = providerGateway.execute(AiProvider.VIDEO, "videos/generations",
+            () -> restTemplate.exchange(url, HttpMethod.POST, entity, String.class));
         
         JsonNode jsonResponse = objectMapper.readTree(response.getBody());
         String taskId = jsonResponse.get("id").asText();
@@ -120,9 +134,10 @@ public class VideoGenerationService {
             attemptCount++;
             
             try {
-                Thread.sleep(5000);
+                Thread.sleep(pollIntervalMs);
                 
-                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+                ResponseEntity<String> response = providerGateway.execute(AiProvider.VIDEO, "videos/status",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, String.class));
                 JsonNode jsonResponse = objectMapper.readTree(response.getBody());
                 
                 String status = jsonResponse.get("status").asText();
@@ -1,20 +1,36 @@
 package com.aigo.service;
 
+import com.aigo.dto.CursorPage;
 import com.aigo.dto.ErrorCode;
+import com.aigo.dto.episode.EpisodeListItem;
 import com.aigo.dto.work.CreateWorkRequest;
 import com.aigo.dto.work.GalleryItemResponse;
 import com.aigo.dto.work.UpdateWorkRequest;
+import com.aigo.dto.work.WorkCursor;
 import com.aigo.dto.work.WorkResponse;
 import com.aigo.entity.Work;
 import com.aigo.exception.BusinessException;
+import com.aigo.gallery.GalleryChangeEvent;
+import com.aigo.gallery.GalleryFeedCache;
+import com.aigo.gallery.TrendingService;
 import com.aigo.repository.EpisodeRepository;
 import com.aigo.repository.LikeRepository;
 import com.aigo.repository.WorkRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +41,13 @@ public class WorkService {
     private final LikeRepository likeRepository;
     private final EpisodeRepository episodeRepository;
     private final com.aigo.repository.PurchaseRepository purchaseRepository;
+    private final GalleryFeedCache galleryFeedCache;
+    private final TrendingService trendingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
     
     @Transactional
     public WorkResponse createWork(String userId, CreateWorkRequest request) {
@@ -46,6 +69,9 @@ public class WorkService {
                 .build();
         
         work = workRepository.save(work);
+        if (work.getIsPublic()) {
+            eventPublisher.publishEvent(GalleryChangeEvent.workChanged(work.getId()));
+        }
         return WorkResponse.fromEntity(work);
     }
     
@@ -54,19 +80,20 @@ public class WorkService {
         Work work = workRepository.findByIdWithUser(workId)
                 .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "作品不存在"));
         WorkResponse response = WorkResponse.fromEntity(work);
-        response.setEpisodes(
-            episodeRepository.findByWorkIdAndIsPublishedTrueOrderByEpisodeNumberAsc(workId)
-                .stream()
-                .map(episode -> {
-                    com.aigo.dto.episode.EpisodeListItem item = com.aigo.dto.episode.EpisodeListItem.fromEntity(episode);
-                    if (currentUserId != null && !episode.getIsFree()) {
-                        boolean isPurchased = purchaseRepository.existsByUserIdAndEpisodeId(currentUserId, episode.getId());
-                        item.setIsPurchased(isPurchased);
-                    }
-                    return item;
-                })
-                .collect(Collectors.toList())
-        );
+        // 作者本人可以看到未发布的集数，编辑页和播放页不再需要拉取全部"我的作品"
+        boolean isOwner = currentUserId != null && currentUserId.equals(work.getUserId());
+        // 列表只查询展示字段，不加载小说全文和场景 JSON
+        List<EpisodeListItem> episodes = isOwner
+                ? episodeRepository.findListItemsByWorkId(workId)
+                : episodeRepository.findPublishedListItemsByWorkId(workId);
+        // 付费集数的购买状态一次查出，不再逐集查询
+        boolean hasPaidEpisode = episodes.stream().anyMatch(episode -> !episode.getIsFree());
+        Set<String> purchasedEpisodeIds = currentUserId != null && hasPaidEpisode
+                ? new HashSet<>(purchaseRepository.findPurchasedEpisodeIdsByWorkId(currentUserId, workId))
+                : Set.of();
+        episodes.forEach(episode -> episode.setIsPurchased(
+                !episode.getIsFree() && purchasedEpisodeIds.contains(episode.getId())));
+        response.setEpisodes(episodes);
         boolean isLiked = currentUserId != null && 
                 likeRepository.existsByUserIdAndWorkId(currentUserId, workId);
         response.setIsLiked(isLiked);
@@ -92,6 +119,7 @@ public class WorkService {
         }
         
         work = workRepository.save(work);
+        eventPublisher.publishEvent(GalleryChangeEvent.workChanged(workId));
         return WorkResponse.fromEntity(work);
     }
     
@@ -101,90 +129,153 @@ public class WorkService {
                 .orElseThrow(() -> new BusinessException(ErrorCode.FORBIDDEN, "无权限删除此作品"));
         
         workRepository.delete(work);
+        eventPublisher.publishEvent(GalleryChangeEvent.workChanged(workId));
     }
     
     @Transactional(readOnly = true)
-    public List<WorkResponse> getMyWorks(String userId) {
-        List<Work> works = workRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public CursorPage<WorkResponse> getMyWorks(String userId, String cursor, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        WorkCursor after = WorkCursor.decode(cursor, WorkCursor.SORT_LATEST);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+        
+        List<Work> works = after == null
+                ? workRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, fetch)
+                : workRepository.findByUserIdCreatedBefore(userId, after.getCreatedAt(), after.getId(), fetch);
+        
+        CursorPage<Work> workPage = CursorPage.of(works, pageSize,
+                work -> WorkCursor.latest(work.getCreatedAt(), work.getId()).encode());
         
-        return works.stream()
+        // 当页所有作品的集数一次查出，按作品分组
+        List<String> workIds = workPage.getItems().stream().map(Work::getId).collect(Collectors.toList());
+        Map<String, List<EpisodeListItem>> episodesByWork = workIds.isEmpty()
+                ? Map.of()
+                : episodeRepository.findListItemsByWorkIdIn(workIds).stream()
+                        .collect(Collectors.groupingBy(EpisodeListItem::getWorkId));
+        
+        List<WorkResponse> responses = workPage.getItems().stream()
                 .map(work -> {
                     WorkResponse response = WorkResponse.fromEntity(work);
-                    response.setEpisodes(
-                        episodeRepository.findByWorkIdOrderByEpisodeNumberAsc(work.getId())
-                            .stream()
-                            .map(com.aigo.dto.episode.EpisodeListItem::fromEntity)
-                            .collect(Collectors.toList())
-                    );
+                    response.setEpisodes(episodesByWork.getOrDefault(work.getId(), new ArrayList<>()));
                     return response;
                 })
                 .collect(Collectors.toList());
+        return new CursorPage<>(responses, workPage.getNextCursor(), workPage.getHasMore());
     }
     
     @Transactional(readOnly = true)
-    public List<GalleryItemResponse> getGallery(String currentUserId, String sortBy) {
-        List<Work> works;
+    public CursorPage<GalleryItemResponse> getGallery(String currentUserId, String sortBy, String cursor, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+        CursorPage<GalleryItemResponse> page;
         
-        if ("likes".equals(sortBy)) {
-            works = workRepository.findByIsPublicTrueWithUserOrderByLikesCountDesc();
+        // 前若干页由内存榜单直接提供，只有翻出缓存窗口才查询数据库
+        if (WorkCursor.SORT_TRENDING.equals(sortBy)) {
+            WorkCursor after = WorkCursor.decode(cursor, WorkCursor.SORT_TRENDING);
+            page = trendingService.page(after, pageSize);
+        } else if (WorkCursor.SORT_LIKES.equals(sortBy)) {
+            WorkCursor after = WorkCursor.decode(cursor, WorkCursor.SORT_LIKES);
+            List<GalleryItemResponse> items = galleryFeedCache.page(WorkCursor.SORT_LIKES, after, pageSize);
+            if (items == null) {
+                items = after == null
+                        ? workRepository.findGalleryItemsOrderByLikesCountDesc(fetch)
+                        : workRepository.findGalleryItemsLikesBelow(after.getLikesCount(), after.getId(), fetch);
+            }
+            page = CursorPage.of(items, pageSize,
+                    item -> WorkCursor.likes(item.getLikesCount(), item.getId()).encode());
         } else {
-            works = workRepository.findByIsPublicTrueWithUserOrderByCreatedAtDesc();
+            WorkCursor after = WorkCursor.decode(cursor, WorkCursor.SORT_LATEST);
+            List<GalleryItemResponse> items = galleryFeedCache.page(WorkCursor.SORT_LATEST, after, pageSize);
+            if (items == null) {
+                items = after == null
+                        ? workRepository.findGalleryItemsOrderByCreatedAtDesc(fetch)
+                        : workRepository.findGalleryItemsCreatedBefore(after.getCreatedAt(), after.getId(), fetch);
+            }
+            page = CursorPage.of(items, pageSize,
+                    item -> WorkCursor.latest(item.getCreatedAt(), item.getId()).encode());
         }
         
-        return works.stream()
-                .map(work -> {
-                    boolean isLiked = currentUserId != null && 
-                            likeRepository.existsByUserIdAndWorkId(currentUserId, work.getId());
-                    int episodeCount = episodeRepository.countByWorkIdAndIsPublishedTrue(work.getId()).intValue();
-                    return GalleryItemResponse.fromEntity(work, isLiked, episodeCount);
-                })
-                .collect(Collectors.toList());
+        markLiked(currentUserId, page.getItems());
+        return page;
     }
     
-    @Transactional
+    private int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * 一次 IN 查询批量填充当前用户的点赞状态
+     */
+    private void markLiked(String currentUserId, List<GalleryItemResponse> items) {
+        if (currentUserId == null || items.isEmpty()) {
+            return;
+        }
+        List<String> workIds = items.stream().map(GalleryItemResponse::getId).collect(Collectors.toList());
+        Set<String> likedWorkIds = new HashSet<>(likeRepository.findLikedWorkIds(currentUserId, workIds));
+        items.forEach(item -> item.setIsLiked(likedWorkIds.contains(item.getId())));
+    }
+    
+    /**
+     * 点赞，重复点赞直接返回
+     * 点赞记录和点赞数在同一事务内写入，点赞数用 UPDATE 原子加一；
+     * 同一用户并发点赞时由 unique_user_work 唯一约束拦下后到的一次，整个事务回滚，视为已点赞
+     */
     public void likeWork(String userId, String workId) {
-        Work work = workRepository.findById(workId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "作品不存在"));
-        
-        if (likeRepository.existsByUserIdAndWorkId(userId, workId)) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, "已点赞过");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                requireWorkExists(workId);
+                if (likeRepository.existsByUserIdAndWorkId(userId, workId)) {
+                    return;
+                }
+                likeRepository.saveAndFlush(com.aigo.entity.Like.builder()
+                        .userId(userId)
+                        .workId(workId)
+                        .build());
+                workRepository.incrementLikesCount(workId);
+                eventPublisher.publishEvent(GalleryChangeEvent.likesChanged(workId, 1));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 并发的另一次点赞已经提交
         }
-        
-        com.aigo.entity.Like like = com.aigo.entity.Like.builder()
-                .userId(userId)
-                .workId(workId)
-                .build();
-        
-        likeRepository.save(like);
-        
-        work.setLikesCount(work.getLikesCount() + 1);
-        workRepository.save(work);
     }
     
+    /**
+     * 取消点赞，未点赞时直接返回
+     * 只有真正删除了点赞记录的请求才会把点赞数减一；删除前先读出点赞时间，供热度扣除该次点赞衰减后的贡献
+     */
     @Transactional
     public void unlikeWork(String userId, String workId) {
-        Work work = workRepository.findById(workId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "作品不存在"));
-        
-        if (!likeRepository.existsByUserIdAndWorkId(userId, workId)) {
-            throw new BusinessException(ErrorCode.BAD_REQUEST, "未点赞过");
+        requireWorkExists(workId);
+        LocalDateTime likedAt = likeRepository.findByUserIdAndWorkId(userId, workId)
+                .map(com.aigo.entity.Like::getCreatedAt)
+                .orElse(null);
+        if (likeRepository.deleteLike(userId, workId) == 0) {
+            return;
+        }
+        workRepository.decrementLikesCount(workId);
+        eventPublisher.publishEvent(GalleryChangeEvent.unliked(workId, likedAt));
+    }
+    
+    private void requireWorkExists(String workId) {
+        if (!workRepository.existsById(workId)) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "作品不存在");
         }
-        
-        likeRepository.deleteByUserIdAndWorkId(userId, workId);
-        
-        work.setLikesCount(Math.max(0, work.getLikesCount() - 1));
-        workRepository.save(work);
     }
     
     @Transactional(readOnly = true)
-    public List<GalleryItemResponse> getMyFavorites(String userId) {
-        List<Work> likedWorks = workRepository.findLikedWorksByUserIdWithUser(userId);
+    public CursorPage<GalleryItemResponse> getMyFavorites(String userId, String cursor, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        WorkCursor after = WorkCursor.decode(cursor, WorkCursor.SORT_LATEST);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
         
-        return likedWorks.stream()
-                .map(work -> {
-                    int episodeCount = episodeRepository.countByWorkIdAndIsPublishedTrue(work.getId()).intValue();
-                    return GalleryItemResponse.fromEntity(work, true, episodeCount);
-                })
-                .collect(Collectors.toList());
+        List<GalleryItemResponse> items = after == null
+                ? workRepository.findFavoriteItems(userId, fetch)
+                : workRepository.findFavoriteItemsCreatedBefore(userId, after.getCreatedAt(), after.getId(), fetch);
+        items.forEach(item -> item.setIsLiked(true));
+        
+        return CursorPage.of(items, pageSize,
+                item -> WorkCursor.latest(item.getCreatedAt(), item.getId()).encode());
     }
 }
@@ -0,0 +1,118 @@
+package com.aigo.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 本地 AI 服务模拟器，仅在 simulator profile 下启用
+ * 按接口配置延迟分布（对数正态，由中位数和 P99 确定）、错误率、429 比例和返回的 base64 载荷大小，
+ * 用于在单机上对完整的生成流程做压测：网关限流、重试、熔断和上传都按真实路径执行。
+ * 延迟通过延时完成的 CompletableFuture 实现，等待期间不占用请求线程
+ */
+@Component
+@Profile("simulator")
+public class ProviderSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderSimulator.class);
+
+    /**
+     * 标准正态分布的 0.99 分位数
+     */
+    private static final double Z_99 = 2.3263;
+
+    private final Map<SimulatedEndpoint, EndpointProfile> profiles = new EnumMap<>(SimulatedEndpoint.class);
+    private final Map<Integer, String> payloads = new ConcurrentHashMap<>();
+
+    public ProviderSimulator(Environment environment) {
+        for (SimulatedEndpoint endpoint : SimulatedEndpoint.values()) {
+            String prefix = "simulator." + endpoint.getKey() + ".";
+            long median = environment.getProperty(prefix + "latency-median-ms", Long.class,
+                    endpoint.getDefaultLatencyMedianMs());
+            long p99 = environment.getProperty(prefix + "latency-p99-ms", Long.class, endpoint.getDefaultLatencyP99Ms());
+            double errorRate = environment.getProperty(prefix + "error-rate", Double.class,
+                    environment.getProperty("simulator.error-rate", Double.class, 0.0));
+            double rateLimitRate = environment.getProperty(prefix + "rate-limit-rate", Double.class,
+                    environment.getProperty("simulator.rate-limit-rate", Double.class, 0.0));
+            int retryAfterSeconds = environment.getProperty(prefix + "retry-after-seconds", Integer.class,
+                    environment.getProperty("simulator.retry-after-seconds", Integer.class, 2));
+            int payloadBytes = environment.getProperty(prefix + "payload-bytes", Integer.class,
+                    endpoint.getDefaultPayloadBytes());
+            EndpointProfile profile = new EndpointProfile(median, p99, errorRate, rateLimitRate, retryAfterSeconds, payloadBytes);
+            profiles.put(endpoint, profile);
+            logger.info("[ProviderSimulator] {}: {}", endpoint.getKey(), profile);
+        }
+    }
+
+    /**
+     * 按接口的配置延迟后返回响应，期间按错误率和 429 比例注入失败
+     * @param body 成功时的响应体，在延迟结束后才构造
+     */
+    public CompletableFuture<ResponseEntity<String>> respond(SimulatedEndpoint endpoint, Supplier<String> body) {
+        EndpointProfile profile = profiles.get(endpoint);
+        double roll = ThreadLocalRandom.current().nextDouble();
+        long delayMs = sampleLatencyMs(endpoint);
+        return CompletableFuture.supplyAsync(() -> {
+            if (roll < profile.rateLimitRate()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(profile.retryAfterSeconds()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error("rate_limit_exceeded", "Simulated rate limit"));
+            }
+            if (roll < profile.rateLimitRate() + profile.errorRate()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error("server_error", "Simulated upstream failure"));
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body.get());
+        }, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    public long sampleLatencyMs(SimulatedEndpoint endpoint) {
+        EndpointProfile profile = profiles.get(endpoint);
+        if (profile.latencyMedianMs() <= 0) {
+            return 0;
+        }
+        double sigma = profile.latencyP99Ms() > profile.latencyMedianMs()
+                ? Math.log((double) profile.latencyP99Ms() / profile.latencyMedianMs()) / Z_99
+                : 0.0;
+        double sample = profile.latencyMedianMs() * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.round(sample);
+    }
+
+    /**
+     * 指定接口配置大小的随机 base64 载荷，同一大小只生成一次
+     */
+    public String payload(SimulatedEndpoint endpoint) {
+        int bytes = profiles.get(endpoint).payloadBytes();
+        return payloads.computeIfAbsent(bytes, size -> {
+            byte[] data = new byte[size];
+            new Random(size).nextBytes(data);
+            return Base64.getEncoder().encodeToString(data);
+        });
+    }
+
+    private static String error(String type, String message) {
+        return "{\"error\":{\"type\":\"" + type + "\",\"message\":\"" + message + "\"}}";
+    }
+
+    record EndpointProfile(long latencyMedianMs, long latencyP99Ms, double errorRate, double rateLimitRate,
+                   int retryAfterSeconds, int payloadBytes) {
+    }
+}
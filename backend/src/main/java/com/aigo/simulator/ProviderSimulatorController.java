@@ -0,0 +1,211 @@
+package com.aigo.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模拟 OpenAI 兼容的大模型、文生图、图生图、TTS 和视频生成接口，请求与响应格式与各服务的调用方一致
+ * simulator profile 下各服务的 base url 指向 /simulator/v1
+ */
+@RestController
+@RequestMapping("/simulator/v1")
+@Profile("simulator")
+@RequiredArgsConstructor
+public class ProviderSimulatorController {
+
+    private static final String[] NAMES = {"林晓", "陈默", "苏婉"};
+    private static final String[] GENDERS = {"female", "male", "female"};
+
+    private final ProviderSimulator simulator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Long> videoTasks = new ConcurrentHashMap<>();
+
+    @Value("${simulator.chat.scenes:10}")
+    private int scenes;
+
+    /**
+     * POST /simulator/v1/chat/completions
+     * 别名识别请求返回角色别称映射，其余请求返回包含 scenes 个场景的动漫脚本；token 用量按字符数估算
+     */
+    @PostMapping("/chat/completions")
+    public CompletableFuture<ResponseEntity<String>> chatCompletions(@RequestBody JsonNode request) {
+        String prompt = lastMessage(request);
+        String model = request.path("model").asText("simulator");
+        return simulator.respond(SimulatedEndpoint.CHAT, () -> {
+            String content = prompt.contains("昵称") ? nicknameContent() : scriptContent();
+            Map<String, Object> message = Map.of("role", "assistant", "content", content);
+            Map<String, Object> usage = Map.of(
+                    "prompt_tokens", estimateTokens(prompt),
+                    "completion_tokens", estimateTokens(content),
+                    "total_tokens", estimateTokens(prompt) + estimateTokens(content));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("id", "chatcmpl-" + UUID.randomUUID());
+            body.put("object", "chat.completion");
+            body.put("created", System.currentTimeMillis() / 1000);
+            body.put("model", model);
+            body.put("choices", List.of(Map.of("index", 0, "message", message, "finish_reason", "stop")));
+            body.put("usage", usage);
+            return write(body);
+        });
+    }
+
+    /**
+     * POST /simulator/v1/images/generations
+     */
+    @PostMapping("/images/generations")
+    public CompletableFuture<ResponseEntity<String>> generateImage(@RequestBody JsonNode request) {
+        return simulator.respond(SimulatedEndpoint.TEXT_TO_IMAGE, () -> imageBody(SimulatedEndpoint.TEXT_TO_IMAGE));
+    }
+
+    /**
+     * POST /simulator/v1/images/edits
+     */
+    @PostMapping("/images/edits")
+    public CompletableFuture<ResponseEntity<String>> editImage(@RequestBody JsonNode request) {
+        return simulator.respond(SimulatedEndpoint.IMAGE_TO_IMAGE, () -> imageBody(SimulatedEndpoint.IMAGE_TO_IMAGE));
+    }
+
+    /**
+     * POST /simulator/v1/voice/tts
+     */
+    @PostMapping("/voice/tts")
+    public CompletableFuture<ResponseEntity<String>> tts(@RequestBody JsonNode request) {
+        return simulator.respond(SimulatedEndpoint.TTS, () -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("reqid", UUID.randomUUID().toString());
+            body.put("operation", "query");
+            body.put("sequence", -1);
+            body.put("data", simulator.payload(SimulatedEndpoint.TTS));
+            return write(body);
+        });
+    }
+
+    /**
+     * GET /simulator/v1/voice/list
+     */
+    @GetMapping("/voice/list")
+    public CompletableFuture<ResponseEntity<String>> voiceList() {
+        return simulator.respond(SimulatedEndpoint.VOICE_LIST, () -> write(List.of(
+                Map.of("voice_type", "qiniu_zh_female_wwxkjx", "voice_name", "温婉学科讲师", "category", "female"),
+                Map.of("voice_type", "qiniu_zh_male_ljfdxz", "voice_name", "邻家辅导学长", "category", "male"))));
+    }
+
+    /**
+     * POST /simulator/v1/videos/generations
+     * 创建任务，任务在按 video-render 分布抽取的时间后完成
+     */
+    @PostMapping("/videos/generations")
+    public CompletableFuture<ResponseEntity<String>> createVideo(@RequestBody JsonNode request) {
+        return simulator.respond(SimulatedEndpoint.VIDEO_CREATE, () -> {
+            String id = UUID.randomUUID().toString();
+            videoTasks.put(id, System.currentTimeMillis() + simulator.sampleLatencyMs(SimulatedEndpoint.VIDEO_RENDER));
+            return write(Map.of("id", id, "status", "Processing"));
+        });
+    }
+
+    /**
+     * GET /simulator/v1/videos/generations/{id}
+     */
+    @GetMapping("/videos/generations/{id}")
+    public CompletableFuture<ResponseEntity<String>> videoStatus(@PathVariable String id) {
+        return simulator.respond(SimulatedEndpoint.VIDEO_STATUS, () -> {
+            Long readyAt = videoTasks.get(id);
+            if (readyAt == null) {
+                return write(Map.of("id", id, "status", "Failed"));
+            }
+            if (System.currentTimeMillis() < readyAt) {
+                return write(Map.of("id", id, "status", "Processing"));
+            }
+            videoTasks.remove(id);
+            return write(Map.of("id", id, "status", "Completed",
+                    "data", Map.of("videos", List.of(Map.of("url", "https://simulator.local/videos/" + id + ".mp4")))));
+        });
+    }
+
+    private String imageBody(SimulatedEndpoint endpoint) {
+        return write(Map.of(
+                "created", System.currentTimeMillis() / 1000,
+                "data", List.of(Map.of("b64_json", simulator.payload(endpoint)))));
+    }
+
+    private String scriptContent() {
+        List<Map<String, Object>> characters = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            Map<String, Object> character = new LinkedHashMap<>();
+            character.put("name", NAMES[i]);
+            character.put("description", (20 + i * 5) + "岁的年轻人");
+            character.put("appearance", "黑色短发，身材匀称");
+            character.put("bodyType", "中等身高，体型匀称");
+            character.put("facialFeatures", "杏仁眼，深棕色瞳孔");
+            character.put("clothingStyle", "浅色衬衫配深色长裤");
+            character.put("distinguishingFeatures", "左手腕戴着一块旧手表");
+            character.put("personality", "外冷内热");
+            character.put("gender", GENDERS[i]);
+            characters.add(character);
+        }
+        List<Map<String, Object>> sceneList = new ArrayList<>();
+        for (int i = 0; i < scenes; i++) {
+            Map<String, Object> scene = new LinkedHashMap<>();
+            scene.put("sceneNumber", i + 1);
+            scene.put("character", NAMES[i % NAMES.length]);
+            scene.put("dialogue", "这是第" + (i + 1) + "句对白，窗外的雨一直没有停。");
+            scene.put("visualDescription", "雨夜的咖啡馆里，角色坐在靠窗的位置，霓虹灯倒映在玻璃上");
+            scene.put("atmosphere", "安静而略带忧伤");
+            scene.put("action", "角色缓缓抬头，看向窗外");
+            sceneList.add(scene);
+        }
+        Map<String, Object> script = new LinkedHashMap<>();
+        script.put("characters", characters);
+        script.put("scenes", sceneList);
+        script.put("plotSummary", "雨夜重逢的两个人在咖啡馆里谈起往事");
+        script.put("genre", "都市情感");
+        script.put("mood", "温暖治愈");
+        return "```json\n" + write(script) + "\n```";
+    }
+
+    private String nicknameContent() {
+        return write(Map.of(NAMES[0], List.of("我", "小林"), NAMES[1], List.of("他", "阿默")));
+    }
+
+    private static String lastMessage(JsonNode request) {
+        JsonNode messages = request.path("messages");
+        if (!messages.isArray() || messages.isEmpty()) {
+            return "";
+        }
+        return messages.get(messages.size() - 1).path("content").asText("");
+    }
+
+    /**
+     * 中文文本大致每 1.5 个字符一个 token
+     */
+    private static int estimateTokens(String text) {
+        return Math.max(1, (int) (text.length() / 1.5));
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.aigo.simulator;
+
+import lombok.Getter;
+
+/**
+ * 模拟器提供的接口
+ * 默认延迟与载荷大小按线上观察值设定，可通过 simulator.{key}.* 配置覆盖
+ */
+@Getter
+public enum SimulatedEndpoint {
+
+    CHAT("chat", 20000, 60000, 0),
+    TEXT_TO_IMAGE("text2img", 8000, 20000, 1_200_000),
+    IMAGE_TO_IMAGE("img2img", 10000, 25000, 1_200_000),
+    TTS("tts", 1500, 4000, 60_000),
+    VOICE_LIST("voice-list", 100, 300, 0),
+    VIDEO_CREATE("video-create", 500, 1500, 0),
+    VIDEO_STATUS("video-status", 100, 300, 0),
+    /**
+     * 视频任务从创建到完成的时间，轮询在此之前返回 Processing
+     */
+    VIDEO_RENDER("video-render", 60000, 150000, 0);
+
+    private final String key;
+    private final long defaultLatencyMedianMs;
+    private final long defaultLatencyP99Ms;
+    private final int defaultPayloadBytes;
+
+    SimulatedEndpoint(String key, long defaultLatencyMedianMs, long defaultLatencyP99Ms, int defaultPayloadBytes) {
+        this.key = key;
+        this.defaultLatencyMedianMs = defaultLatencyMedianMs;
+        this.defaultLatencyP99Ms = defaultLatencyP99Ms;
+        this.defaultPayloadBytes = defaultPayloadBytes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.aigo.tracing;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 为普通 ExecutorService 提供 TaskDecorator 支持，用于 CompletableFuture 使用的场景执行器
+ */
+public class DecoratingExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final TaskDecorator decorator;
+
+    public DecoratingExecutorService(ExecutorService delegate, TaskDecorator decorator) {
+        this.delegate = delegate;
+        this.decorator = decorator;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(decorator.decorate(command));
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
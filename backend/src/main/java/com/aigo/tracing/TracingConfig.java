@@ -0,0 +1,28 @@
+package com.aigo.tracing;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 链路追踪导出配置
+ * 设置 management.otlp.tracing.endpoint 后由 Spring Boot 导出到 OTLP collector；
+ * 设置 aigo.tracing.file 后另外把 span 写入本地 JSON 文件，两者可同时启用
+ */
+@Configuration
+@ConditionalOnClass(SpanExporter.class)
+public class TracingConfig {
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "aigo.tracing.file")
+    public SpanExporter jsonFileSpanExporter(@Value("${aigo.tracing.file}") String file) throws IOException {
+        // 关闭由 SdkTracerProvider 在刷出剩余 span 之后调用，这里不注册容器的销毁回调
+        return new JsonFileSpanExporter(Path.of(file));
+    }
+}
@@ -0,0 +1,44 @@
+package com.aigo.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 把提交任务时的当前 span 带到执行线程，使 @Async 和并行场景任务中的 span、日志 traceId 与提交方串在同一条链路上
+ * 未启用链路追踪（没有 Tracer bean）时原样返回任务
+ */
+public class TracingTaskDecorator implements TaskDecorator {
+
+    private final ObjectProvider<Tracer> tracerProvider;
+
+    private volatile Tracer tracer;
+
+    public TracingTaskDecorator(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        Tracer t = tracer();
+        Span span = t.currentSpan();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            try (Tracer.SpanInScope ignored = t.withSpan(span)) {
+                task.run();
+            }
+        };
+    }
+
+    private Tracer tracer() {
+        Tracer t = tracer;
+        if (t == null) {
+            t = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+            tracer = t;
+        }
+        return t;
+    }
+}
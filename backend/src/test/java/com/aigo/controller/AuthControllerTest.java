@@ -1,9 +1,12 @@
 package com.aigo.controller;
 
 import com.aigo.dto.ApiResponse;
+import com.aigo.dto.ErrorCode;
 import com.aigo.dto.auth.AuthResponse;
 import com.aigo.dto.auth.LoginRequest;
 import com.aigo.dto.auth.RegisterRequest;
+import com.aigo.exception.BusinessException;
+import com.aigo.security.JwtUtil;
 import com.aigo.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +18,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +41,9 @@ class AuthControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @MockBean
     private AuthService authService;
 
@@ -63,11 +75,15 @@ class AuthControllerTest {
 
     @Test
     void testRegister() throws Exception {
-        when(authService.register(any(RegisterRequest.class))).thenReturn(authResponse);
+        when(authService.register(any(RegisterRequest.class))).thenReturn(CompletableFuture.completedFuture(authResponse));
 
-        mockMvc.perform(post("/api/auth/register")
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.token").value("test-token"))
@@ -76,17 +92,49 @@ class AuthControllerTest {
 
     @Test
     void testLogin() throws Exception {
-        when(authService.login(any(LoginRequest.class))).thenReturn(authResponse);
+        when(authService.login(any(LoginRequest.class))).thenReturn(CompletableFuture.completedFuture(authResponse));
 
-        mockMvc.perform(post("/api/auth/login")
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.token").value("test-token"))
                 .andExpect(jsonPath("$.data.user.username").value("testuser"));
     }
 
+    @Test
+    void testLoginWithWrongPassword() throws Exception {
+        when(authService.login(any(LoginRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                new BusinessException(ErrorCode.UNAUTHORIZED, "用户名或密码错误")));
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error.code").value("UNAUTHORIZED"));
+    }
+
+    @Test
+    void testLoginRejectedWhenHashQueueFull() throws Exception {
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED, "登录请求过多，请稍后重试"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error.code").value("RATE_LIMIT_EXCEEDED"));
+    }
+
     @Test
     void testRegisterWithInvalidData() throws Exception {
         RegisterRequest invalidRequest = new RegisterRequest();
@@ -106,4 +154,22 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().is4xxClientError());
     }
+
+    @Test
+    void testLogout() throws Exception {
+        String token = jwtUtil.generateToken("testuser", Map.of("userId", "user123"));
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        verify(authService).logout(token);
+    }
+
+    @Test
+    void testLogoutRequiresToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isForbidden());
+    }
 }
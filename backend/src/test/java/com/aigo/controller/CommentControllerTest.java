@@ -1,12 +1,12 @@
 package com.aigo.controller;
 
+import com.aigo.dto.comment.CommentPageResponse;
 import com.aigo.dto.comment.CommentResponse;
 import com.aigo.dto.comment.CreateCommentRequest;
+import com.aigo.security.JwtPrincipal;
 import com.aigo.security.JwtUtil;
 import com.aigo.service.CommentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.impl.DefaultClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,9 +53,7 @@ class CommentControllerTest {
         testToken = "test-jwt-token";
         userId = "user123";
         
-        Claims claims = new DefaultClaims();
-        claims.put("userId", userId);
-        when(jwtUtil.extractClaims(testToken)).thenReturn(claims);
+        when(jwtUtil.parse(testToken)).thenReturn(new JwtPrincipal(userId, "testuser", "test@example.com", null, null));
 
         commentResponse = CommentResponse.builder()
                 .id("comment1")
@@ -67,36 +65,49 @@ class CommentControllerTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        createRequest = CreateCommentRequest.builder()
-                .targetType("work")
-                .targetId("work1")
-                .content("测试评论")
-                .build();
+        createRequest = new CreateCommentRequest("work", "work1", "测试评论");
     }
 
     @Test
     void testGetComments_Success() throws Exception {
-        List<CommentResponse> comments = Arrays.asList(commentResponse);
-        when(commentService.getComments("work", "work1")).thenReturn(comments);
+        CommentPageResponse page = CommentPageResponse.builder()
+                .items(Arrays.asList(commentResponse))
+                .nextCursor("next")
+                .hasMore(true)
+                .totalCount(25)
+                .build();
+        when(commentService.getComments("work", "work1", "abc", 1)).thenReturn(page);
 
         mockMvc.perform(get("/api/comments/work/work1")
+                        .header("Authorization", "Bearer " + testToken)
+                        .param("cursor", "abc")
+                        .param("limit", "1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data[0].id").value("comment1"))
-                .andExpect(jsonPath("$.data[0].content").value("测试评论"));
+                .andExpect(jsonPath("$.data.items[0].id").value("comment1"))
+                .andExpect(jsonPath("$.data.items[0].content").value("测试评论"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"))
+                .andExpect(jsonPath("$.data.totalCount").value(25));
     }
 
     @Test
     void testGetComments_EmptyList() throws Exception {
-        when(commentService.getComments("work", "work1")).thenReturn(Arrays.asList());
+        CommentPageResponse page = CommentPageResponse.builder()
+                .items(List.of())
+                .hasMore(false)
+                .totalCount(0)
+                .build();
+        when(commentService.getComments("work", "work1", null, null)).thenReturn(page);
 
         mockMvc.perform(get("/api/comments/work/work1")
+                        .header("Authorization", "Bearer " + testToken)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data").isEmpty());
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items").isEmpty())
+                .andExpect(jsonPath("$.data.totalCount").value(0));
     }
 
     @Test
@@ -116,11 +127,7 @@ class CommentControllerTest {
 
     @Test
     void testCreateComment_InvalidRequest() throws Exception {
-        CreateCommentRequest invalidRequest = CreateCommentRequest.builder()
-                .targetType("")
-                .targetId("")
-                .content("")
-                .build();
+        CreateCommentRequest invalidRequest = new CreateCommentRequest("", "", "");
 
         mockMvc.perform(post("/api/comments")
                         .header("Authorization", "Bearer " + testToken)
@@ -4,11 +4,10 @@ import com.aigo.dto.episode.CreateEpisodeRequest;
 import com.aigo.dto.episode.EpisodeResponse;
 import com.aigo.dto.episode.PurchaseResponse;
 import com.aigo.dto.episode.UpdateEpisodeRequest;
+import com.aigo.security.JwtPrincipal;
 import com.aigo.security.JwtUtil;
 import com.aigo.service.EpisodeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.impl.DefaultClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,9 +55,7 @@ class EpisodeControllerTest {
         workId = "work123";
         episodeId = "episode123";
         
-        Claims claims = new DefaultClaims();
-        claims.put("userId", userId);
-        when(jwtUtil.extractClaims(testToken)).thenReturn(claims);
+        when(jwtUtil.parse(testToken)).thenReturn(new JwtPrincipal(userId, "testuser", "test@example.com", null, null));
 
         episodeResponse = EpisodeResponse.builder()
                 .id(episodeId)
@@ -0,0 +1,72 @@
+package com.aigo.controller;
+
+import com.aigo.dto.report.GenerationCostSummary;
+import com.aigo.security.JwtPrincipal;
+import com.aigo.security.JwtUtil;
+import com.aigo.service.GenerationReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GenerationReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GenerationReportService generationReportService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    private final String testToken = "test-jwt-token";
+
+    @BeforeEach
+    void setUp() {
+        when(jwtUtil.parse(testToken)).thenReturn(new JwtPrincipal("user123", "testuser", "test@example.com", null, null));
+    }
+
+    @Test
+    void testWorkCostsAreScopedToCaller() throws Exception {
+        when(generationReportService.summarizeByWork("user123", "tokens", 5))
+                .thenReturn(List.of(GenerationCostSummary.empty("work1")));
+
+        mockMvc.perform(get("/api/generation-reports/works")
+                        .header("Authorization", "Bearer " + testToken)
+                        .param("sort", "tokens")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].key").value("work1"));
+    }
+
+    @Test
+    void testMyCostsReturnsCallerTotals() throws Exception {
+        when(generationReportService.summarizeUser("user123")).thenReturn(GenerationCostSummary.empty("user123"));
+
+        mockMvc.perform(get("/api/generation-reports/me")
+                        .header("Authorization", "Bearer " + testToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.key").value("user123"))
+                .andExpect(jsonPath("$.data.generations").value(0));
+    }
+
+    @Test
+    void testCostsRequireAuthentication() throws Exception {
+        mockMvc.perform(get("/api/generation-reports/works"))
+                .andExpect(status().isForbidden());
+    }
+}
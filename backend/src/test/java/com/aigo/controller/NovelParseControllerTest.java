@@ -15,11 +15,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.Arrays;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -59,9 +62,9 @@ class NovelParseControllerTest {
 
         Scene scene = new Scene();
         scene.setSceneNumber(1);
-        scene.setLocation("公园");
+        scene.setCharacter("小明");
         scene.setDialogue("小明：今天天气真好！");
-        scene.setDescription("小明和小红在公园里散步");
+        scene.setVisualDescription("小明和小红在公园里散步");
 
         animeSegment = new AnimeSegment();
         animeSegment.setCharacters(Arrays.asList(character1, character2));
@@ -73,15 +76,15 @@ class NovelParseControllerTest {
         when(novelParseService.parseNovelText(anyString(), anyString(), anyString()))
                 .thenReturn(animeSegment);
 
-        mockMvc.perform(post("/api/novel/parse")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(parseRequest)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.characters").isArray())
-                .andExpect(jsonPath("$.characters[0].name").value("小明"))
-                .andExpect(jsonPath("$.characters[1].name").value("小红"))
-                .andExpect(jsonPath("$.scenes").isArray())
-                .andExpect(jsonPath("$.scenes[0].sceneNumber").value(1));
+        String jobId = submit(parseRequest);
+
+        awaitJob(jobId)
+                .andExpect(jsonPath("$.data.status").value("completed"))
+                .andExpect(jsonPath("$.data.result.characters").isArray())
+                .andExpect(jsonPath("$.data.result.characters[0].name").value("小明"))
+                .andExpect(jsonPath("$.data.result.characters[1].name").value("小红"))
+                .andExpect(jsonPath("$.data.result.scenes").isArray())
+                .andExpect(jsonPath("$.data.result.scenes[0].sceneNumber").value(1));
     }
 
     @Test
@@ -102,11 +105,11 @@ class NovelParseControllerTest {
         when(novelParseService.parseNovelText(anyString(), anyString(), anyString()))
                 .thenThrow(new RuntimeException("AI服务不可用"));
 
-        mockMvc.perform(post("/api/novel/parse")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(parseRequest)))
-                .andExpect(status().isInternalServerError())
-                .andExpect(jsonPath("$.error").value("解析失败"));
+        String jobId = submit(parseRequest);
+
+        awaitJob(jobId)
+                .andExpect(jsonPath("$.data.status").value("failed"))
+                .andExpect(jsonPath("$.data.error").value("AI服务不可用"));
     }
 
     @Test
@@ -115,11 +118,8 @@ class NovelParseControllerTest {
         when(novelParseService.parseNovelText(anyString(), anyString(), anyString()))
                 .thenReturn(animeSegment);
 
-        mockMvc.perform(post("/api/novel/parse")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(parseRequest)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.characters").isArray());
+        awaitJob(submit(parseRequest))
+                .andExpect(jsonPath("$.data.result.characters").isArray());
     }
 
     @Test
@@ -128,10 +128,35 @@ class NovelParseControllerTest {
         when(novelParseService.parseNovelText(anyString(), anyString(), anyString()))
                 .thenReturn(animeSegment);
 
-        mockMvc.perform(post("/api/novel/parse")
+        awaitJob(submit(parseRequest))
+                .andExpect(jsonPath("$.data.result.scenes").isArray());
+    }
+
+    @Test
+    void testGetParseJob_NotFound() throws Exception {
+        mockMvc.perform(get("/api/novel/parse/unknown-job"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String submit(NovelParseRequest request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/novel/parse")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(parseRequest)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.scenes").isArray());
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.jobId").exists())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).at("/data/jobId").asText();
+    }
+
+    private ResultActions awaitJob(String jobId) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            MvcResult result = mockMvc.perform(get("/api/novel/parse/" + jobId)).andReturn();
+            String status = objectMapper.readTree(result.getResponse().getContentAsString()).at("/data/status").asText();
+            if ("completed".equals(status) || "failed".equals(status)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return mockMvc.perform(get("/api/novel/parse/" + jobId)).andExpect(status().isOk());
     }
 }
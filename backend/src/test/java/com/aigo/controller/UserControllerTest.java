@@ -1,10 +1,9 @@
 package com.aigo.controller;
 
 import com.aigo.dto.user.BalanceResponse;
+import com.aigo.security.JwtPrincipal;
 import com.aigo.security.JwtUtil;
 import com.aigo.service.UserService;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,16 +34,16 @@ class UserControllerTest {
 
     private String token;
     private String userId;
-    private Claims claims;
+    private JwtPrincipal principal;
 
     @BeforeEach
     void setUp() {
         token = "Bearer test-token";
         userId = "user123";
         
-        claims = Jwts.claims().add("userId", userId).build();
+        principal = new JwtPrincipal(userId, "testuser", "test@example.com", null, null);
 
-        when(jwtUtil.extractClaims(anyString())).thenReturn(claims);
+        when(jwtUtil.parse(anyString())).thenReturn(principal);
     }
 
     @Test
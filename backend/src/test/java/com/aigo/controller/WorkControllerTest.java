@@ -1,14 +1,14 @@
 package com.aigo.controller;
 
+import com.aigo.dto.CursorPage;
 import com.aigo.dto.work.CreateWorkRequest;
 import com.aigo.dto.work.GalleryItemResponse;
 import com.aigo.dto.work.UpdateWorkRequest;
 import com.aigo.dto.work.WorkResponse;
+import com.aigo.security.JwtPrincipal;
 import com.aigo.security.JwtUtil;
 import com.aigo.service.WorkService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,14 +48,14 @@ class WorkControllerTest {
     private String token;
     private String userId;
     private WorkResponse workResponse;
-    private Claims claims;
+    private JwtPrincipal principal;
 
     @BeforeEach
     void setUp() {
         token = "Bearer test-token";
         userId = "user123";
         
-        claims = Jwts.claims().add("userId", userId).build();
+        principal = new JwtPrincipal(userId, "testuser", "test@example.com", null, null);
         
         workResponse = WorkResponse.builder()
                 .id("work123")
@@ -67,7 +67,7 @@ class WorkControllerTest {
                 .episodes(Collections.emptyList())
                 .build();
 
-        when(jwtUtil.extractClaims(anyString())).thenReturn(claims);
+        when(jwtUtil.parse(anyString())).thenReturn(principal);
     }
 
     @Test
@@ -125,14 +125,14 @@ class WorkControllerTest {
 
     @Test
     void testGetMyWorks() throws Exception {
-        when(workService.getMyWorks(anyString()))
-                .thenReturn(Arrays.asList(workResponse));
+        when(workService.getMyWorks(anyString(), any(), any()))
+                .thenReturn(new CursorPage<>(Arrays.asList(workResponse), null, false));
 
         mockMvc.perform(get("/api/my-works")
                         .header("Authorization", token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data").isArray());
+                .andExpect(jsonPath("$.data.items").isArray());
     }
 
     @Test
@@ -144,15 +144,17 @@ class WorkControllerTest {
                 .episodeCount(5)
                 .build();
 
-        when(workService.getGallery(anyString(), anyString()))
-                .thenReturn(Arrays.asList(galleryItem));
+        when(workService.getGallery(anyString(), anyString(), any(), any()))
+                .thenReturn(new CursorPage<>(Arrays.asList(galleryItem), "next", true));
 
         mockMvc.perform(get("/api/gallery")
                         .header("Authorization", token)
                         .param("sortBy", "latest"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data").isArray());
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.nextCursor").value("next"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
     }
 
     @Test
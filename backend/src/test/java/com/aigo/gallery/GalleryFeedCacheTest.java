@@ -0,0 +1,174 @@
+package com.aigo.gallery;
+
+import com.aigo.dto.work.GalleryItemResponse;
+import com.aigo.dto.work.WorkCursor;
+import com.aigo.repository.WorkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GalleryFeedCacheTest {
+
+    private WorkRepository workRepository;
+    private AtomicLong now;
+    private GalleryFeedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        workRepository = mock(WorkRepository.class);
+        now = new AtomicLong(0);
+        cache = new GalleryFeedCache(workRepository, 3, 60_000, now::get);
+    }
+
+    @Test
+    void testRepeatedReadsServedFromMemory() {
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(items(2));
+
+        cache.page(WorkCursor.SORT_LATEST, null, 10);
+        cache.page(WorkCursor.SORT_LATEST, null, 10);
+
+        verify(workRepository, times(1)).findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class));
+        assertEquals(1, cache.getRebuilds());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testWorkChangeInvalidatesFeed() {
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(items(2));
+
+        cache.page(WorkCursor.SORT_LATEST, null, 10);
+        cache.onGalleryChange(GalleryChangeEvent.workChanged("work1"));
+        cache.page(WorkCursor.SORT_LATEST, null, 10);
+
+        verify(workRepository, times(2)).findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class));
+    }
+
+    @Test
+    void testFeedExpiresAfterTtl() {
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(items(2));
+
+        cache.page(WorkCursor.SORT_LATEST, null, 10);
+        now.addAndGet(60_000);
+        cache.page(WorkCursor.SORT_LATEST, null, 10);
+
+        verify(workRepository, times(2)).findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class));
+    }
+
+    @Test
+    void testPageBeyondWindowReturnsNull() {
+        // feed-size 3，查询多取一条返回 4 条，说明窗口之外还有数据
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(items(4));
+
+        List<GalleryItemResponse> firstPage = cache.page(WorkCursor.SORT_LATEST, null, 1);
+        GalleryItemResponse last = firstPage.get(0);
+        List<GalleryItemResponse> secondPage = cache.page(WorkCursor.SORT_LATEST,
+                WorkCursor.latest(last.getCreatedAt(), last.getId()), 1);
+        List<GalleryItemResponse> thirdPage = cache.page(WorkCursor.SORT_LATEST,
+                WorkCursor.latest(secondPage.get(0).getCreatedAt(), secondPage.get(0).getId()), 1);
+
+        assertEquals(List.of("work0", "work1"), ids(firstPage));
+        assertEquals(List.of("work1", "work2"), ids(secondPage));
+        assertNull(thirdPage);
+    }
+
+    @Test
+    void testCompleteFeedServesLastPage() {
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(items(2));
+
+        GalleryItemResponse first = items(1).get(0);
+        List<GalleryItemResponse> page = cache.page(WorkCursor.SORT_LATEST,
+                WorkCursor.latest(first.getCreatedAt(), first.getId()), 5);
+
+        assertEquals(List.of("work1"), ids(page));
+    }
+
+    @Test
+    void testReturnedItemsAreCopies() {
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(items(1));
+
+        cache.page(WorkCursor.SORT_LATEST, null, 10).get(0).setIsLiked(true);
+
+        assertFalse(cache.page(WorkCursor.SORT_LATEST, null, 10).get(0).getIsLiked());
+    }
+
+    @Test
+    void testLikesDeltaReordersWithoutRebuild() {
+        List<GalleryItemResponse> ranked = items(2);
+        ranked.get(0).setLikesCount(5);
+        ranked.get(1).setLikesCount(5);
+        when(workRepository.findGalleryItemsOrderByLikesCountDesc(any(Pageable.class)))
+                .thenReturn(ranked);
+
+        cache.page(WorkCursor.SORT_LIKES, null, 10);
+        cache.onGalleryChange(GalleryChangeEvent.likesChanged("work0", 1));
+        List<GalleryItemResponse> page = cache.page(WorkCursor.SORT_LIKES, null, 10);
+
+        assertEquals(List.of("work0", "work1"), ids(page));
+        assertEquals(6, page.get(0).getLikesCount());
+        verify(workRepository, times(1)).findGalleryItemsOrderByLikesCountDesc(any(Pageable.class));
+    }
+
+    @Test
+    void testLikeOutsideWindowDropsLikesFeed() {
+        when(workRepository.findGalleryItemsOrderByLikesCountDesc(any(Pageable.class)))
+                .thenReturn(items(4));
+
+        cache.page(WorkCursor.SORT_LIKES, null, 1);
+        cache.onGalleryChange(GalleryChangeEvent.likesChanged("work99", 1));
+        cache.page(WorkCursor.SORT_LIKES, null, 1);
+
+        verify(workRepository, times(2)).findGalleryItemsOrderByLikesCountDesc(any(Pageable.class));
+    }
+
+    @Test
+    void testLikeDuringRebuildIsReplayedOnce() {
+        // 加载前的点赞已在查询结果中（work1 为 3 + 1），查询期间的点赞未被查到（work0 仍为 3）
+        List<GalleryItemResponse> snapshot = items(2);
+        snapshot.get(0).setLikesCount(3);
+        snapshot.get(1).setLikesCount(4);
+        cache.onGalleryChange(GalleryChangeEvent.likesChanged("work1", 1));
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class))).thenAnswer(invocation -> {
+            cache.onGalleryChange(GalleryChangeEvent.likesChanged("work0", 1));
+            return snapshot;
+        });
+
+        List<GalleryItemResponse> first = cache.page(WorkCursor.SORT_LATEST, null, 10);
+        List<GalleryItemResponse> cached = cache.page(WorkCursor.SORT_LATEST, null, 10);
+
+        assertEquals(List.of(4, 4), first.stream().map(GalleryItemResponse::getLikesCount).toList());
+        assertEquals(List.of(4, 4), cached.stream().map(GalleryItemResponse::getLikesCount).toList());
+        verify(workRepository, times(1)).findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class));
+    }
+
+    /**
+     * 按最新排序的 n 条数据，work0 最新
+     */
+    private List<GalleryItemResponse> items(int count) {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<GalleryItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new GalleryItemResponse("work" + i, "user1", "Work " + i, null, null, "anime",
+                    count - i, 0, 1L, base.minusHours(i), "author", null));
+        }
+        return items;
+    }
+
+    private List<String> ids(List<GalleryItemResponse> items) {
+        return items.stream().map(GalleryItemResponse::getId).toList();
+    }
+}
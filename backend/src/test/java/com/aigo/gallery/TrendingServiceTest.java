@@ -0,0 +1,197 @@
+package com.aigo.gallery;
+
+import com.aigo.dto.CursorPage;
+import com.aigo.dto.work.GalleryItemResponse;
+import com.aigo.dto.work.WorkCursor;
+import com.aigo.repository.CommentRepository;
+import com.aigo.repository.EpisodeRepository;
+import com.aigo.repository.LikeRepository;
+import com.aigo.repository.PurchaseRepository;
+import com.aigo.repository.WorkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private WorkRepository workRepository;
+    private EpisodeRepository episodeRepository;
+    private AtomicLong now;
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        workRepository = mock(WorkRepository.class);
+        episodeRepository = mock(EpisodeRepository.class);
+        trendingService = new TrendingService(workRepository, episodeRepository,
+                mock(LikeRepository.class), mock(CommentRepository.class), mock(PurchaseRepository.class));
+        ReflectionTestUtils.setField(trendingService, "halfLifeHours", 24d);
+        ReflectionTestUtils.setField(trendingService, "topK", 3);
+        ReflectionTestUtils.setField(trendingService, "likeWeight", 5d);
+        ReflectionTestUtils.setField(trendingService, "viewWeight", 1d);
+        ReflectionTestUtils.setField(trendingService, "commentWeight", 3d);
+        ReflectionTestUtils.setField(trendingService, "purchaseWeight", 8d);
+        now = new AtomicLong(100 * HOUR);
+        trendingService.clock = now::get;
+
+        when(workRepository.findGalleryItemsByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(TrendingServiceTest::item).toList();
+        });
+    }
+
+    @Test
+    void testScoreHalvesAfterOneHalfLife() {
+        trendingService.onGalleryChange(GalleryChangeEvent.likesChanged("work1", 1));
+        now.addAndGet(24 * HOUR);
+        trendingService.refresh();
+
+        assertEquals(2.5, trendingService.getRanking().getScores().get("work1"), 1e-9);
+    }
+
+    @Test
+    void testUnlikeAfterDecaySubtractsOnlyTheDecayedLike() {
+        LocalDateTime likedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(now.get()), ZoneId.systemDefault());
+        trendingService.onGalleryChange(GalleryChangeEvent.likesChanged("work1", 1));
+        trendingService.onWorkActivity(WorkActivityEvent.purchase("work1"));
+        now.addAndGet(24 * HOUR);
+        trendingService.onGalleryChange(GalleryChangeEvent.unliked("work1", likedAt));
+        trendingService.refresh();
+
+        assertEquals(4.0, trendingService.getRanking().getScores().get("work1"), 1e-9);
+        assertEquals(1, trendingService.getTrackedCount());
+    }
+
+    @Test
+    void testUnlikeNeverDrivesScoreNegative() {
+        trendingService.onGalleryChange(GalleryChangeEvent.likesChanged("work1", 1));
+        now.addAndGet(24 * HOUR);
+        trendingService.onGalleryChange(GalleryChangeEvent.likesChanged("work1", -1));
+        trendingService.onWorkActivity(WorkActivityEvent.view("work1"));
+        trendingService.refresh();
+
+        assertEquals(1.0, trendingService.getRanking().getScores().get("work1"), 1e-9);
+    }
+
+    @Test
+    void testRecentActivityOutranksOldPopularity() {
+        for (int i = 0; i < 10; i++) {
+            trendingService.onGalleryChange(GalleryChangeEvent.likesChanged("old", 1));
+        }
+        now.addAndGet(7 * 24 * HOUR);
+        trendingService.onGalleryChange(GalleryChangeEvent.likesChanged("fresh", 1));
+        trendingService.onWorkActivity(WorkActivityEvent.purchase("fresh"));
+        trendingService.refresh();
+
+        assertEquals(List.of("fresh", "old"), trendingService.getRanking().getWorkIds());
+    }
+
+    @Test
+    void testRankingKeepsOnlyTopK() {
+        for (int i = 1; i <= 5; i++) {
+            for (int j = 0; j < i; j++) {
+                trendingService.onWorkActivity(WorkActivityEvent.view("work" + i));
+            }
+        }
+        trendingService.refresh();
+
+        assertEquals(List.of("work5", "work4", "work3"), trendingService.getRanking().getWorkIds());
+        assertEquals(5, trendingService.getTrackedCount());
+    }
+
+    @Test
+    void testDecayedScoresArePruned() {
+        trendingService.onWorkActivity(WorkActivityEvent.view("work1"));
+        now.addAndGet(30 * 24 * HOUR);
+        trendingService.refresh();
+
+        assertTrue(trendingService.getRanking().getWorkIds().isEmpty());
+        assertEquals(0, trendingService.getTrackedCount());
+    }
+
+    @Test
+    void testEpisodeCommentResolvesWork() {
+        when(episodeRepository.findWorkIdById("ep1")).thenReturn(Optional.of("work1"));
+
+        trendingService.onWorkActivity(WorkActivityEvent.episodeComment("ep1"));
+        trendingService.refresh();
+
+        assertEquals(3.0, trendingService.getRanking().getScores().get("work1"), 1e-9);
+    }
+
+    @Test
+    void testPageFollowsRankingWithCursor() {
+        for (int i = 1; i <= 3; i++) {
+            for (int j = 0; j < i; j++) {
+                trendingService.onWorkActivity(WorkActivityEvent.view("work" + i));
+            }
+        }
+        trendingService.refresh();
+
+        CursorPage<GalleryItemResponse> first = trendingService.page(null, 2);
+        CursorPage<GalleryItemResponse> second = trendingService.page(
+                WorkCursor.decode(first.getNextCursor(), WorkCursor.SORT_TRENDING), 2);
+
+        assertEquals(List.of("work3", "work2"), first.getItems().stream().map(GalleryItemResponse::getId).toList());
+        assertTrue(first.getHasMore());
+        assertEquals(List.of("work1"), second.getItems().stream().map(GalleryItemResponse::getId).toList());
+        assertFalse(second.getHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testPageSkipsWorksNoLongerPublic() {
+        trendingService.onWorkActivity(WorkActivityEvent.view("hidden"));
+        trendingService.onWorkActivity(WorkActivityEvent.purchase("visible"));
+        trendingService.refresh();
+        when(workRepository.findGalleryItemsByIds(anyCollection())).thenReturn(List.of(item("visible")));
+
+        CursorPage<GalleryItemResponse> page = trendingService.page(null, 10);
+
+        assertEquals(List.of("visible"), page.getItems().stream().map(GalleryItemResponse::getId).toList());
+    }
+
+    @Test
+    void testPageKeepsFillingPastPrivateWorks() {
+        ReflectionTestUtils.setField(trendingService, "topK", 10);
+        trendingService.onWorkActivity(WorkActivityEvent.purchase("hidden1"));
+        trendingService.onWorkActivity(WorkActivityEvent.workComment("hidden2"));
+        trendingService.onWorkActivity(WorkActivityEvent.view("work1"));
+        trendingService.onWorkActivity(WorkActivityEvent.view("work1"));
+        trendingService.onWorkActivity(WorkActivityEvent.view("work2"));
+        trendingService.refresh();
+        when(workRepository.findGalleryItemsByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !id.startsWith("hidden")).map(TrendingServiceTest::item).toList();
+        });
+
+        CursorPage<GalleryItemResponse> full = trendingService.page(null, 2);
+        CursorPage<GalleryItemResponse> first = trendingService.page(null, 1);
+        CursorPage<GalleryItemResponse> second = trendingService.page(WorkCursor.decode(first.getNextCursor(), WorkCursor.SORT_TRENDING), 1);
+
+        assertEquals(List.of("work1", "work2"), full.getItems().stream().map(GalleryItemResponse::getId).toList());
+        assertFalse(full.getHasMore());
+        assertEquals(List.of("work1"), first.getItems().stream().map(GalleryItemResponse::getId).toList());
+        assertTrue(first.getHasMore());
+        assertEquals(List.of("work2"), second.getItems().stream().map(GalleryItemResponse::getId).toList());
+        assertFalse(second.getHasMore());
+    }
+
+    private static GalleryItemResponse item(String workId) {
+        return GalleryItemResponse.builder().id(workId).title(workId).isLiked(false).build();
+    }
+}
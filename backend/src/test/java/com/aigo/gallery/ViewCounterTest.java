@@ -0,0 +1,178 @@
+package com.aigo.gallery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ViewCounterTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private JdbcTemplate jdbcTemplate;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        now = new AtomicLong(0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushWritesOneBatchWithDeltas() {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, false, 30 * MINUTE, now::get);
+        counter.record("work1", "ep1", "user1");
+        counter.record("work1", "ep1", "user1");
+        counter.record("work2", "ep2", null);
+
+        counter.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ViewCounter.INCREMENT_SQL), batch.capture());
+        List<Object[]> rows = batch.getValue().stream()
+                .sorted(Comparator.comparing(row -> (String) row[1]))
+                .toList();
+        assertArrayEquals(new Object[]{2L, "work1"}, rows.get(0));
+        assertArrayEquals(new Object[]{1L, "work2"}, rows.get(1));
+        assertEquals(3, counter.getFlushedViews());
+        assertEquals(0, counter.getPendingViews("work1"));
+    }
+
+    @Test
+    void testEmptyFlushSkipsDatabase() {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, false, 30 * MINUTE, now::get);
+
+        counter.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testFailedFlushKeepsViewsForRetry() {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, false, 30 * MINUTE, now::get);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("db down"));
+        counter.record("work1", "ep1", null);
+
+        counter.flush();
+
+        assertEquals(1, counter.getPendingViews("work1"));
+        assertEquals(0, counter.getFlushedViews());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPartiallyFailedFlushRequeuesOnlyFailedRows() {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, false, 30 * MINUTE, now::get);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            int[] counts = rows.stream()
+                    .mapToInt(row -> "work2".equals(row[1]) ? Statement.EXECUTE_FAILED : 1)
+                    .toArray();
+            throw new DataIntegrityViolationException("overflow", new BatchUpdateException(counts));
+        });
+        counter.record("work1", "ep1", null);
+        counter.record("work1", "ep1", null);
+        counter.record("work2", "ep2", null);
+
+        counter.flush();
+
+        assertEquals(0, counter.getPendingViews("work1"));
+        assertEquals(1, counter.getPendingViews("work2"));
+        assertEquals(2, counter.getFlushedViews());
+    }
+
+    @Test
+    void testDedupCountsRepeatViewOncePerWindow() {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, true, 30 * MINUTE, now::get);
+
+        assertTrue(counter.record("work1", "ep1", "user1"));
+        assertFalse(counter.record("work1", "ep1", "user1"));
+        assertTrue(counter.record("work1", "ep2", "user1"));
+        assertTrue(counter.record("work1", "ep1", "user2"));
+        now.addAndGet(30 * MINUTE);
+        assertTrue(counter.record("work1", "ep1", "user1"));
+
+        assertEquals(4, counter.getPendingViews("work1"));
+        assertEquals(1, counter.getDedupedViews());
+    }
+
+    @Test
+    void testDedupIgnoresAnonymousViewers() {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, true, 30 * MINUTE, now::get);
+
+        assertTrue(counter.record("work1", "ep1", null));
+        assertTrue(counter.record("work1", "ep1", null));
+
+        assertEquals(2, counter.getPendingViews("work1"));
+    }
+
+    @Test
+    void testConcurrentViewsAreNotLost() throws InterruptedException {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, false, 30 * MINUTE, now::get);
+        int threads = 8;
+        int viewsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < viewsPerThread; j++) {
+                    counter.record("hot", "ep1", null);
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * viewsPerThread, counter.getPendingViews("hot"));
+    }
+
+    @Test
+    void testViewsRecordedDuringFlushAreNotLost() throws InterruptedException {
+        ViewCounter counter = new ViewCounter(jdbcTemplate, false, 30 * MINUTE, now::get);
+        int threads = 4;
+        int viewsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < viewsPerThread; j++) {
+                    counter.record("hot", "ep1", null);
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+            counter.flush();
+        }
+        counter.flush();
+
+        assertEquals((long) threads * viewsPerThread, counter.getFlushedViews());
+        assertEquals(0, counter.getPendingViews("hot"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.aigo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedTaskDecoratorTest {
+
+    @Mock
+    private ObjectProvider<MeterRegistry> registryProvider;
+
+    private MockClock clock;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    }
+
+    @Test
+    void testRecordsQueueWaitAndExecutionTime() {
+        when(registryProvider.getIfAvailable()).thenReturn(registry);
+        InstrumentedTaskDecorator decorator = new InstrumentedTaskDecorator("testExecutor", registryProvider);
+
+        Runnable task = decorator.decorate(() -> {
+            assertEquals(1.0, registry.get("executor.tasks.active").tag("name", "testExecutor").gauge().value());
+            clock.add(Duration.ofMillis(50));
+        });
+        clock.add(Duration.ofMillis(200));
+        task.run();
+
+        Timer idle = registry.get("executor.idle").tag("name", "testExecutor").timer();
+        Timer execution = registry.get("executor").tag("name", "testExecutor").timer();
+        assertEquals(1, idle.count());
+        assertEquals(200.0, idle.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(50.0, execution.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(0.0, registry.get("executor.tasks.active").tag("name", "testExecutor").gauge().value());
+    }
+
+    @Test
+    void testFailingTaskStillRecorded() {
+        when(registryProvider.getIfAvailable()).thenReturn(registry);
+        InstrumentedTaskDecorator decorator = new InstrumentedTaskDecorator("testExecutor", registryProvider);
+
+        Runnable task = decorator.decorate(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThrows(IllegalStateException.class, task::run);
+        assertEquals(1, registry.get("executor").tag("name", "testExecutor").timer().count());
+        assertEquals(0.0, registry.get("executor.tasks.active").tag("name", "testExecutor").gauge().value());
+    }
+
+    @Test
+    void testActiveGaugeCoexistsWithExecutorServiceMetrics() {
+        when(registryProvider.getIfAvailable()).thenReturn(registry);
+        ExecutorService executor = ExecutorServiceMetrics.monitor(registry, Executors.newFixedThreadPool(1), "testExecutor");
+        try {
+            InstrumentedTaskDecorator decorator = new InstrumentedTaskDecorator("testExecutor", registryProvider);
+
+            Runnable task = decorator.decorate(() ->
+                    assertEquals(1.0, registry.get("executor.tasks.active").tag("name", "testExecutor").gauge().value()));
+            task.run();
+
+            assertNotNull(registry.find("executor.active").tag("name", "testExecutor").gauge());
+            assertEquals(0.0, registry.get("executor.tasks.active").tag("name", "testExecutor").gauge().value());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testPassesThroughWithoutRegistry() {
+        when(registryProvider.getIfAvailable()).thenReturn(null);
+        InstrumentedTaskDecorator decorator = new InstrumentedTaskDecorator("testExecutor", registryProvider);
+        AtomicBoolean ran = new AtomicBoolean();
+        Runnable original = () -> ran.set(true);
+
+        Runnable task = decorator.decorate(original);
+        task.run();
+
+        assertSame(original, task);
+        assertTrue(ran.get());
+    }
+}
@@ -0,0 +1,136 @@
+package com.aigo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    private MeterRegistry registry;
+    private SimpleTracer tracer;
+    private PipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracer = new SimpleTracer();
+        metrics = new PipelineMetrics(registry, tracer);
+    }
+
+    @Test
+    void testSuccessfulStageIsTaggedWithProviderAndModel() throws Exception {
+        String result = metrics.record(PipelineStage.LLM_PARSE, "deepseek", "deepseek-reasoner", () -> "ok");
+
+        assertEquals("ok", result);
+        Timer timer = registry.find(PipelineMetrics.STAGE_TIMER)
+                .tags("stage", "llm-parse", "provider", "deepseek", "model", "deepseek-reasoner", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testFailedStageIsRecordedAndRethrown() {
+        IOException failure = new IOException("boom");
+
+        IOException thrown = assertThrows(IOException.class, () ->
+                metrics.record(PipelineStage.UPLOAD, "qiniu", "image", () -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(1, registry.find(PipelineMetrics.STAGE_TIMER).tags("stage", "upload", "outcome", "error")
+                .timer().count());
+        assertNull(registry.find(PipelineMetrics.STAGE_TIMER).tags("outcome", "success").timer());
+    }
+
+    @Test
+    void testMissingModelIsTaggedUnknown() throws Exception {
+        metrics.record(PipelineStage.TTS, "tts", null, () -> null);
+
+        assertNotNull(registry.find(PipelineMetrics.STAGE_TIMER).tags("stage", "tts", "model", "unknown").timer());
+    }
+
+    @Test
+    void testFallbackAndEpisodeMeters() {
+        metrics.recordFallback(PipelineStage.SCENE_IMAGE);
+        metrics.recordFallback(PipelineStage.SCENE_IMAGE);
+        PipelineMetrics.EpisodeRun run = metrics.startEpisode("episode-1");
+        metrics.stopEpisode(run, "video", new IllegalStateException("boom"));
+
+        assertEquals(2.0, registry.find(PipelineMetrics.FALLBACK_COUNTER).tag("stage", "scene-image").counter().count());
+        assertEquals(1, registry.find(PipelineMetrics.EPISODE_TIMER)
+                .tags("content_type", "video", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void testStageSpansNestUnderEpisodeSpan() throws Exception {
+        PipelineMetrics.EpisodeRun run = metrics.startEpisode("episode-1");
+        metrics.record(PipelineStage.LLM_PARSE, "deepseek", "deepseek-reasoner", () -> "ok");
+        assertThrows(IllegalStateException.class, () ->
+                metrics.record(PipelineStage.VIDEO, "video", "veo", () -> {
+                    throw new IllegalStateException("timeout");
+                }));
+        metrics.stopEpisode(run, "video", null);
+
+        assertEquals(3, tracer.getSpans().size());
+        SimpleSpan episode = tracer.getSpans().stream().filter(s -> s.getName().equals("episode")).findFirst().orElseThrow();
+        SimpleSpan parse = tracer.getSpans().stream().filter(s -> s.getName().equals("llm-parse")).findFirst().orElseThrow();
+        SimpleSpan video = tracer.getSpans().stream().filter(s -> s.getName().equals("video")).findFirst().orElseThrow();
+        assertEquals(episode.getSpanId(), parse.getParentId());
+        assertEquals(episode.getTraceId(), video.getTraceId());
+        assertEquals("deepseek", parse.getTags().get("aigo.provider"));
+        assertEquals("episode-1", episode.getTags().get("aigo.episode.id"));
+        assertNull(parse.getError());
+        assertInstanceOf(IllegalStateException.class, video.getError());
+        assertNull(tracer.currentSpan());
+    }
+
+    @Test
+    void testEpisodeUsageFollowsTasksOnWorkerThreads() throws Exception {
+        PipelineMetrics.EpisodeRun run = metrics.startEpisode("episode-1");
+        metrics.record(PipelineStage.LLM_PARSE, "deepseek", "deepseek-reasoner", () -> "ok");
+        metrics.recordTokenUsage("deepseek", "deepseek-reasoner", 120, 30);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EpisodeUsageTaskDecorator decorator = new EpisodeUsageTaskDecorator();
+            for (int i = 0; i < 4; i++) {
+                executor.execute(decorator.decorate(() -> {
+                    try {
+                        metrics.record(PipelineStage.SCENE_IMAGE, "image", "gemini", () -> "url");
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    metrics.recordUpload("image", 1000);
+                }));
+            }
+            executor.execute(() -> metrics.recordUpload("image", 999_999));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        metrics.stopEpisode(run, "anime", null);
+
+        EpisodeUsage usage = run.getUsage();
+        assertEquals(1, usage.getStageCalls(PipelineStage.LLM_PARSE));
+        assertEquals(4, usage.getStageCalls(PipelineStage.SCENE_IMAGE));
+        assertEquals(4000, usage.getBytesUploaded());
+        assertEquals(120, usage.getInputTokens());
+        assertEquals(30, usage.getOutputTokens());
+        assertEquals(150.0, registry.find(PipelineMetrics.LLM_TOKENS).tag("provider", "deepseek").counters()
+                .stream().mapToDouble(c -> c.count()).sum());
+        assertNull(EpisodeUsage.current());
+    }
+}
@@ -0,0 +1,90 @@
+package com.aigo.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, now::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void testSuccessResetsFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000, now::get);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenAllowsSingleProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.onFailure();
+
+        now.addAndGet(1_000_000_000L);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void testProbeSuccessCloses() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.onFailure();
+        now.addAndGet(1_000_000_000L);
+        breaker.allowRequest();
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void testProbeFailureReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(5, 1000, now::get);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        now.addAndGet(1_000_000_000L);
+        breaker.allowRequest();
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void testIgnoredProbeKeepsHalfOpenAndFreesProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.onFailure();
+        now.addAndGet(1_000_000_000L);
+        breaker.allowRequest();
+
+        breaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+}
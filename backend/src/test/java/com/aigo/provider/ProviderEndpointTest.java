@@ -0,0 +1,60 @@
+package com.aigo.provider;
+
+import com.aigo.security.JwtPrincipal;
+import com.aigo.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProviderEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    private final String testToken = "test-jwt-token";
+
+    @BeforeEach
+    void setUp() {
+        when(jwtUtil.parse(testToken)).thenReturn(new JwtPrincipal("user123", "testuser", "test@example.com", null, null));
+    }
+
+    @Test
+    void testProviderStatsServedFromActuator() throws Exception {
+        mockMvc.perform(get("/actuator/providers")
+                        .header("Authorization", "Bearer " + testToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].provider").exists())
+                .andExpect(jsonPath("$[0].circuitState").value("CLOSED"));
+    }
+
+    @Test
+    void testHttpPoolStatsServedFromActuator() throws Exception {
+        mockMvc.perform(get("/actuator/httppool")
+                        .header("Authorization", "Bearer " + testToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.route").value("*"));
+    }
+
+    @Test
+    void testOperationalEndpointsRequireAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/providers"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/httppool"))
+                .andExpect(status().isForbidden());
+    }
+}
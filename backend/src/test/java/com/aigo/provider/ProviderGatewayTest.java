@@ -0,0 +1,228 @@
+package com.aigo.provider;
+
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderGatewayTest {
+
+    private MockEnvironment environment;
+    private ProviderGateway gateway;
+    private final List<Long> sleeps = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("provider.retry.base-delay-ms", "100")
+                .withProperty("provider.retry.max-delay-ms", "1000")
+                .withProperty("provider.text2img.permits-per-second", "1000")
+                .withProperty("provider.text2img.burst", "1000")
+                .withProperty("provider.text2img.max-concurrency", "2")
+                .withProperty("provider.text2img.max-attempts", "3")
+                .withProperty("provider.text2img.failure-threshold", "4");
+        gateway = new ProviderGateway(environment);
+        gateway.sleeper = sleeps::add;
+    }
+
+    @Test
+    void testRetriesServerErrorThenSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, sleeps.size());
+        assertEquals(2L, stats().getRetries());
+    }
+
+    @Test
+    void testOneSpanPerCallWithRetryEvents() {
+        SimpleTracer tracer = new SimpleTracer();
+        gateway = new ProviderGateway(environment, tracer);
+        gateway.sleeper = sleeps::add;
+        AtomicInteger calls = new AtomicInteger();
+
+        gateway.execute(AiProvider.TEXT_TO_IMAGE, "images/generations", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        });
+        assertThrows(HttpClientErrorException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "images/edits", () -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+
+        assertEquals(2, tracer.getSpans().size());
+        SimpleSpan success = tracer.getSpans().getFirst();
+        assertEquals("text2img images/generations", success.getName());
+        assertEquals("3", success.getTags().get("aigo.attempts"));
+        assertEquals(2, success.getEvents().size());
+        assertNull(success.getError());
+        SimpleSpan failure = tracer.getSpans().getLast();
+        assertInstanceOf(HttpClientErrorException.class, failure.getError());
+        assertNull(tracer.currentSpan());
+    }
+
+    @Test
+    void testClientErrorIsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+
+        assertEquals(1, calls.get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ResourceAccessException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("connect timed out");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(3L, stats().getFailures());
+    }
+
+    @Test
+    void testHonorsRetryAfterOnTooManyRequests() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "5");
+        AtomicInteger calls = new AtomicInteger();
+
+        gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "rate limited", headers, null, null);
+            }
+            return "ok";
+        });
+
+        assertEquals(1, sleeps.size());
+        assertTrue(sleeps.get(0) > 4000L);
+        assertEquals(1L, stats().getRetries());
+    }
+
+    @Test
+    void testCheckedExceptionIsWrapped() {
+        ProviderCallException e = assertThrows(ProviderCallException.class,
+                () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+                    throw new Exception("boom");
+                }));
+
+        assertEquals("boom", e.getMessage());
+    }
+
+    @Test
+    void testCircuitOpensAfterRepeatedFailures() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpServerErrorException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }));
+        }
+
+        assertThrows(ProviderUnavailableException.class,
+                () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> "ok"));
+        assertEquals("OPEN", stats().getCircuitState());
+        assertTrue(stats().getRejected() > 0);
+    }
+
+    @Test
+    void testUnclassifiedErrorDoesNotResetFailureCount() {
+        assertThrows(HttpServerErrorException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+        assertThrows(IllegalStateException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            throw new IllegalStateException("API returned error");
+        }));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpServerErrorException.class, () -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals("OPEN", stats().getCircuitState());
+    }
+
+    @Test
+    void testConcurrencyIsCapped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(pool.submit(() -> gateway.execute(AiProvider.TEXT_TO_IMAGE, "test", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    release.await(5, TimeUnit.SECONDS);
+                    running.decrementAndGet();
+                    return "ok";
+                })));
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (stats().getQueued() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, stats().getInFlight());
+            assertEquals(4, stats().getQueued());
+
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, stats().getInFlight());
+    }
+
+    @Test
+    void testParseRetryAfter() {
+        assertEquals(Duration.ofSeconds(30), ProviderGateway.parseRetryAfter("30"));
+        assertNull(ProviderGateway.parseRetryAfter(null));
+        assertNull(ProviderGateway.parseRetryAfter("soon"));
+        assertNotNull(ProviderGateway.parseRetryAfter("Wed, 21 Oct 2099 07:28:00 GMT"));
+    }
+
+    private ProviderStats stats() {
+        return gateway.getStats().stream()
+                .filter(s -> s.getProvider().equals(AiProvider.TEXT_TO_IMAGE.getKey()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.aigo.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testBurstThenEmpty() {
+        TokenBucket bucket = new TokenBucket(1.0, 3, now::get);
+
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void testRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(2.0, 2, now::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        now.addAndGet(500_000_000L);
+
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void testRefillCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(10.0, 2, now::get);
+
+        now.addAndGet(10_000_000_000L);
+
+        assertEquals(2.0, bucket.availableTokens(), 0.0001);
+    }
+
+    @Test
+    void testReserveQueuesCallersInOrder() {
+        TokenBucket bucket = new TokenBucket(1.0, 1, now::get);
+
+        assertEquals(0L, bucket.reserve());
+        assertEquals(1_000_000_000L, bucket.reserve());
+        assertEquals(2_000_000_000L, bucket.reserve());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1.0, 0));
+    }
+}
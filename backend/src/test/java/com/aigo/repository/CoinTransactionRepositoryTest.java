@@ -0,0 +1,88 @@
+package com.aigo.repository;
+
+import com.aigo.entity.CoinBalanceSnapshot;
+import com.aigo.entity.CoinTransaction;
+import com.aigo.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class CoinTransactionRepositoryTest {
+
+    private static final LocalDateTime SECOND = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+    private static final LocalDateTime AS_OF = SECOND.plusNanos(400_000_000);
+
+    @Autowired
+    private CoinTransactionRepository coinTransactionRepository;
+
+    @Autowired
+    private CoinBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testEntriesInSnapshotSecondKeepTheirSide() {
+        String userId = saveUser("ledger");
+        snapshotRepository.save(CoinBalanceSnapshot.builder().userId(userId).balance(100).asOf(AS_OF).build());
+        saveEntry(userId, -1, SECOND.plusNanos(200_000_000));
+        saveEntry(userId, -10, AS_OF.minusNanos(1_000));
+        saveEntry(userId, 100, AS_OF);
+        saveEntry(userId, -1000, SECOND.plusNanos(600_000_000));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(AS_OF, snapshotRepository.findById(userId).orElseThrow().getAsOf());
+        assertEquals(AS_OF, coinTransactionRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .filter(entry -> entry.getAmount() == 100).findFirst().orElseThrow().getCreatedAt());
+        assertEquals(-900, coinTransactionRepository.sumAmountSince(userId, AS_OF));
+    }
+
+    @Test
+    void testFractionalCutoffSplitsEntriesOnce() {
+        String userId = saveUser("cutoff");
+        snapshotRepository.save(CoinBalanceSnapshot.builder().userId(userId).balance(0).asOf(SECOND).build());
+        LocalDateTime cutoff = SECOND.plusNanos(500_000_000);
+        saveEntry(userId, 1, SECOND.plusNanos(499_999_000));
+        saveEntry(userId, 10, cutoff);
+        saveEntry(userId, 100, SECOND.plusNanos(500_001_000));
+        entityManager.flush();
+
+        long beforeCutoff = coinTransactionRepository.sumAmountBetween(userId, SECOND, cutoff);
+        long afterCutoff = coinTransactionRepository.sumAmountSince(userId, cutoff);
+
+        assertEquals(1, beforeCutoff);
+        assertEquals(110, afterCutoff);
+        assertEquals(coinTransactionRepository.sumAmountSince(userId, SECOND), beforeCutoff + afterCutoff);
+        assertEquals(List.of(userId), coinTransactionRepository.findUserIdsWithEntriesBefore(cutoff));
+    }
+
+    private void saveEntry(String userId, int amount, LocalDateTime createdAt) {
+        coinTransactionRepository.save(CoinTransaction.builder()
+                .userId(userId)
+                .amount(amount)
+                .type(amount < 0 ? CoinTransaction.TYPE_PURCHASE : CoinTransaction.TYPE_RECHARGE)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private String saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("hashedpassword")
+                .build()).getId();
+    }
+}
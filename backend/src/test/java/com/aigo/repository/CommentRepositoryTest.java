@@ -0,0 +1,103 @@
+package com.aigo.repository;
+
+import com.aigo.dto.comment.CommentResponse;
+import com.aigo.entity.Comment;
+import com.aigo.entity.User;
+import com.aigo.entity.Work;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private WorkRepository workRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+    private String workId;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("commenter")
+                .email("commenter@example.com")
+                .passwordHash("hashedpassword")
+                .avatarUrl("avatar.jpg")
+                .build());
+        workId = workRepository.save(Work.builder()
+                .userId(user.getId())
+                .title("Commented Work")
+                .isPublic(true)
+                .build()).getId();
+    }
+
+    @Test
+    void testPagesCarryAuthorAndDoNotOverlap() {
+        for (int i = 0; i < 5; i++) {
+            saveComment("comment " + i);
+        }
+        entityManager.clear();
+
+        List<CommentResponse> first = commentRepository.findPageByTarget("work", workId, PageRequest.of(0, 3));
+        CommentResponse last = first.get(first.size() - 1);
+        List<CommentResponse> second = commentRepository.findPageByTargetCreatedBefore("work", workId,
+                last.getCreatedAt(), last.getId(), PageRequest.of(0, 3));
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertEquals("commenter", first.get(0).getUsername());
+        assertEquals("avatar.jpg", first.get(0).getAvatarUrl());
+        assertTrue(second.stream().noneMatch(comment -> first.stream()
+                .anyMatch(seen -> seen.getId().equals(comment.getId()))));
+        assertTrue(commentRepository.findPageByTarget("episode", workId, PageRequest.of(0, 3)).isEmpty());
+    }
+
+    @Test
+    void testDeleteCommentReturnsDeletedRows() {
+        String commentId = saveComment("to delete").getId();
+
+        assertEquals(1, commentRepository.deleteComment(commentId));
+        assertEquals(0, commentRepository.deleteComment(commentId));
+    }
+
+    @Test
+    void testCommentsCountIncrementAndDecrement() {
+        assertEquals(1, workRepository.incrementCommentsCount(workId));
+        assertEquals(1, workRepository.incrementCommentsCount(workId));
+        assertEquals(1, workRepository.decrementCommentsCount(workId));
+        assertEquals(1, workRepository.findCommentsCountById(workId).orElseThrow());
+
+        assertEquals(1, workRepository.decrementCommentsCount(workId));
+        assertEquals(0, workRepository.decrementCommentsCount(workId));
+        assertEquals(0, workRepository.findCommentsCountById(workId).orElseThrow());
+        assertEquals(0, workRepository.incrementCommentsCount("missing"));
+    }
+
+    private Comment saveComment(String content) {
+        return commentRepository.saveAndFlush(Comment.builder()
+                .targetType("work")
+                .targetId(workId)
+                .userId(user.getId())
+                .content(content)
+                .build());
+    }
+}
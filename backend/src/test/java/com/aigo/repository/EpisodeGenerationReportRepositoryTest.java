@@ -0,0 +1,104 @@
+package com.aigo.repository;
+
+import com.aigo.entity.EpisodeGenerationReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EpisodeGenerationReportRepositoryTest {
+
+    @Autowired
+    private EpisodeGenerationReportRepository reportRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testFindLatestReportOfEpisode() throws InterruptedException {
+        reportRepository.save(report("episode1", "work1", "user1", "FAILED", 1000, 10, 5));
+        Thread.sleep(10);
+        reportRepository.save(report("episode1", "work1", "user1", "SUCCESS", 2000, 20, 10));
+
+        EpisodeGenerationReport latest = reportRepository.findFirstByEpisodeIdOrderByCreatedAtDesc("episode1")
+                .orElseThrow();
+
+        assertEquals("SUCCESS", latest.getStatus());
+        assertEquals(1, latest.getStages().size());
+        assertEquals("llm-parse", latest.getStages().get(0).getStage());
+        assertEquals("openai", latest.getProviders().get(0).getProvider());
+        assertTrue(reportRepository.findFirstByEpisodeIdOrderByCreatedAtDesc("missing").isEmpty());
+    }
+
+    @Test
+    void testSumByWorkIncludesFailedRuns() {
+        reportRepository.save(report("episode1", "work1", "user1", "FAILED", 1000, 10, 5));
+        reportRepository.save(report("episode1", "work1", "user1", "SUCCESS", 2000, 20, 10));
+        reportRepository.save(report("episode2", "work2", "user1", "SUCCESS", 500, 300, 200));
+        reportRepository.save(report("episode3", "work3", "user2", "SUCCESS", 9000, 900, 900));
+        entityManager.flush();
+
+        List<GenerationCostRow> byTime = reportRepository.sumByWorkOrderByTime("user1", PageRequest.of(0, 10));
+
+        assertEquals(2, byTime.size());
+        GenerationCostRow first = byTime.get(0);
+        assertEquals("work1", first.getGroupKey());
+        assertEquals(2L, first.getGenerations());
+        assertEquals(1L, first.getFailures());
+        assertEquals(3000L, first.getTotalMs());
+        assertEquals(45L, first.getInputTokens() + first.getOutputTokens());
+        assertEquals(6L, first.getProviderCalls());
+        assertEquals(2L, first.getRetries());
+
+        List<GenerationCostRow> byTokens = reportRepository.sumByWorkOrderByTokens("user1", PageRequest.of(0, 1));
+        assertEquals(1, byTokens.size());
+        assertEquals("work2", byTokens.get(0).getGroupKey());
+    }
+
+    @Test
+    void testSumByUser() {
+        reportRepository.save(report("episode1", "work1", "user1", "SUCCESS", 1000, 10, 5));
+        reportRepository.save(report("episode2", "work2", "user1", "SUCCESS", 2000, 10, 5));
+        reportRepository.save(report("episode3", "work3", "user2", "SUCCESS", 2500, 100, 50));
+        entityManager.flush();
+
+        GenerationCostRow user1 = reportRepository.sumByUser("user1").orElseThrow();
+        assertEquals("user1", user1.getGroupKey());
+        assertEquals(2L, user1.getGenerations());
+        assertEquals(3000L, user1.getTotalMs());
+        assertEquals(30L, user1.getInputTokens() + user1.getOutputTokens());
+
+        assertTrue(reportRepository.sumByUser("user3").isEmpty());
+    }
+
+    private static EpisodeGenerationReport report(String episodeId, String workId, String userId, String status,
+                                                  long totalMs, long inputTokens, long outputTokens) {
+        return EpisodeGenerationReport.builder()
+                .episodeId(episodeId)
+                .workId(workId)
+                .userId(userId)
+                .status(status)
+                .contentType("anime")
+                .totalMs(totalMs)
+                .providerCalls(3L)
+                .retries(1L)
+                .imageCalls(2L)
+                .ttsCalls(2L)
+                .videoCalls(0L)
+                .fallbacks(0L)
+                .bytesUploaded(1024L)
+                .inputTokens(inputTokens)
+                .outputTokens(outputTokens)
+                .stages(List.of(new EpisodeGenerationReport.StageDetail("llm-parse", 1L, 0L, totalMs, totalMs)))
+                .providers(List.of(new EpisodeGenerationReport.ProviderDetail("openai", 3L, 1L)))
+                .build();
+    }
+}
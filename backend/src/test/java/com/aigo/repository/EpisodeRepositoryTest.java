@@ -1,6 +1,9 @@
 package com.aigo.repository;
 
+import com.aigo.dto.episode.EpisodeListItem;
 import com.aigo.entity.Episode;
+import com.aigo.entity.User;
+import com.aigo.entity.Work;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +22,12 @@ class EpisodeRepositoryTest {
     @Autowired
     private EpisodeRepository episodeRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkRepository workRepository;
+
     private Episode testEpisode;
     private String workId;
 
@@ -69,6 +78,60 @@ class EpisodeRepositoryTest {
         assertEquals(2, episodes.get(1).getEpisodeNumber());
     }
 
+    @Test
+    void testFindListItemsByWorkIdIn() {
+        User user = userRepository.save(User.builder()
+                .username("author")
+                .email("author@example.com")
+                .passwordHash("hashedpassword")
+                .build());
+        String first = saveWork(user.getId(), "First");
+        String second = saveWork(user.getId(), "Second");
+        String excluded = saveWork(user.getId(), "Excluded");
+        episodeRepository.save(episode(first, 2));
+        episodeRepository.save(episode(second, 1));
+        episodeRepository.save(episode(first, 1));
+        episodeRepository.save(episode(excluded, 1));
+
+        List<EpisodeListItem> episodes = episodeRepository.findListItemsByWorkIdIn(List.of(first, second));
+
+        assertEquals(3, episodes.size());
+        assertTrue(episodes.stream().noneMatch(e -> excluded.equals(e.getWorkId())));
+        assertEquals(List.of(1, 2), episodes.stream()
+                .filter(e -> first.equals(e.getWorkId()))
+                .map(EpisodeListItem::getEpisodeNumber)
+                .toList());
+    }
+
+    @Test
+    void testListItemsCarrySummaryAndSceneCountOnly() {
+        User user = userRepository.save(User.builder()
+                .username("author")
+                .email("author@example.com")
+                .passwordHash("hashedpassword")
+                .build());
+        String workId = saveWork(user.getId(), "Work");
+        Episode published = episode(workId, 1);
+        published.setNovelText("长".repeat(EpisodeListItem.SUMMARY_LENGTH * 10));
+        published.setScenes(List.of(
+                new Episode.SceneData(1, "scene 1", null, null),
+                new Episode.SceneData(2, "scene 2", null, null)));
+        published.setIsPublished(true);
+        episodeRepository.save(published);
+        episodeRepository.save(episode(workId, 2));
+
+        List<EpisodeListItem> all = episodeRepository.findListItemsByWorkId(workId);
+        List<EpisodeListItem> publishedOnly = episodeRepository.findPublishedListItemsByWorkId(workId);
+
+        assertEquals(2, all.size());
+        assertEquals(EpisodeListItem.SUMMARY_LENGTH, all.get(0).getSummary().length());
+        assertEquals(2, all.get(0).getSceneCount());
+        assertEquals(0, all.get(1).getSceneCount());
+        assertFalse(all.get(0).getIsPurchased());
+        assertEquals(1, publishedOnly.size());
+        assertEquals(1, publishedOnly.get(0).getEpisodeNumber());
+    }
+
     @Test
     void testFindByWorkIdAndIsPublishedTrueOrderByEpisodeNumberAsc() {
         testEpisode.setIsPublished(true);
@@ -142,4 +205,23 @@ class EpisodeRepositoryTest {
 
         assertFalse(maxNumber.isPresent());
     }
+
+    private String saveWork(String userId, String title) {
+        return workRepository.save(Work.builder()
+                .userId(userId)
+                .title(title)
+                .isPublic(false)
+                .likesCount(0)
+                .build()).getId();
+    }
+
+    private Episode episode(String workId, int number) {
+        return Episode.builder()
+                .workId(workId)
+                .episodeNumber(number)
+                .title("Episode " + number)
+                .novelText("Text " + number)
+                .status("COMPLETED")
+                .build();
+    }
 }
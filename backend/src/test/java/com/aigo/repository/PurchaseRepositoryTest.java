@@ -1,12 +1,17 @@
 package com.aigo.repository;
 
+import com.aigo.entity.Episode;
 import com.aigo.entity.Purchase;
+import com.aigo.entity.User;
+import com.aigo.entity.Work;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -16,6 +21,15 @@ class PurchaseRepositoryTest {
     @Autowired
     private PurchaseRepository purchaseRepository;
 
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkRepository workRepository;
+
     private Purchase testPurchase;
     private String userId;
     private String episodeId;
@@ -64,4 +78,51 @@ class PurchaseRepositoryTest {
         assertTrue(purchaseRepository.existsByUserIdAndEpisodeId(userId, episodeId));
         assertTrue(purchaseRepository.existsByUserIdAndEpisodeId(userId, "episode789"));
     }
+
+    @Test
+    void testFindPurchasedEpisodeIdsByWorkId() {
+        String buyer = saveUser("buyer");
+        String other = saveUser("other");
+        String work1 = saveWork(buyer);
+        String work2 = saveWork(buyer);
+        Episode inWork = episodeRepository.save(episode(work1, 1));
+        Episode notBought = episodeRepository.save(episode(work1, 2));
+        Episode otherWork = episodeRepository.save(episode(work2, 1));
+        purchaseRepository.save(Purchase.builder().userId(buyer).episodeId(inWork.getId()).coinCost(10).build());
+        purchaseRepository.save(Purchase.builder().userId(buyer).episodeId(otherWork.getId()).coinCost(10).build());
+        purchaseRepository.save(Purchase.builder().userId(other).episodeId(notBought.getId()).coinCost(10).build());
+
+        List<String> purchased = purchaseRepository.findPurchasedEpisodeIdsByWorkId(buyer, work1);
+
+        assertEquals(List.of(inWork.getId()), purchased);
+    }
+
+    private String saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("hashedpassword")
+                .build()).getId();
+    }
+
+    private String saveWork(String userId) {
+        return workRepository.save(Work.builder()
+                .userId(userId)
+                .title("Work")
+                .isPublic(true)
+                .likesCount(0)
+                .build()).getId();
+    }
+
+    private Episode episode(String workId, int number) {
+        return Episode.builder()
+                .workId(workId)
+                .episodeNumber(number)
+                .title("Episode " + number)
+                .novelText("Text " + number)
+                .isFree(false)
+                .coinPrice(10)
+                .status("COMPLETED")
+                .build();
+    }
 }
@@ -1,12 +1,21 @@
 package com.aigo.repository;
 
+import com.aigo.dto.work.GalleryItemResponse;
+import com.aigo.entity.Episode;
+import com.aigo.entity.Like;
+import com.aigo.entity.User;
 import com.aigo.entity.Work;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,12 +28,30 @@ class WorkRepositoryTest {
     @Autowired
     private WorkRepository workRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Work testWork;
     private String userId;
 
     @BeforeEach
     void setUp() {
-        userId = "user123";
+        User user = userRepository.save(User.builder()
+                .username("author")
+                .email("author@example.com")
+                .passwordHash("hashedpassword")
+                .avatarUrl("http://example.com/avatar.png")
+                .build());
+        userId = user.getId();
         testWork = Work.builder()
                 .userId(userId)
                 .title("Test Work")
@@ -131,4 +158,120 @@ class WorkRepositoryTest {
 
         assertFalse(workRepository.findById(workId).isPresent());
     }
+
+    @Test
+    void testFindGalleryItemsProjection() {
+        Work saved = workRepository.save(testWork);
+        workRepository.save(Work.builder()
+                .userId(userId)
+                .title("Private Work")
+                .isPublic(false)
+                .build());
+        episodeRepository.save(episode(saved.getId(), 1, true));
+        episodeRepository.save(episode(saved.getId(), 2, true));
+        episodeRepository.save(episode(saved.getId(), 3, false));
+
+        List<GalleryItemResponse> items = workRepository.findGalleryItemsOrderByCreatedAtDesc(PageRequest.of(0, 20));
+
+        assertEquals(1, items.size());
+        GalleryItemResponse item = items.get(0);
+        assertEquals(saved.getId(), item.getId());
+        assertEquals("Test Work", item.getTitle());
+        assertEquals(2, item.getEpisodeCount());
+        assertEquals("author", item.getAuthorName());
+        assertEquals("http://example.com/avatar.png", item.getAuthorAvatar());
+        assertFalse(item.getIsLiked());
+    }
+
+    @Test
+    void testFindGalleryItemsOrderByLikesCountDesc() {
+        testWork.setLikesCount(3);
+        workRepository.save(testWork);
+        workRepository.save(Work.builder()
+                .userId(userId)
+                .title("Popular Work")
+                .isPublic(true)
+                .likesCount(8)
+                .build());
+
+        List<GalleryItemResponse> items = workRepository.findGalleryItemsOrderByLikesCountDesc(PageRequest.of(0, 20));
+
+        assertEquals(2, items.size());
+        assertEquals("Popular Work", items.get(0).getTitle());
+        assertEquals(0, items.get(0).getEpisodeCount());
+    }
+
+    @Test
+    void testGalleryKeysetPagesByCreatedAtThenId() {
+        LocalDateTime sameTime = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            Work saved = workRepository.saveAndFlush(Work.builder()
+                    .userId(userId)
+                    .title("Work " + i)
+                    .isPublic(true)
+                    .build());
+            // 制造相同 createdAt，验证 id 作为并列时的次序键
+            jdbcTemplate.update("UPDATE works SET created_at = ? WHERE id = ?",
+                    i < 3 ? sameTime : sameTime.minusHours(i), saved.getId());
+        }
+
+        List<String> seen = new ArrayList<>();
+        List<GalleryItemResponse> page = workRepository.findGalleryItemsOrderByCreatedAtDesc(PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(item -> seen.add(item.getId()));
+            GalleryItemResponse last = page.get(page.size() - 1);
+            page = workRepository.findGalleryItemsCreatedBefore(last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        assertEquals(5, seen.size());
+        assertEquals(5, new HashSet<>(seen).size());
+    }
+
+    @Test
+    void testGalleryKeysetPagesByLikesCount() {
+        for (int likes : new int[]{5, 3, 3, 1}) {
+            workRepository.save(Work.builder()
+                    .userId(userId)
+                    .title("Likes " + likes)
+                    .isPublic(true)
+                    .likesCount(likes)
+                    .build());
+        }
+
+        List<GalleryItemResponse> first = workRepository.findGalleryItemsOrderByLikesCountDesc(PageRequest.of(0, 2));
+        GalleryItemResponse last = first.get(1);
+        List<GalleryItemResponse> second = workRepository.findGalleryItemsLikesBelow(
+                last.getLikesCount(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(5, 3), first.stream().map(GalleryItemResponse::getLikesCount).toList());
+        assertEquals(List.of(3, 1), second.stream().map(GalleryItemResponse::getLikesCount).toList());
+        assertNotEquals(last.getId(), second.get(0).getId());
+    }
+
+    @Test
+    void testFindFavoriteItemsOnlyReturnsLikedWorks() {
+        Work liked = workRepository.save(testWork);
+        workRepository.save(Work.builder()
+                .userId(userId)
+                .title("Not Liked")
+                .isPublic(true)
+                .build());
+        likeRepository.save(Like.builder().userId(userId).workId(liked.getId()).build());
+
+        List<GalleryItemResponse> items = workRepository.findFavoriteItems(userId, PageRequest.of(0, 20));
+
+        assertEquals(1, items.size());
+        assertEquals(liked.getId(), items.get(0).getId());
+        assertEquals("author", items.get(0).getAuthorName());
+    }
+
+    private Episode episode(String workId, int number, boolean published) {
+        return Episode.builder()
+                .workId(workId)
+                .episodeNumber(number)
+                .title("Episode " + number)
+                .novelText("novel text")
+                .isPublished(published)
+                .build();
+    }
 }
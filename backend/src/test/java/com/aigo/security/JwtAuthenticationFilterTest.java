@@ -0,0 +1,28 @@
+package com.aigo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    @Test
+    void testSimulatorPathsFilteredOutsideSimulatorProfile() {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(null, new ObjectMapper(), new MockEnvironment());
+
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/simulator/v1/chat/completions")));
+    }
+
+    @Test
+    void testSimulatorPathsSkippedUnderSimulatorProfile() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("simulator");
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(null, new ObjectMapper(), environment);
+
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/simulator/v1/chat/completions")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/works")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.aigo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个已认证请求的令牌处理开销
+ * legacyRequest 还原改造前的路径：过滤器 extractUsername + validateToken 解析三次，
+ * 控制器再解析一次取 userId，每次解析都重新派生密钥、构建解析器；
+ * cachedRequest 为现在的路径：复用解析器，整个请求只解析一次
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "aigo-secret-key-for-jwt-token-generation-must-be-at-least-256-bits";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86400000L);
+        token = jwtUtil.generateToken("benchmark", Map.of("userId", "user-1", "email", "bench@example.com"));
+    }
+
+    @Benchmark
+    public String legacyRequest() {
+        String username = legacyClaims().getSubject();
+        boolean valid = username.equals(legacyClaims().getSubject())
+                && !legacyClaims().getExpiration().before(new java.util.Date());
+        return valid ? legacyClaims().get("userId", String.class) : null;
+    }
+
+    @Benchmark
+    public String cachedRequest() {
+        return jwtUtil.parse(token).getUserId();
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -1,6 +1,8 @@
 package com.aigo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -87,4 +89,30 @@ class JwtUtilTest {
         assertTrue(jwtUtil.validateToken(token, testUsername));
         assertFalse(jwtUtil.validateToken(token, "wronguser"));
     }
+
+    @Test
+    void testParseReturnsPrincipal() {
+        String token = jwtUtil.generateToken(testUsername, testClaims);
+        JwtPrincipal principal = jwtUtil.parse(token);
+        
+        assertEquals("123", principal.getUserId());
+        assertEquals(testUsername, principal.getUsername());
+        assertEquals("test@example.com", principal.getEmail());
+    }
+
+    @Test
+    void testParseRejectsExpiredToken() {
+        JwtUtil expiring = new JwtUtil("test-secret-key-for-testing-purposes-only-minimum-256-bits-required", -1000);
+        String token = expiring.generateToken(testUsername, testClaims);
+        
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parse(token));
+    }
+
+    @Test
+    void testParseRejectsTokenSignedWithOtherKey() {
+        JwtUtil other = new JwtUtil("another-secret-key-for-jwt-token-generation-at-least-256-bits", 86400000);
+        String token = other.generateToken(testUsername, testClaims);
+        
+        assertThrows(JwtException.class, () -> jwtUtil.parse(token));
+    }
 }
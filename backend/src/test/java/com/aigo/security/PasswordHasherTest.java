@@ -0,0 +1,46 @@
+package com.aigo.security;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), new SyncTaskExecutor());
+
+    @Test
+    void testEncodeAndMatches() {
+        String hash = hasher.encode("password123").join();
+
+        assertTrue(hasher.matches("password123", hash).join());
+        assertFalse(hasher.matches("wrong", hash).join());
+        assertFalse(hasher.needsRehash(hash));
+    }
+
+    @Test
+    void testWeakerHashNeedsRehash() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        String strongHash = new BCryptPasswordEncoder(6).encode("password123");
+
+        assertTrue(hasher.needsRehash(weakHash));
+        assertFalse(hasher.needsRehash(strongHash));
+        assertTrue(hasher.matches("password123", weakHash).join());
+    }
+
+    @Test
+    void testFullQueueFailsFast() {
+        PasswordHasher saturated = new PasswordHasher(new BCryptPasswordEncoder(5), task -> {
+            throw new TaskRejectedException("queue full");
+        });
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> saturated.matches("password123", "hash"));
+
+        assertEquals(ErrorCode.RATE_LIMIT_EXCEEDED, exception.getErrorCode());
+    }
+}
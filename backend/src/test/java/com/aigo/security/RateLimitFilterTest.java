@@ -0,0 +1,122 @@
+package com.aigo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("aigo.rate-limit.novel-parse.permits-per-minute", "1")
+                .withProperty("aigo.rate-limit.novel-parse.burst", "2")
+                .withProperty("aigo.rate-limit.episode-generation.permits-per-minute", "1")
+                .withProperty("aigo.rate-limit.episode-generation.burst", "1");
+        filter = new RateLimitFilter(new ObjectMapper(), environment, nanoClock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testAnonymousCallerLimitedByIp() throws Exception {
+        assertEquals(200, perform("POST", "/api/novel/parse", "10.0.0.1").getStatus());
+        assertEquals(200, perform("POST", "/api/novel/parse", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = perform("POST", "/api/novel/parse", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("RATE_LIMIT_EXCEEDED"));
+        assertEquals(200, perform("POST", "/api/novel/parse", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void testAuthenticatedCallerLimitedByUserId() throws Exception {
+        authenticate("user1");
+        assertEquals(200, perform("POST", "/api/works/w1/episodes", "10.0.0.1").getStatus());
+        assertEquals(429, perform("POST", "/api/episodes/e1/retry", "10.0.0.2").getStatus());
+
+        authenticate("user2");
+        assertEquals(200, perform("POST", "/api/works/w1/episodes", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testUnlimitedRoutesPassThrough() throws Exception {
+        authenticate("user1");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("GET", "/api/works/w1/episodes", "10.0.0.1").getStatus());
+            assertEquals(200, perform("GET", "/api/novel/parse/job1", "10.0.0.1").getStatus());
+        }
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    void testGroupsAreIndependent() throws Exception {
+        authenticate("user1");
+        assertEquals(200, perform("POST", "/api/works/w1/episodes", "10.0.0.1").getStatus());
+        assertEquals(429, perform("POST", "/api/works/w1/episodes", "10.0.0.1").getStatus());
+
+        assertEquals(200, perform("POST", "/api/novel/parse", "10.0.0.1").getStatus());
+        assertEquals(200, perform("POST", "/api/characters/1/generate-image", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testIdleBucketsArePurgedOnceRefilled() throws Exception {
+        perform("POST", "/api/novel/parse", "10.0.0.1");
+        authenticate("user1");
+        perform("POST", "/api/works/w1/episodes", "10.0.0.1");
+        assertEquals(2, filter.bucketCount());
+
+        // episode-generation 补满 1 个令牌需要 60 秒，novel-parse 补满 2 个需要 120 秒
+        nanoClock.set(61_000_000_000L);
+        filter.purgeIdleBuckets();
+        assertEquals(1, filter.bucketCount());
+
+        nanoClock.set(121_000_000_000L);
+        filter.purgeIdleBuckets();
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    void testDisabled() throws Exception {
+        filter = new RateLimitFilter(new ObjectMapper(),
+                new MockEnvironment().withProperty("aigo.rate-limit.enabled", "false"), nanoClock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("POST", "/api/novel/parse", "10.0.0.1").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String userId) {
+        JwtPrincipal principal = new JwtPrincipal(userId, userId, null, null, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.aigo.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(jwtUtil, 100, clock::get);
+    }
+
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        when(jwtUtil.parse("token-a")).thenReturn(principal("user1", NOW, NOW + HOUR));
+
+        JwtPrincipal first = cache.verify("token-a");
+        JwtPrincipal second = cache.verify("token-a");
+
+        assertSame(first, second);
+        verify(jwtUtil, times(1)).parse("token-a");
+        TokenCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testEntryExpiresWithToken() {
+        when(jwtUtil.parse("token-a"))
+                .thenReturn(principal("user1", NOW, NOW + HOUR))
+                .thenThrow(new ExpiredJwtException(null, null, "expired"));
+        cache.verify("token-a");
+
+        clock.set(NOW + HOUR);
+
+        assertThrows(ExpiredJwtException.class, () -> cache.verify("token-a"));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() {
+        when(jwtUtil.parse("forged")).thenThrow(new JwtException("bad signature"));
+
+        assertThrows(JwtException.class, () -> cache.verify("forged"));
+        assertThrows(JwtException.class, () -> cache.verify("forged"));
+
+        verify(jwtUtil, times(2)).parse("forged");
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        cache = new VerifiedTokenCache(jwtUtil, 16, clock::get);
+        when(jwtUtil.parse(anyString())).thenAnswer(invocation -> principal("user1", NOW, NOW + HOUR));
+
+        for (int i = 0; i < 200; i++) {
+            cache.verify("token-" + i);
+        }
+
+        TokenCacheStats stats = cache.getStats();
+        assertTrue(stats.getSize() <= 16);
+        assertEquals(200 - stats.getSize(), stats.getEvictions());
+    }
+
+    @Test
+    void testRevokedTokenIsRejectedBeforeExpiry() {
+        when(jwtUtil.parse("token-a")).thenReturn(principal("user1", NOW, NOW + HOUR));
+        when(jwtUtil.parse("token-b")).thenReturn(principal("user1", NOW, NOW + HOUR));
+        cache.verify("token-a");
+
+        cache.revoke("token-a");
+
+        assertThrows(JwtException.class, () -> cache.verify("token-a"));
+        assertEquals("user1", cache.verify("token-b").getUserId());
+        assertEquals(1, cache.getStats().getRevokedTokens());
+    }
+
+    @Test
+    void testRevokeUserRejectsEarlierTokensOnly() {
+        when(jwtUtil.parse("old")).thenReturn(principal("user1", NOW - 60_000, NOW + HOUR));
+        when(jwtUtil.parse("other-user")).thenReturn(principal("user2", NOW - 60_000, NOW + HOUR));
+        when(jwtUtil.parse("new")).thenReturn(principal("user1", NOW + 1_000, NOW + HOUR));
+        cache.verify("old");
+
+        cache.revokeUser("user1");
+
+        assertThrows(JwtException.class, () -> cache.verify("old"));
+        assertEquals("user2", cache.verify("other-user").getUserId());
+        clock.set(NOW + 1_000);
+        assertEquals("user1", cache.verify("new").getUserId());
+    }
+
+    @Test
+    void testPurgeDropsExpiredEntriesAndRevocations() {
+        when(jwtUtil.getExpiration()).thenReturn(HOUR);
+        when(jwtUtil.parse("short")).thenReturn(principal("user1", NOW, NOW + 1_000));
+        when(jwtUtil.parse("long")).thenReturn(principal("user1", NOW, NOW + HOUR));
+        cache.verify("short");
+        cache.verify("long");
+        cache.revoke("short");
+        cache.revokeUser("user2");
+
+        clock.set(NOW + HOUR);
+        cache.purgeExpired();
+
+        TokenCacheStats stats = cache.getStats();
+        assertEquals(0, stats.getSize());
+        assertEquals(0, stats.getRevokedTokens());
+        assertEquals(0, stats.getRevokedUsers());
+    }
+
+    private static JwtPrincipal principal(String userId, long issuedAt, long expiresAt) {
+        return new JwtPrincipal(userId, userId + "-name", userId + "@example.com",
+                Instant.ofEpochMilli(issuedAt), Instant.ofEpochMilli(expiresAt));
+    }
+}
@@ -1,5 +1,6 @@
 package com.aigo.service;
 
+import com.aigo.dto.ErrorCode;
 import com.aigo.dto.auth.AuthResponse;
 import com.aigo.dto.auth.LoginRequest;
 import com.aigo.dto.auth.RegisterRequest;
@@ -7,16 +8,19 @@ import com.aigo.entity.User;
 import com.aigo.exception.BusinessException;
 import com.aigo.repository.UserRepository;
 import com.aigo.security.JwtUtil;
+import com.aigo.security.PasswordHasher;
+import com.aigo.security.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,11 +33,17 @@ class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private CoinService coinService;
+
+    @Mock
+    private VerifiedTokenCache tokenCache;
+
     @InjectMocks
     private AuthService authService;
 
@@ -66,11 +76,11 @@ class AuthServiceTest {
     void testRegisterSuccess() {
         when(userRepository.existsByUsername(anyString())).thenReturn(false);
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("hashedpassword");
+        when(passwordHasher.encode(anyString())).thenReturn(CompletableFuture.completedFuture("hashedpassword"));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("test-token");
 
-        AuthResponse response = authService.register(registerRequest);
+        AuthResponse response = authService.register(registerRequest).join();
 
         assertNotNull(response);
         assertEquals("test-token", response.getToken());
@@ -108,19 +118,22 @@ class AuthServiceTest {
     @Test
     void testLoginSuccess() {
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(true));
         when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("test-token");
+        when(coinService.getBalance("user123")).thenReturn(80);
 
-        AuthResponse response = authService.login(loginRequest);
+        AuthResponse response = authService.login(loginRequest).join();
 
         assertNotNull(response);
         assertEquals("test-token", response.getToken());
         assertNotNull(response.getUser());
         assertEquals("testuser", response.getUser().getUsername());
+        assertEquals(80, response.getUser().getCoinBalance());
 
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches("password123", "hashedpassword");
+        verify(passwordHasher).matches("password123", "hashedpassword");
         verify(jwtUtil).generateToken(eq("testuser"), anyMap());
+        verify(passwordHasher, never()).encode(anyString());
     }
 
     @Test
@@ -130,18 +143,62 @@ class AuthServiceTest {
         assertThrows(BusinessException.class, () -> authService.login(loginRequest));
 
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(passwordHasher, never()).matches(anyString(), anyString());
     }
 
     @Test
     void testLoginWithInvalidPassword() {
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(false));
 
-        assertThrows(BusinessException.class, () -> authService.login(loginRequest));
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> authService.login(loginRequest).join());
 
+        assertInstanceOf(BusinessException.class, exception.getCause());
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches("password123", "hashedpassword");
+        verify(passwordHasher).matches("password123", "hashedpassword");
         verify(jwtUtil, never()).generateToken(anyString(), anyMap());
     }
+
+    @Test
+    void testLoginUpgradesOutdatedHash() {
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordHasher.needsRehash("hashedpassword")).thenReturn(true);
+        when(passwordHasher.encode("password123")).thenReturn(CompletableFuture.completedFuture("strongerhash"));
+        when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("test-token");
+
+        authService.login(loginRequest).join();
+
+        verify(userRepository).updatePasswordHash("user123", "hashedpassword", "strongerhash");
+    }
+
+    @Test
+    void testLoginSucceedsWhenRehashIsRejected() {
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordHasher.needsRehash("hashedpassword")).thenReturn(true);
+        when(passwordHasher.encode("password123"))
+                .thenThrow(new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED, "登录请求过多，请稍后重试"));
+        when(jwtUtil.generateToken(anyString(), anyMap())).thenReturn("test-token");
+
+        AuthResponse response = authService.login(loginRequest).join();
+
+        assertEquals("test-token", response.getToken());
+        verify(userRepository, never()).updatePasswordHash(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testLogoutRevokesToken() {
+        authService.logout("test-token");
+
+        verify(tokenCache).revoke("test-token");
+    }
+
+    @Test
+    void testLogoutAllRevokesUserTokens() {
+        authService.logoutAll("user123");
+
+        verify(tokenCache).revokeUser("user123");
+    }
 }
@@ -0,0 +1,35 @@
+package com.aigo.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传前 base64 图片的解码开销，每张场景图和立绘各一次
+ * 输入为带 data URI 前缀的图片，默认 1 MB；分配速率反映解码过程中额外复制的字符串和字节数组
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64DecodeBenchmark {
+
+    @Param({"1048576"})
+    public int imageBytes;
+
+    private QiniuStorageService qiniuStorageService;
+    private String base64Image;
+
+    @Setup
+    public void setUp() {
+        qiniuStorageService = new QiniuStorageService();
+        base64Image = BenchmarkFixtures.base64Image(imageBytes);
+    }
+
+    @Benchmark
+    public byte[] decodeBase64Image() {
+        return qiniuStorageService.decodeBase64Image(base64Image);
+    }
+}
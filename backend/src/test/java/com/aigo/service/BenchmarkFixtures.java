@@ -0,0 +1,144 @@
+package com.aigo.service;
+
+import com.aigo.entity.CharacterEntity;
+import com.aigo.model.AnimeSegment;
+import com.aigo.model.Character;
+import com.aigo.model.Scene;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用的固定输入，按线上典型规模构造：长篇中文小说、50 个场景的模型响应、1 MB 的 base64 图片
+ * 使用固定随机种子，每次运行输入相同
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] NAMES = {"林晓", "陈默", "苏婉", "老周", "小雨"};
+
+    /**
+     * 前两个命中年龄关键词直接返回，后三个没有关键词，会走到按“数字+岁”匹配的正则分支
+     */
+    private static final String[] DESCRIPTIONS = {
+            "20岁，性格内敛的青年",
+            "30岁，热情开朗的上班族",
+            "45岁的家庭主妇，爱操心",
+            "65岁的退休教师，说话慢条斯理",
+            "17岁的高中生，性格安静",
+    };
+
+    private static final String[] PARAGRAPHS = {
+            "夜色渐深，街道两旁的路灯一盏盏亮起。林晓裹紧了外套，站在咖啡馆门口犹豫了很久，终于推门走了进去。",
+            "“你来了。”陈默抬起头，放下手中的书，目光在她脸上停留了片刻，“比我想象的要晚一些。”",
+            "我没有回答，只是在他对面坐下。窗外下起了小雨，玻璃上的水痕把霓虹灯拉成一条条模糊的光带。",
+            "苏婉从厨房里探出头来，围裙上还沾着面粉：“你们俩又在打什么哑谜？菜马上就好，谁也别想溜。”",
+            "老周背着手站在院子里，望着那棵种了三十多年的老槐树，叹了口气：“明年开春，这树怕是保不住了。”",
+            "教室里安静得只剩下翻书的声音。小雨偷偷把纸条塞进前排同学的笔袋，脸一下子红到了耳根。",
+    };
+
+    private static final String[] VISUALS = {
+            "昏暗的房间里，台灯投下温暖的光圈，角色侧身坐在书桌前",
+            "雨夜的街道，霓虹灯倒映在积水中，角色撑着透明雨伞",
+            "阳光明媚的学校教室，窗外是摇曳的梧桐树",
+            "公园的长椅上落满银杏叶，远处有孩子在放风筝",
+            "咖啡馆靠窗的位置，桌上摆着两杯冒着热气的拿铁",
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    static String novelText(int minChars) {
+        StringBuilder text = new StringBuilder(minChars + 128);
+        int i = 0;
+        while (text.length() < minChars) {
+            text.append(PARAGRAPHS[i % PARAGRAPHS.length]).append("\n\n");
+            i++;
+        }
+        return text.toString();
+    }
+
+    static List<Character> characters() {
+        List<Character> characters = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            Character character = new Character();
+            character.setName(NAMES[i]);
+            character.setDescription(DESCRIPTIONS[i]);
+            character.setAppearance("黑色短发，身材匀称，穿着干净利落");
+            character.setPersonality("外冷内热，做事认真");
+            character.setGender(i % 2 == 0 ? "female" : "male");
+            character.setBodyType("中等身高，体型匀称");
+            character.setFacialFeatures("杏仁眼，深棕色瞳孔，鼻梁挺直，嘴唇偏薄");
+            character.setClothingStyle("浅色衬衫配深色长裤");
+            character.setDistinguishingFeatures("左手腕戴着一块旧手表");
+            characters.add(character);
+        }
+        return characters;
+    }
+
+    static List<CharacterEntity> workCharacters() {
+        List<CharacterEntity> entities = new ArrayList<>();
+        for (Character character : characters()) {
+            CharacterEntity entity = new CharacterEntity();
+            entity.setName(character.getName());
+            entity.setDescription(character.getDescription());
+            entity.setAppearance(character.getAppearance());
+            entity.setPersonality(character.getPersonality());
+            entity.setGender(character.getGender());
+            entity.setHairColor("黑色");
+            entity.setHairType("齐耳短发");
+            entity.setEyeColor("深棕色");
+            entity.setEyeType("杏仁眼");
+            entity.setFaceShape("鹅蛋脸");
+            entity.setSkinTone("白皙");
+            entity.setBodyType(character.getBodyType());
+            entity.setHeight("165cm");
+            entity.setClothingStyle(character.getClothingStyle());
+            entity.setDistinguishingFeatures(character.getDistinguishingFeatures());
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    static List<Scene> scenes(int count) {
+        List<Scene> scenes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Scene scene = new Scene();
+            scene.setSceneNumber(i + 1);
+            scene.setCharacter(NAMES[i % NAMES.length]);
+            scene.setDialogue(PARAGRAPHS[i % PARAGRAPHS.length]);
+            scene.setVisualDescription(VISUALS[i % VISUALS.length]);
+            scene.setAtmosphere(i % 2 == 0 ? "温馨而略带忧伤" : "紧张中透着期待");
+            scene.setAction("角色缓缓抬头，看向画面外的某处");
+            scenes.add(scene);
+        }
+        return scenes;
+    }
+
+    /**
+     * 模拟大模型的原始输出：前面有一段说明文字，JSON 包在 markdown 代码块中并带缩进
+     */
+    static String modelResponse(int sceneCount) {
+        AnimeSegment segment = new AnimeSegment();
+        segment.setCharacters(characters());
+        segment.setScenes(scenes(sceneCount));
+        segment.setPlotSummary(PARAGRAPHS[0] + PARAGRAPHS[2]);
+        segment.setGenre("都市情感");
+        segment.setMood("温暖治愈");
+        try {
+            String json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(segment);
+            return "好的，以下是根据小说文本整理的动漫脚本：\n\n```json\n" + json + "\n```\n\n如需调整分镜请告诉我。";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String base64Image(int bytes) {
+        byte[] data = new byte[bytes];
+        new Random(42).nextBytes(data);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(data);
+    }
+}
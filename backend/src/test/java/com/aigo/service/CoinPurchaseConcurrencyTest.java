@@ -0,0 +1,230 @@
+package com.aigo.service;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.entity.CoinTransaction;
+import com.aigo.entity.Episode;
+import com.aigo.entity.User;
+import com.aigo.entity.Work;
+import com.aigo.exception.BusinessException;
+import com.aigo.repository.CoinBalanceSnapshotRepository;
+import com.aigo.repository.CoinTransactionRepository;
+import com.aigo.repository.EpisodeRepository;
+import com.aigo.repository.PurchaseRepository;
+import com.aigo.repository.UserRepository;
+import com.aigo.repository.WorkRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 购买并发测试：余额不足以买下全部集数时并发购买，以及同一集并发重复购买，
+ * 余额不能为负、不能重复扣费，流水与余额一致；充值与购买交错时快照推进前后余额不变
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CoinPurchaseConcurrencyTest {
+
+    private static final int EPISODES = 10;
+    private static final int PRICE = 10;
+
+    @Autowired
+    private EpisodeService episodeService;
+
+    @Autowired
+    private CoinService coinService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CoinBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkRepository workRepository;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private CoinTransactionRepository coinTransactionRepository;
+
+    private String authorId;
+    private String buyerId;
+    private String workId;
+    private final List<String> episodeIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        authorId = saveUser("author", 0);
+        buyerId = saveUser("buyer", 55);
+        workId = workRepository.save(Work.builder()
+                .userId(authorId)
+                .title("Paid Work")
+                .isPublic(true)
+                .likesCount(0)
+                .build()).getId();
+        for (int i = 1; i <= EPISODES; i++) {
+            episodeIds.add(episodeRepository.save(Episode.builder()
+                    .workId(workId)
+                    .episodeNumber(i)
+                    .title("Episode " + i)
+                    .novelText("Text " + i)
+                    .isFree(false)
+                    .coinPrice(PRICE)
+                    .isPublished(true)
+                    .status("COMPLETED")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        coinTransactionRepository.deleteAll(coinTransactionRepository.findByUserIdOrderByCreatedAtDesc(buyerId));
+        snapshotRepository.deleteAllById(List.of(buyerId));
+        purchaseRepository.deleteAll(purchaseRepository.findAll().stream()
+                .filter(purchase -> buyerId.equals(purchase.getUserId()))
+                .toList());
+        episodeRepository.deleteAllById(episodeIds);
+        workRepository.deleteById(workId);
+        userRepository.deleteAllById(List.of(authorId, buyerId));
+    }
+
+    @Test
+    void testConcurrentPurchasesNeverOverdraw() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String episodeId : episodeIds) {
+            tasks.add(() -> {
+                episodeService.purchaseEpisode(buyerId, episodeId);
+                return null;
+            });
+        }
+
+        List<ErrorCode> failures = runConcurrently(tasks);
+
+        int balance = coinService.getBalance(buyerId);
+        List<CoinTransaction> ledger = coinTransactionRepository.findByUserIdOrderByCreatedAtDesc(buyerId);
+        assertEquals(5, purchaseCount());
+        assertEquals(5, balance);
+        assertEquals(5, ledger.size());
+        assertEquals(-50, ledger.stream().mapToInt(CoinTransaction::getAmount).sum());
+        assertEquals(5, failures.size());
+        assertTrue(failures.stream().allMatch(ErrorCode.INSUFFICIENT_COINS::equals));
+    }
+
+    @Test
+    void testConcurrentDuplicatePurchaseChargesOnce() throws Exception {
+        String episodeId = episodeIds.get(0);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> {
+                episodeService.purchaseEpisode(buyerId, episodeId);
+                return null;
+            });
+        }
+
+        List<ErrorCode> failures = runConcurrently(tasks);
+
+        assertEquals(1, purchaseCount());
+        assertEquals(45, coinService.getBalance(buyerId));
+        assertEquals(1, coinTransactionRepository.findByUserIdOrderByCreatedAtDesc(buyerId).size());
+        assertEquals(7, failures.size());
+        assertTrue(failures.stream().allMatch(ErrorCode.ALREADY_PURCHASED::equals));
+    }
+
+    @Test
+    void testRechargeDuringPurchasesKeepsLedgerConsistent() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String episodeId : episodeIds) {
+            tasks.add(() -> {
+                episodeService.purchaseEpisode(buyerId, episodeId);
+                return null;
+            });
+        }
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> {
+                userService.rechargeCoins(buyerId, 10);
+                return null;
+            });
+        }
+
+        List<ErrorCode> failures = runConcurrently(tasks);
+
+        int balance = coinService.getBalance(buyerId);
+        int ledgerTotal = coinTransactionRepository.findByUserIdOrderByCreatedAtDesc(buyerId).stream()
+                .mapToInt(CoinTransaction::getAmount)
+                .sum();
+        assertTrue(balance >= 0);
+        assertEquals(55 + ledgerTotal, balance);
+        assertEquals(55 + 40 - (int) purchaseCount() * PRICE, balance);
+        assertEquals(EPISODES - purchaseCount(), failures.size());
+
+        coinService.refreshSnapshots();
+        assertEquals(balance, coinService.getBalance(buyerId));
+    }
+
+    /**
+     * 所有任务同时开始，返回以业务异常结束的任务的错误码
+     */
+    private List<ErrorCode> runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+
+        List<ErrorCode> failures = new ArrayList<>();
+        for (Future<Void> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BusinessException businessException)) {
+                    throw e;
+                }
+                failures.add(businessException.getErrorCode());
+            }
+        }
+        executor.shutdown();
+        return failures;
+    }
+
+    private long purchaseCount() {
+        return purchaseRepository.findAll().stream()
+                .filter(purchase -> buyerId.equals(purchase.getUserId()))
+                .count();
+    }
+
+    private String saveUser(String username, int coins) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("hashedpassword")
+                .coinBalance(coins)
+                .build()).getId();
+    }
+}
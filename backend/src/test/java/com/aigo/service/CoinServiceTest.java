@@ -0,0 +1,195 @@
+package com.aigo.service;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.entity.CoinBalanceSnapshot;
+import com.aigo.entity.CoinTransaction;
+import com.aigo.exception.BusinessException;
+import com.aigo.repository.CoinBalanceSnapshotRepository;
+import com.aigo.repository.CoinTransactionRepository;
+import com.aigo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoinServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final LocalDateTime SNAPSHOT_AS_OF = NOW.minusMinutes(10);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CoinTransactionRepository coinTransactionRepository;
+
+    @Mock
+    private CoinBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CoinService coinService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE);
+        coinService = new CoinService(userRepository, coinTransactionRepository, snapshotRepository,
+                transactionManager, Duration.ofSeconds(60), clock);
+    }
+
+    @Test
+    void testGetBalanceReadsSnapshotPlusTail() {
+        when(snapshotRepository.findById("user1")).thenReturn(Optional.of(snapshot(100)));
+        when(coinTransactionRepository.sumAmountSince("user1", SNAPSHOT_AS_OF)).thenReturn(-30L);
+
+        assertEquals(70, coinService.getBalance("user1"));
+        verify(userRepository, never()).findCoinBalanceById(any());
+    }
+
+    @Test
+    void testGetBalanceOpensSnapshotFromOpeningBalance() {
+        when(snapshotRepository.findById("user1")).thenReturn(Optional.empty());
+        when(userRepository.findCoinBalanceById("user1")).thenReturn(Optional.of(100));
+        when(snapshotRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(coinTransactionRepository.sumAmountSince("user1", NOW)).thenReturn(0L);
+
+        assertEquals(100, coinService.getBalance("user1"));
+        ArgumentCaptor<CoinBalanceSnapshot> opened = ArgumentCaptor.forClass(CoinBalanceSnapshot.class);
+        verify(snapshotRepository).saveAndFlush(opened.capture());
+        assertEquals(100, opened.getValue().getBalance());
+        assertEquals(NOW, opened.getValue().getAsOf());
+    }
+
+    @Test
+    void testConcurrentSnapshotOpenReadsExistingSnapshot() {
+        when(snapshotRepository.findById("user1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(snapshot(100)));
+        when(userRepository.findCoinBalanceById("user1")).thenReturn(Optional.of(100));
+        when(snapshotRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(coinTransactionRepository.sumAmountSince("user1", SNAPSHOT_AS_OF)).thenReturn(20L);
+
+        assertEquals(120, coinService.getBalance("user1"));
+    }
+
+    @Test
+    void testGetBalanceUnknownUser() {
+        when(snapshotRepository.findById("ghost")).thenReturn(Optional.empty());
+        when(userRepository.findCoinBalanceById("ghost")).thenReturn(Optional.empty());
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> coinService.getBalance("ghost"));
+
+        assertEquals(ErrorCode.NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    void testDebitAppendsLedgerEntry() {
+        when(snapshotRepository.findForUpdate("user1")).thenReturn(Optional.of(snapshot(100)));
+        when(coinTransactionRepository.sumAmountSince("user1", SNAPSHOT_AS_OF)).thenReturn(0L);
+
+        int balance = coinService.debit("user1", 30, CoinTransaction.TYPE_PURCHASE, "ep1");
+
+        assertEquals(70, balance);
+        ArgumentCaptor<CoinTransaction> entry = ArgumentCaptor.forClass(CoinTransaction.class);
+        verify(coinTransactionRepository).save(entry.capture());
+        assertEquals(-30, entry.getValue().getAmount());
+        assertEquals(CoinTransaction.TYPE_PURCHASE, entry.getValue().getType());
+        assertEquals("ep1", entry.getValue().getReferenceId());
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void testDebitInsufficientCoins() {
+        when(snapshotRepository.findForUpdate("user1")).thenReturn(Optional.of(snapshot(50)));
+        when(coinTransactionRepository.sumAmountSince("user1", SNAPSHOT_AS_OF)).thenReturn(-40L);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> coinService.debit("user1", 30, CoinTransaction.TYPE_PURCHASE, "ep1"));
+
+        assertEquals(ErrorCode.INSUFFICIENT_COINS, exception.getErrorCode());
+        assertEquals("金币不足，需要 30 金币，当前余额 10", exception.getMessage());
+        verify(coinTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void testDebitUnknownUser() {
+        when(snapshotRepository.findForUpdate("ghost")).thenReturn(Optional.empty());
+        when(userRepository.findCoinBalanceById("ghost")).thenReturn(Optional.empty());
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> coinService.debit("ghost", 30, CoinTransaction.TYPE_PURCHASE, "ep1"));
+
+        assertEquals(ErrorCode.NOT_FOUND, exception.getErrorCode());
+        verify(coinTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreditOnlyAppendsLedgerEntry() {
+        when(snapshotRepository.findById("user1")).thenReturn(Optional.of(snapshot(150)));
+        when(coinTransactionRepository.sumAmountSince("user1", SNAPSHOT_AS_OF)).thenReturn(100L);
+
+        int balance = coinService.credit("user1", 100, CoinTransaction.TYPE_RECHARGE, null);
+
+        assertEquals(250, balance);
+        verify(coinTransactionRepository).save(argThat(entry -> entry.getAmount() == 100));
+        verify(snapshotRepository, never()).findForUpdate(any());
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    @Test
+    void testRefreshSnapshotsFoldsEntriesBeforeCutoff() {
+        LocalDateTime cutoff = NOW.minusSeconds(60);
+        CoinBalanceSnapshot snapshot = snapshot(100);
+        when(coinTransactionRepository.findUserIdsWithEntriesBefore(cutoff)).thenReturn(List.of("user1"));
+        when(snapshotRepository.findForUpdate("user1")).thenReturn(Optional.of(snapshot));
+        when(coinTransactionRepository.sumAmountBetween("user1", SNAPSHOT_AS_OF, cutoff)).thenReturn(-25L);
+
+        coinService.refreshSnapshots();
+
+        verify(snapshotRepository).save(snapshot);
+        assertEquals(75, snapshot.getBalance());
+        assertEquals(cutoff, snapshot.getAsOf());
+    }
+
+    @Test
+    void testRefreshSnapshotsSkipsSnapshotAlreadyPastCutoff() {
+        LocalDateTime cutoff = NOW.minusSeconds(60);
+        CoinBalanceSnapshot snapshot = snapshot(100);
+        snapshot.setAsOf(NOW);
+        when(coinTransactionRepository.findUserIdsWithEntriesBefore(cutoff)).thenReturn(List.of("user1"));
+        when(snapshotRepository.findForUpdate("user1")).thenReturn(Optional.of(snapshot));
+
+        coinService.refreshSnapshots();
+
+        verify(coinTransactionRepository, never()).sumAmountBetween(any(), any(), any());
+        verify(snapshotRepository, never()).save(any());
+    }
+
+    private CoinBalanceSnapshot snapshot(int balance) {
+        return CoinBalanceSnapshot.builder()
+                .userId("user1")
+                .balance(balance)
+                .asOf(SNAPSHOT_AS_OF)
+                .version(3L)
+                .build();
+    }
+}
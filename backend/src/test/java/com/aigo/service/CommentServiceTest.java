@@ -1,27 +1,36 @@
 package com.aigo.service;
 
 import com.aigo.dto.ErrorCode;
+import com.aigo.dto.comment.CommentCursor;
+import com.aigo.dto.comment.CommentPageResponse;
 import com.aigo.dto.comment.CommentResponse;
 import com.aigo.dto.comment.CreateCommentRequest;
 import com.aigo.entity.Comment;
 import com.aigo.entity.User;
 import com.aigo.exception.BusinessException;
 import com.aigo.repository.CommentRepository;
+import com.aigo.repository.EpisodeRepository;
 import com.aigo.repository.UserRepository;
+import com.aigo.repository.WorkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +42,15 @@ class CommentServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private WorkRepository workRepository;
+
+    @Mock
+    private EpisodeRepository episodeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -59,42 +77,105 @@ class CommentServiceTest {
                 .build();
         testComment.setUser(testUser);
 
-        createRequest = CreateCommentRequest.builder()
-                .targetType("work")
-                .targetId("work1")
-                .content("测试评论")
-                .build();
+        createRequest = new CreateCommentRequest("work", "work1", "测试评论");
     }
 
     @Test
     void testGetComments_Success() {
-        when(commentRepository.findByTargetTypeAndTargetIdOrderByCreatedAtDesc("work", "work1"))
-                .thenReturn(Arrays.asList(testComment));
+        when(commentRepository.findPageByTarget(eq("work"), eq("work1"), any(Pageable.class)))
+                .thenReturn(List.of(commentResponse("comment1", LocalDateTime.now())));
+        when(workRepository.findCommentsCountById("work1")).thenReturn(Optional.of(1));
+
+        CommentPageResponse page = commentService.getComments("work", "work1", null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("comment1", page.getItems().get(0).getId());
+        assertEquals("testUser", page.getItems().get(0).getUsername());
+        assertEquals(1, page.getTotalCount());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+        verify(commentRepository).findPageByTarget(eq("work"), eq("work1"),
+                argThat(pageable -> pageable.getPageSize() == 21));
+    }
 
-        List<CommentResponse> comments = commentService.getComments("work", "work1");
+    @Test
+    void testGetComments_EmptyList() {
+        when(commentRepository.findPageByTarget(eq("work"), eq("work1"), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(workRepository.findCommentsCountById("work1")).thenReturn(Optional.of(0));
+
+        CommentPageResponse page = commentService.getComments("work", "work1", null, null);
 
-        assertNotNull(comments);
-        assertEquals(1, comments.size());
-        assertEquals("comment1", comments.get(0).getId());
-        assertEquals("测试评论", comments.get(0).getContent());
-        assertEquals("testUser", comments.get(0).getUsername());
-        verify(commentRepository).findByTargetTypeAndTargetIdOrderByCreatedAtDesc("work", "work1");
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(0, page.getTotalCount());
     }
 
     @Test
-    void testGetComments_EmptyList() {
-        when(commentRepository.findByTargetTypeAndTargetIdOrderByCreatedAtDesc("work", "work1"))
-                .thenReturn(Arrays.asList());
+    void testGetComments_HasMoreReturnsCursorOfLastItem() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CommentResponse> fetched = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            fetched.add(commentResponse("comment" + i, now.minusMinutes(i)));
+        }
+        when(commentRepository.findPageByTarget(eq("episode"), eq("ep1"), any(Pageable.class)))
+                .thenReturn(fetched);
+        when(episodeRepository.findCommentsCountById("ep1")).thenReturn(Optional.of(40));
+
+        CommentPageResponse page = commentService.getComments("episode", "ep1", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.getHasMore());
+        assertEquals(40, page.getTotalCount());
+        CommentCursor cursor = CommentCursor.decode(page.getNextCursor());
+        assertEquals("comment1", cursor.getId());
+        assertEquals(now.minusMinutes(1), cursor.getCreatedAt());
+    }
+
+    @Test
+    void testGetComments_WithCursorContinuesAfterLastItem() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        String cursor = new CommentCursor(createdAt, "comment9").encode();
+        when(commentRepository.findPageByTargetCreatedBefore(eq("work"), eq("work1"), eq(createdAt),
+                eq("comment9"), any(Pageable.class))).thenReturn(List.of());
+        when(workRepository.findCommentsCountById("work1")).thenReturn(Optional.of(9));
+
+        CommentPageResponse page = commentService.getComments("work", "work1", cursor, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(commentRepository, never()).findPageByTarget(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testGetComments_InvalidCursor() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> commentService.getComments("work", "work1", "not-a-cursor", null));
+
+        assertEquals(ErrorCode.BAD_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    void testGetComments_UppercaseTargetTypeQueriesLowercase() {
+        when(commentRepository.findPageByTarget(eq("work"), eq("work1"), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(workRepository.findCommentsCountById("work1")).thenReturn(Optional.of(0));
+
+        commentService.getComments("WORK", "work1", null, null);
+
+        verify(commentRepository).findPageByTarget(eq("work"), eq("work1"), any(Pageable.class));
+    }
 
-        List<CommentResponse> comments = commentService.getComments("work", "work1");
+    @Test
+    void testGetComments_UnsupportedTargetType() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> commentService.getComments("user", "user1", null, null));
 
-        assertNotNull(comments);
-        assertTrue(comments.isEmpty());
+        assertEquals(ErrorCode.BAD_REQUEST, exception.getErrorCode());
     }
 
     @Test
     void testCreateComment_Success() {
         when(userRepository.findById("user1")).thenReturn(Optional.of(testUser));
+        when(workRepository.incrementCommentsCount("work1")).thenReturn(1);
         when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
 
         CommentResponse response = commentService.createComment(createRequest, "user1");
@@ -105,29 +186,70 @@ class CommentServiceTest {
         assertEquals("testUser", response.getUsername());
         verify(userRepository).findById("user1");
         verify(commentRepository).save(any(Comment.class));
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testCreateComment_UppercaseTargetTypeCountsOnEpisode() {
+        CreateCommentRequest request = new CreateCommentRequest("EPISODE", "ep1", "测试评论");
+        when(userRepository.findById("user1")).thenReturn(Optional.of(testUser));
+        when(episodeRepository.incrementCommentsCount("ep1")).thenReturn(1);
+        when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
+
+        commentService.createComment(request, "user1");
+
+        verify(episodeRepository).incrementCommentsCount("ep1");
+        verify(workRepository, never()).incrementCommentsCount(anyString());
+        verify(commentRepository).save(argThat(comment -> "episode".equals(comment.getTargetType())));
+    }
+
+    @Test
+    void testCreateComment_TargetNotFound() {
+        when(userRepository.findById("user1")).thenReturn(Optional.of(testUser));
+        when(workRepository.incrementCommentsCount("work1")).thenReturn(0);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> commentService.createComment(createRequest, "user1"));
+
+        assertEquals(ErrorCode.NOT_FOUND, exception.getErrorCode());
+        assertEquals("评论对象不存在", exception.getMessage());
+        verify(commentRepository, never()).save(any(Comment.class));
     }
 
     @Test
     void testCreateComment_UserNotFound() {
         when(userRepository.findById("user1")).thenReturn(Optional.empty());
 
-        BusinessException exception = assertThrows(BusinessException.class, 
+        BusinessException exception = assertThrows(BusinessException.class,
                 () -> commentService.createComment(createRequest, "user1"));
 
         assertEquals(ErrorCode.NOT_FOUND, exception.getErrorCode());
         assertEquals("用户不存在", exception.getMessage());
         verify(userRepository).findById("user1");
         verify(commentRepository, never()).save(any(Comment.class));
+        verify(workRepository, never()).incrementCommentsCount(anyString());
     }
 
     @Test
     void testDeleteComment_Success() {
         when(commentRepository.findById("comment1")).thenReturn(Optional.of(testComment));
+        when(commentRepository.deleteComment("comment1")).thenReturn(1);
 
         commentService.deleteComment("comment1", "user1");
 
         verify(commentRepository).findById("comment1");
-        verify(commentRepository).delete(testComment);
+        verify(commentRepository).deleteComment("comment1");
+        verify(workRepository).decrementCommentsCount("work1");
+    }
+
+    @Test
+    void testDeleteComment_ConcurrentlyDeletedDoesNotDecrementTwice() {
+        when(commentRepository.findById("comment1")).thenReturn(Optional.of(testComment));
+        when(commentRepository.deleteComment("comment1")).thenReturn(0);
+
+        commentService.deleteComment("comment1", "user1");
+
+        verify(workRepository, never()).decrementCommentsCount(anyString());
     }
 
     @Test
@@ -140,7 +262,7 @@ class CommentServiceTest {
         assertEquals(ErrorCode.NOT_FOUND, exception.getErrorCode());
         assertEquals("评论不存在", exception.getMessage());
         verify(commentRepository).findById("comment1");
-        verify(commentRepository, never()).delete(any(Comment.class));
+        verify(commentRepository, never()).deleteComment(anyString());
     }
 
     @Test
@@ -153,6 +275,10 @@ class CommentServiceTest {
         assertEquals(ErrorCode.FORBIDDEN, exception.getErrorCode());
         assertEquals("无权限删除此评论", exception.getMessage());
         verify(commentRepository).findById("comment1");
-        verify(commentRepository, never()).delete(any(Comment.class));
+        verify(commentRepository, never()).deleteComment(anyString());
+    }
+
+    private CommentResponse commentResponse(String id, LocalDateTime createdAt) {
+        return new CommentResponse(id, "work", "work1", "user1", "testUser", "avatar.jpg", "测试评论", createdAt);
     }
 }
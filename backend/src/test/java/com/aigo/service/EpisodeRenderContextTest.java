@@ -0,0 +1,97 @@
+package com.aigo.service;
+
+import com.aigo.model.Scene;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpisodeRenderContextTest {
+
+    private final TextToImageService textToImageService = new TextToImageService(null, null, null, null, null);
+
+    @Test
+    void testSceneContextDoesNotLeakAcrossEpisodes() {
+        EpisodeRenderContext first = textToImageService.createRenderContext(Map.of("小明", "黑色短发，蓝色眼睛"), null);
+        EpisodeRenderContext second = textToImageService.createRenderContext(Map.of("小红", "金色长发，绿色眼睛"), null);
+
+        textToImageService.buildImagePrompt(scene(1, "小明", "小明在房间里看书"), first);
+        String firstFollowUp = textToImageService.buildImagePrompt(scene(2, "小明", "小明在房间里写字"), first);
+        String otherEpisode = textToImageService.buildImagePrompt(scene(1, "小红", "小红在房间里弹琴"), second);
+
+        assertTrue(firstFollowUp.contains("场景延续：保持相同的房间布局、装饰和光照"));
+        assertFalse(otherEpisode.contains("场景延续"));
+        assertFalse(otherEpisode.contains("黑色"));
+        assertTrue(otherEpisode.contains("金色"));
+    }
+
+    @Test
+    void testCharacterFragmentIsPrecomputedAndExistingEmbeddingWins() {
+        Map<String, Map<String, Object>> existing = new HashMap<>();
+        existing.put("小明", Map.of("hairColor", "银色", "strictFeatures", "银色头发"));
+        EpisodeRenderContext context = textToImageService.createRenderContext(
+                Map.of("小明", "黑发短发", "小红", "金发长发"), existing);
+
+        assertEquals("银色", context.getCharacter("小明").embedding().get("hairColor"));
+        assertTrue(context.getCharacter("小红").promptFragment().contains("发色必须为金发"));
+
+        String prompt = textToImageService.buildImagePrompt(scene(1, "小明", "小明走在街道上"), context);
+
+        assertTrue(prompt.contains("【关键约束 - 必须遵守】: 银色头发"));
+        assertTrue(prompt.contains(context.getCharacter("小明").promptFragment()));
+    }
+
+    @Test
+    void testUnknownCharacterAndMissingCharacter() {
+        EpisodeRenderContext context = textToImageService.createRenderContext(null, null);
+
+        String unknown = textToImageService.buildImagePrompt(scene(1, "路人", null), context);
+        String narration = textToImageService.buildImagePrompt(scene(2, null, null), context);
+
+        assertTrue(unknown.contains("角色：路人。"));
+        assertNotNull(context.getCharacter("路人"));
+        assertFalse(narration.contains("角色："));
+        assertFalse(narration.contains("null"));
+    }
+
+    @Test
+    void testConcurrentScenesShareOneContext() throws Exception {
+        EpisodeRenderContext context = textToImageService.createRenderContext(
+                Map.of("小明", "黑色短发，蓝色眼睛", "小红", "金色长发，绿色眼睛"), null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Scene scene = scene(i, i % 2 == 0 ? "小明" : "小红", i % 4 < 2 ? "在房间里" : "在公园里");
+                futures.add(CompletableFuture.supplyAsync(() -> textToImageService.buildImagePrompt(scene, context), executor));
+            }
+            List<String> prompts = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+            Set<String> fragments = prompts.stream()
+                    .filter(prompt -> prompt.contains("角色：黑色短发"))
+                    .map(prompt -> prompt.substring(prompt.indexOf("参考角色特征数据库"), prompt.indexOf("场景：")))
+                    .collect(Collectors.toSet());
+            assertEquals(1, fragments.size());
+            assertEquals(2, context.getSceneContextCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Scene scene(int sceneNumber, String character, String visualDescription) {
+        Scene scene = new Scene();
+        scene.setSceneNumber(sceneNumber);
+        scene.setCharacter(character);
+        scene.setVisualDescription(visualDescription);
+        return scene;
+    }
+}
@@ -0,0 +1,88 @@
+package com.aigo.service;
+
+import com.aigo.dto.episode.EpisodeListItem;
+import com.aigo.entity.Episode;
+import com.aigo.entity.User;
+import com.aigo.entity.Work;
+import com.aigo.repository.EpisodeRepository;
+import com.aigo.repository.UserRepository;
+import com.aigo.repository.WorkRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(EpisodeSceneCountBackfill.class)
+class EpisodeSceneCountBackfillTest {
+
+    @Autowired
+    private EpisodeSceneCountBackfill backfill;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkRepository workRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testBackfillFillsSceneCountFromScenes() {
+        String userId = userRepository.save(User.builder()
+                .username("author")
+                .email("author@example.com")
+                .passwordHash("hashedpassword")
+                .build()).getId();
+        String workId = workRepository.save(Work.builder()
+                .userId(userId)
+                .title("Legacy Work")
+                .build()).getId();
+        episodeRepository.save(episode(workId, 1, 3));
+        episodeRepository.save(episode(workId, 2, 0));
+        episodeRepository.saveAndFlush(episode(workId, 3, 5));
+        // 模拟新增列之前写入的集数
+        jdbcTemplate.update("UPDATE episodes SET scene_count = NULL WHERE episode_number <> 3");
+        jdbcTemplate.update("UPDATE episodes SET scene_count = 7 WHERE episode_number = 3");
+
+        backfill.backfill();
+
+        Map<Integer, Integer> sceneCounts = episodeRepository.findListItemsByWorkId(workId).stream()
+                .collect(Collectors.toMap(EpisodeListItem::getEpisodeNumber, EpisodeListItem::getSceneCount));
+        assertEquals(Map.of(1, 3, 2, 0, 3, 7), sceneCounts);
+        assertTrue(episodeRepository.findIdsWithoutSceneCount(PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static Episode episode(String workId, int episodeNumber, int scenes) {
+        List<Episode.SceneData> sceneData = new ArrayList<>();
+        for (int i = 0; i < scenes; i++) {
+            Episode.SceneData scene = new Episode.SceneData();
+            scene.setId(i + 1);
+            scene.setText("场景" + (i + 1));
+            sceneData.add(scene);
+        }
+        return Episode.builder()
+                .workId(workId)
+                .episodeNumber(episodeNumber)
+                .title("Episode " + episodeNumber)
+                .novelText("Text " + episodeNumber)
+                .scenes(sceneData)
+                .status("COMPLETED")
+                .build();
+    }
+}
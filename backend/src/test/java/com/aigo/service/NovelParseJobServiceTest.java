@@ -0,0 +1,113 @@
+package com.aigo.service;
+
+import com.aigo.dto.ErrorCode;
+import com.aigo.dto.novel.NovelParseJobResponse;
+import com.aigo.exception.BusinessException;
+import com.aigo.model.AnimeSegment;
+import com.aigo.model.NovelParseRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NovelParseJobServiceTest {
+
+    @Mock
+    private NovelParseService novelParseService;
+
+    private NovelParseRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new NovelParseRequest();
+        request.setText("小明和小红在公园里散步。");
+        request.setStyle("动漫风格");
+        request.setTargetAudience("青少年");
+    }
+
+    @Test
+    void testSubmit_CompletesAndReturnsResult() {
+        AnimeSegment segment = new AnimeSegment();
+        segment.setScenes(new ArrayList<>());
+        when(novelParseService.parseNovelText(anyString(), anyString(), anyString())).thenReturn(segment);
+        NovelParseJobService service = newService(new SyncTaskExecutor());
+
+        NovelParseJobResponse submitted = service.submit(request);
+        NovelParseJobResponse result = service.getJob(submitted.getJobId());
+
+        assertNotNull(submitted.getJobId());
+        assertEquals(NovelParseJobService.STATUS_COMPLETED, result.getStatus());
+        assertSame(segment, result.getResult());
+        assertNotNull(result.getCompletedAt());
+    }
+
+    @Test
+    void testSubmit_FailureRecordedOnJob() {
+        when(novelParseService.parseNovelText(anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("AI服务不可用"));
+        NovelParseJobService service = newService(new SyncTaskExecutor());
+
+        NovelParseJobResponse result = service.getJob(service.submit(request).getJobId());
+
+        assertEquals(NovelParseJobService.STATUS_FAILED, result.getStatus());
+        assertEquals("AI服务不可用", result.getError());
+        assertNull(result.getResult());
+    }
+
+    @Test
+    void testSubmit_PendingUntilExecuted() {
+        NovelParseJobService service = newService(task -> { });
+
+        NovelParseJobResponse submitted = service.submit(request);
+
+        assertEquals(NovelParseJobService.STATUS_PENDING, service.getJob(submitted.getJobId()).getStatus());
+    }
+
+    @Test
+    void testSubmit_QueueFull() {
+        NovelParseJobService service = newService(task -> {
+            throw new TaskRejectedException("full");
+        });
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.submit(request));
+
+        assertEquals(ErrorCode.RATE_LIMIT_EXCEEDED, e.getErrorCode());
+    }
+
+    @Test
+    void testGetJob_NotFound() {
+        NovelParseJobService service = newService(new SyncTaskExecutor());
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.getJob("missing"));
+
+        assertEquals(ErrorCode.NOT_FOUND, e.getErrorCode());
+    }
+
+    @Test
+    void testGetJob_ExpiredAfterTtl() {
+        when(novelParseService.parseNovelText(anyString(), anyString(), anyString())).thenReturn(new AnimeSegment());
+        NovelParseJobService service = newService(new SyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "jobTtlMinutes", -1L);
+
+        String jobId = service.submit(request).getJobId();
+
+        assertThrows(BusinessException.class, () -> service.getJob(jobId));
+    }
+
+    private NovelParseJobService newService(org.springframework.core.task.TaskExecutor executor) {
+        NovelParseJobService service = new NovelParseJobService(novelParseService, executor);
+        ReflectionTestUtils.setField(service, "jobTtlMinutes", 30L);
+        return service;
+    }
+}
@@ -0,0 +1,41 @@
+package com.aigo.service;
+
+import com.aigo.model.AnimeSegment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大模型响应的解析开销，每集生成各执行一次（别名识别的响应另走 extractJsonFromResponse）
+ * 输入为带说明文字和 markdown 代码块的多场景 JSON；分配速率见 gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NovelResponseParseBenchmark {
+
+    @Param({"10", "50"})
+    public int scenes;
+
+    private NovelParseService novelParseService;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        novelParseService = new NovelParseService();
+        response = BenchmarkFixtures.modelResponse(scenes);
+    }
+
+    @Benchmark
+    public String extractJsonFromResponse() {
+        return novelParseService.extractJsonFromResponse(response);
+    }
+
+    @Benchmark
+    public AnimeSegment parseResponse() {
+        return novelParseService.parseResponse(response);
+    }
+}
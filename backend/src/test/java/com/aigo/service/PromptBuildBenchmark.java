@@ -0,0 +1,87 @@
+package com.aigo.service;
+
+import com.aigo.entity.CharacterEntity;
+import com.aigo.model.Scene;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各阶段提示词的拼接开销
+ * 解析提示词每集一次，但包含整段小说原文；场景图提示词每个场景一次，一次调用覆盖一集 50 个场景（含创建出图上下文）；
+ * 角色立绘提示词每个新角色一次；年龄提取在拼接视频提示词时每个场景一次
+ * 小说长度可用 -p novelChars=50000 调整
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBuildBenchmark {
+
+    private static final int SCENES = 50;
+
+    @Param({"20000"})
+    public int novelChars;
+
+    private NovelParseService novelParseService;
+    private TextToImageService textToImageService;
+    private EpisodeAsyncService episodeAsyncService;
+
+    private String novelText;
+    private List<CharacterEntity> workCharacters;
+    private List<Scene> scenes;
+    private Map<String, String> characterAppearances;
+    private Map<String, Map<String, Object>> characterEmbeddings;
+
+    @Setup
+    public void setUp() {
+        novelParseService = new NovelParseService();
+        textToImageService = new TextToImageService(null, null, null, null, null);
+        episodeAsyncService = new EpisodeAsyncService(null, null, null, null, null, null, null);
+
+        novelText = BenchmarkFixtures.novelText(novelChars);
+        workCharacters = BenchmarkFixtures.workCharacters();
+        scenes = BenchmarkFixtures.scenes(SCENES);
+        characterAppearances = new HashMap<>();
+        characterEmbeddings = new HashMap<>();
+        for (CharacterEntity character : workCharacters) {
+            characterAppearances.put(character.getName(), character.getAppearance());
+            characterEmbeddings.put(character.getName(),
+                    textToImageService.extractCharacterEmbeddingFromEntity(character));
+        }
+    }
+
+    @Benchmark
+    public String parsePrompt() {
+        return novelParseService.buildPromptWithWorkCharacters(novelText, "日系治愈", "青少年", workCharacters);
+    }
+
+    @Benchmark
+    public void sceneImagePrompts(Blackhole blackhole) {
+        EpisodeRenderContext context = textToImageService.createRenderContext(characterAppearances, characterEmbeddings);
+        for (Scene scene : scenes) {
+            blackhole.consume(textToImageService.buildImagePrompt(scene, context));
+        }
+    }
+
+    @Benchmark
+    public void baseCharacterPrompts(Blackhole blackhole) {
+        for (CharacterEntity character : workCharacters) {
+            blackhole.consume(textToImageService.buildBaseCharacterPrompt(character));
+        }
+    }
+
+    @Benchmark
+    public void extractAgeInfo(Blackhole blackhole) {
+        for (int i = 0; i < scenes.size(); i++) {
+            CharacterEntity character = workCharacters.get(i % workCharacters.size());
+            blackhole.consume(episodeAsyncService.extractAgeInfo(character.getDescription()));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.aigo.service;
 
+import com.aigo.dto.ErrorCode;
 import com.aigo.dto.user.BalanceResponse;
 import com.aigo.entity.User;
 import com.aigo.exception.BusinessException;
@@ -11,7 +12,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -23,6 +23,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CoinService coinService;
+
     @InjectMocks
     private UserService userService;
 
@@ -42,22 +45,23 @@ class UserServiceTest {
 
     @Test
     void testGetBalance() {
-        when(userRepository.findById(anyString())).thenReturn(Optional.of(testUser));
+        when(coinService.getBalance(userId)).thenReturn(150);
 
         BalanceResponse response = userService.getBalance(userId);
 
         assertNotNull(response);
         assertEquals(150, response.getBalance());
 
-        verify(userRepository).findById(userId);
+        verify(coinService).getBalance(userId);
     }
 
     @Test
     void testGetBalanceUserNotFound() {
-        when(userRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(coinService.getBalance(anyString()))
+                .thenThrow(new BusinessException(ErrorCode.NOT_FOUND, "用户不存在"));
 
         assertThrows(BusinessException.class, () -> userService.getBalance(userId));
 
-        verify(userRepository).findById(userId);
+        verify(coinService).getBalance(userId);
     }
 }
@@ -1,11 +1,15 @@
 package com.aigo.service;
 
+import com.aigo.metrics.PipelineMetrics;
+import com.aigo.provider.ProviderGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,11 +19,15 @@ class VideoGenerationServiceTest {
     @Mock
     private QiniuStorageService qiniuStorageService;
 
+    @Mock
+    private ProviderGateway providerGateway;
+
     private VideoGenerationService videoGenerationService;
 
     @BeforeEach
     void setUp() {
-        videoGenerationService = new VideoGenerationService(qiniuStorageService);
+        videoGenerationService = new VideoGenerationService(qiniuStorageService, providerGateway, new RestTemplate(),
+                new PipelineMetrics(new SimpleMeterRegistry()));
         ReflectionTestUtils.setField(videoGenerationService, "apiKey", "demo-key");
         ReflectionTestUtils.setField(videoGenerationService, "baseUrl", "https://api.qnaigc.com");
         ReflectionTestUtils.setField(videoGenerationService, "modelName", "veo-3.0-fast-generate-001");
@@ -0,0 +1,159 @@
+package com.aigo.service;
+
+import com.aigo.dto.work.UpdateWorkRequest;
+import com.aigo.entity.Like;
+import com.aigo.entity.User;
+import com.aigo.entity.Work;
+import com.aigo.repository.LikeRepository;
+import com.aigo.repository.UserRepository;
+import com.aigo.repository.WorkRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 点赞并发测试：多个用户同时点赞同一作品，且每个用户重复点赞两次，点赞数不能丢失也不能多算；
+ * 修改作品与点赞、浏览量回写交错时，计数不能被修改作品时读到的旧值覆盖
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkLikeConcurrencyTest {
+
+    private static final int USERS = 30;
+
+    @Autowired
+    private WorkService workService;
+
+    @Autowired
+    private WorkRepository workRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> userIds = new ArrayList<>();
+    private String workId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userRepository.save(User.builder()
+                    .username("liker" + i)
+                    .email("liker" + i + "@example.com")
+                    .passwordHash("hashedpassword")
+                    .build()).getId());
+        }
+        workId = workRepository.save(Work.builder()
+                .userId(userIds.get(0))
+                .title("Viral Work")
+                .isPublic(true)
+                .likesCount(0)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        likeRepository.deleteAll(likeRepository.findAll().stream()
+                .filter(like -> workId.equals(like.getWorkId()))
+                .toList());
+        workRepository.deleteById(workId);
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void testConcurrentLikesAreNeitherLostNorDoubled() throws Exception {
+        LocalDateTime updatedAt = workRepository.findById(workId).orElseThrow().getUpdatedAt();
+
+        runConcurrently(userId -> workService.likeWork(userId, workId));
+
+        Work work = workRepository.findById(workId).orElseThrow();
+        assertEquals(USERS, work.getLikesCount());
+        assertEquals(USERS, countLikes());
+        assertEquals(updatedAt, work.getUpdatedAt());
+    }
+
+    @Test
+    void testConcurrentUnlikesAreNeitherLostNorDoubled() throws Exception {
+        userIds.forEach(userId -> workService.likeWork(userId, workId));
+
+        runConcurrently(userId -> workService.unlikeWork(userId, workId));
+
+        assertEquals(0, workRepository.findById(workId).orElseThrow().getLikesCount());
+        assertEquals(0, countLikes());
+    }
+
+    @Test
+    void testUpdateWorkDoesNotOverwriteConcurrentCounts() {
+        UpdateWorkRequest request = new UpdateWorkRequest();
+        request.setTitle("Renamed Work");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // 修改作品的事务先读到计数为 0 的作品，提交前另一个事务点赞并回写浏览量
+            assertEquals(0, workRepository.findById(workId).orElseThrow().getLikesCount());
+            CompletableFuture.runAsync(() -> {
+                workService.likeWork(userIds.get(1), workId);
+                jdbcTemplate.update("UPDATE works SET views_count = views_count + ? WHERE id = ?", 5, workId);
+            }).join();
+            workService.updateWork(userIds.get(0), workId, request);
+        });
+
+        Work work = workRepository.findById(workId).orElseThrow();
+        assertEquals("Renamed Work", work.getTitle());
+        assertEquals(1, work.getLikesCount());
+        assertEquals(5, work.getViewsCount());
+    }
+
+    /**
+     * 每个用户提交两次操作，所有任务同时开始
+     */
+    private void runConcurrently(Consumer<String> action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            for (String userId : userIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    action.accept(userId);
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private long countLikes() {
+        return likeRepository.findAll().stream().map(Like::getWorkId).filter(workId::equals).count();
+    }
+}
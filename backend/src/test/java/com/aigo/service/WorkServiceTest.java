@@ -1,14 +1,20 @@
 package com.aigo.service;
 
+import com.aigo.dto.CursorPage;
+import com.aigo.dto.episode.EpisodeListItem;
 import com.aigo.dto.work.CreateWorkRequest;
 import com.aigo.dto.work.GalleryItemResponse;
 import com.aigo.dto.work.UpdateWorkRequest;
+import com.aigo.dto.work.WorkCursor;
 import com.aigo.dto.work.WorkResponse;
-import com.aigo.entity.Episode;
 import com.aigo.entity.Work;
 import com.aigo.exception.BusinessException;
+import com.aigo.gallery.GalleryChangeEvent;
+import com.aigo.gallery.GalleryFeedCache;
+import com.aigo.gallery.TrendingService;
 import com.aigo.repository.EpisodeRepository;
 import com.aigo.repository.LikeRepository;
+import com.aigo.repository.PurchaseRepository;
 import com.aigo.repository.WorkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,10 +22,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +52,21 @@ class WorkServiceTest {
     @Mock
     private EpisodeRepository episodeRepository;
 
+    @Mock
+    private PurchaseRepository purchaseRepository;
+
+    @Mock
+    private GalleryFeedCache galleryFeedCache;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private WorkService workService;
 
@@ -84,7 +114,7 @@ class WorkServiceTest {
     @Test
     void testGetWork() {
         when(workRepository.findById(anyString())).thenReturn(Optional.of(testWork));
-        when(episodeRepository.findByWorkIdAndIsPublishedTrueOrderByEpisodeNumberAsc(anyString()))
+        when(episodeRepository.findPublishedListItemsByWorkId(anyString()))
                 .thenReturn(Arrays.asList());
         when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(false);
 
@@ -152,97 +182,304 @@ class WorkServiceTest {
 
     @Test
     void testGetMyWorks() {
-        when(workRepository.findByUserIdOrderByCreatedAtDesc(anyString()))
+        testWork.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(workRepository.findByUserIdOrderByCreatedAtDescIdDesc(anyString(), any(Pageable.class)))
                 .thenReturn(Arrays.asList(testWork));
-        when(episodeRepository.findByWorkIdOrderByEpisodeNumberAsc(anyString()))
+        when(episodeRepository.findListItemsByWorkIdIn(anyCollection()))
                 .thenReturn(Arrays.asList());
 
-        List<WorkResponse> responses = workService.getMyWorks(userId);
+        CursorPage<WorkResponse> page = workService.getMyWorks(userId, null, null);
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals("work123", responses.get(0).getId());
+        assertNotNull(page);
+        assertEquals(1, page.getItems().size());
+        assertEquals("work123", page.getItems().get(0).getId());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+
+        verify(workRepository).findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, 21));
+    }
+
+    @Test
+    void testGetMyWorksLoadsEpisodesInOneQuery() {
+        Work other = Work.builder().id("work456").userId(userId).title("Other").likesCount(0).build();
+        testWork.setCreatedAt(LocalDateTime.of(2024, 1, 2, 12, 0));
+        other.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(workRepository.findByUserIdOrderByCreatedAtDescIdDesc(anyString(), any(Pageable.class)))
+                .thenReturn(List.of(testWork, other));
+        when(episodeRepository.findListItemsByWorkIdIn(anyCollection()))
+                .thenReturn(List.of(
+                        episode("ep1", "work123", 1, true),
+                        episode("ep2", "work456", 1, true),
+                        episode("ep3", "work123", 2, true)));
+
+        CursorPage<WorkResponse> page = workService.getMyWorks(userId, null, null);
+
+        assertEquals(List.of("ep1", "ep3"), page.getItems().get(0).getEpisodes().stream().map(e -> e.getId()).toList());
+        assertEquals(List.of("ep2"), page.getItems().get(1).getEpisodes().stream().map(e -> e.getId()).toList());
+        verify(episodeRepository, times(1)).findListItemsByWorkIdIn(List.of("work123", "work456"));
+        verify(episodeRepository, never()).findByWorkIdOrderByEpisodeNumberAsc(anyString());
+    }
+
+    @Test
+    void testGetWorkLoadsPurchasesInOneQuery() {
+        testWork.setIsPublic(true);
+        when(workRepository.findByIdWithUser("work123")).thenReturn(Optional.of(testWork));
+        when(episodeRepository.findPublishedListItemsByWorkId("work123"))
+                .thenReturn(List.of(
+                        episode("ep1", "work123", 1, true),
+                        episode("ep2", "work123", 2, false),
+                        episode("ep3", "work123", 3, false)));
+        when(purchaseRepository.findPurchasedEpisodeIdsByWorkId("reader", "work123")).thenReturn(List.of("ep2"));
+
+        WorkResponse response = workService.getWork("work123", "reader");
+
+        assertFalse(response.getEpisodes().get(0).getIsPurchased());
+        assertTrue(response.getEpisodes().get(1).getIsPurchased());
+        assertFalse(response.getEpisodes().get(2).getIsPurchased());
+        verify(purchaseRepository, times(1)).findPurchasedEpisodeIdsByWorkId("reader", "work123");
+        verify(purchaseRepository, never()).existsByUserIdAndEpisodeId(anyString(), anyString());
+        verify(episodeRepository, never()).findByWorkIdAndIsPublishedTrueOrderByEpisodeNumberAsc(anyString());
+    }
+
+    @Test
+    void testGetWorkWithoutPaidEpisodesSkipsPurchaseLookup() {
+        testWork.setIsPublic(true);
+        when(workRepository.findByIdWithUser("work123")).thenReturn(Optional.of(testWork));
+        when(episodeRepository.findPublishedListItemsByWorkId("work123"))
+                .thenReturn(List.of(episode("ep1", "work123", 1, true)));
+
+        workService.getWork("work123", "reader");
 
-        verify(workRepository).findByUserIdOrderByCreatedAtDesc(userId);
+        verifyNoInteractions(purchaseRepository);
+    }
+
+    @Test
+    void testGetMyWorksContinuesFromCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        String cursor = WorkCursor.latest(createdAt, "work999").encode();
+        when(workRepository.findByUserIdCreatedBefore(anyString(), any(LocalDateTime.class), anyString(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        CursorPage<WorkResponse> page = workService.getMyWorks(userId, cursor, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(workRepository).findByUserIdCreatedBefore(userId, createdAt, "work999", PageRequest.of(0, 11));
+        verify(workRepository, never()).findByUserIdOrderByCreatedAtDescIdDesc(anyString(), any(Pageable.class));
     }
 
     @Test
     void testGetGalleryLatest() {
-        when(workRepository.findByIsPublicTrueOrderByCreatedAtDesc())
-                .thenReturn(Arrays.asList(testWork));
-        when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(false);
-        when(episodeRepository.countByWorkIdAndIsPublishedTrue(anyString())).thenReturn(5L);
+        GalleryItemResponse item = galleryItem("work123");
+        when(galleryFeedCache.page(eq("latest"), isNull(), eq(20)))
+                .thenReturn(new ArrayList<>(List.of(item)));
+        when(likeRepository.findLikedWorkIds(eq(userId), anyCollection())).thenReturn(List.of());
 
-        List<GalleryItemResponse> responses = workService.getGallery(userId, "latest");
+        List<GalleryItemResponse> responses = workService.getGallery(userId, "latest", null, null).getItems();
 
         assertNotNull(responses);
         assertEquals(1, responses.size());
+        assertEquals(5, responses.get(0).getEpisodeCount());
+        assertFalse(responses.get(0).getIsLiked());
 
-        verify(workRepository).findByIsPublicTrueOrderByCreatedAtDesc();
+        verifyNoInteractions(workRepository);
+        verify(episodeRepository, never()).countByWorkIdAndIsPublishedTrue(anyString());
     }
 
     @Test
     void testGetGalleryByLikes() {
-        when(workRepository.findByIsPublicTrueOrderByLikesCountDesc())
-                .thenReturn(Arrays.asList(testWork));
-        when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(false);
-        when(episodeRepository.countByWorkIdAndIsPublishedTrue(anyString())).thenReturn(5L);
+        GalleryItemResponse item = galleryItem("work123");
+        when(galleryFeedCache.page(eq("likes"), isNull(), eq(20)))
+                .thenReturn(new ArrayList<>(List.of(item)));
+        when(likeRepository.findLikedWorkIds(eq(userId), anyCollection())).thenReturn(List.of());
 
-        List<GalleryItemResponse> responses = workService.getGallery(userId, "likes");
+        List<GalleryItemResponse> responses = workService.getGallery(userId, "likes", null, null).getItems();
 
         assertNotNull(responses);
         assertEquals(1, responses.size());
 
-        verify(workRepository).findByIsPublicTrueOrderByLikesCountDesc();
+        verifyNoInteractions(workRepository);
+    }
+
+    @Test
+    void testGetGalleryMarksLikedInOneQuery() {
+        when(galleryFeedCache.page(anyString(), any(), anyInt()))
+                .thenReturn(Arrays.asList(galleryItem("work1"), galleryItem("work2"), galleryItem("work3")));
+        when(likeRepository.findLikedWorkIds(eq(userId), anyCollection())).thenReturn(List.of("work2"));
+
+        List<GalleryItemResponse> responses = workService.getGallery(userId, "latest", null, null).getItems();
+
+        assertFalse(responses.get(0).getIsLiked());
+        assertTrue(responses.get(1).getIsLiked());
+        assertFalse(responses.get(2).getIsLiked());
+        verify(likeRepository, times(1)).findLikedWorkIds(eq(userId), anyCollection());
+        verify(likeRepository, never()).existsByUserIdAndWorkId(anyString(), anyString());
+    }
+
+    @Test
+    void testGetGalleryAnonymousSkipsLikeLookup() {
+        when(galleryFeedCache.page(anyString(), any(), anyInt()))
+                .thenReturn(Arrays.asList(galleryItem("work1")));
+
+        List<GalleryItemResponse> responses = workService.getGallery(null, "latest", null, null).getItems();
+
+        assertFalse(responses.get(0).getIsLiked());
+        verifyNoInteractions(likeRepository);
+    }
+
+    @Test
+    void testGetGalleryFallsBackToDatabaseBeyondCachedWindow() {
+        GalleryItemResponse first = galleryItem("work1");
+        first.setCreatedAt(LocalDateTime.of(2024, 1, 3, 0, 0));
+        GalleryItemResponse second = galleryItem("work2");
+        second.setCreatedAt(LocalDateTime.of(2024, 1, 2, 0, 0));
+        GalleryItemResponse extra = galleryItem("work3");
+        extra.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        when(galleryFeedCache.page(anyString(), any(), anyInt())).thenReturn(null);
+        when(workRepository.findGalleryItemsOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(new ArrayList<>(List.of(first, second, extra)));
+
+        CursorPage<GalleryItemResponse> page = workService.getGallery(null, "latest", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.getHasMore());
+        assertEquals(WorkCursor.latest(second.getCreatedAt(), "work2").encode(), page.getNextCursor());
+        verify(workRepository).findGalleryItemsOrderByCreatedAtDesc(PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testGetGalleryByLikesContinuesFromCursor() {
+        String cursor = WorkCursor.likes(7, "work5").encode();
+        when(galleryFeedCache.page(anyString(), any(), anyInt())).thenReturn(null);
+        when(workRepository.findGalleryItemsLikesBelow(anyInt(), anyString(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        workService.getGallery(null, "likes", cursor, 100);
+
+        verify(workRepository).findGalleryItemsLikesBelow(7, "work5", PageRequest.of(0, 51));
+    }
+
+    @Test
+    void testGetGalleryRejectsCursorFromOtherSort() {
+        String cursor = WorkCursor.likes(7, "work5").encode();
+
+        assertThrows(BusinessException.class, () -> workService.getGallery(null, "latest", cursor, null));
+        assertThrows(BusinessException.class, () -> workService.getGallery(null, "latest", "not-a-cursor", null));
+        verifyNoInteractions(workRepository);
+    }
+
+    @Test
+    void testGetGalleryTrendingReadsPrecomputedRanking() {
+        CursorPage<GalleryItemResponse> ranked = new CursorPage<>(
+                new ArrayList<>(List.of(galleryItem("work1"), galleryItem("work2"))), null, false);
+        when(trendingService.page(isNull(), eq(20))).thenReturn(ranked);
+        when(likeRepository.findLikedWorkIds(eq(userId), anyCollection())).thenReturn(List.of("work1"));
+
+        CursorPage<GalleryItemResponse> page = workService.getGallery(userId, "trending", null, null);
+
+        assertEquals(List.of("work1", "work2"), page.getItems().stream().map(GalleryItemResponse::getId).toList());
+        assertTrue(page.getItems().get(0).getIsLiked());
+        verifyNoInteractions(workRepository, galleryFeedCache);
+    }
+
+    @Test
+    void testGetMyFavoritesMarksAllLiked() {
+        when(workRepository.findFavoriteItems(anyString(), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(List.of(galleryItem("work1"), galleryItem("work2"))));
+
+        CursorPage<GalleryItemResponse> page = workService.getMyFavorites(userId, null, null);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.getItems().stream().allMatch(GalleryItemResponse::getIsLiked));
+        verify(episodeRepository, never()).countByWorkIdAndIsPublishedTrue(anyString());
     }
 
     @Test
     void testLikeWork() {
-        when(workRepository.findById(anyString())).thenReturn(Optional.of(testWork));
+        runTransactionsInline();
+        when(workRepository.existsById("work123")).thenReturn(true);
         when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(false);
-        when(likeRepository.save(any())).thenReturn(null);
-        when(workRepository.save(any(Work.class))).thenReturn(testWork);
 
         workService.likeWork(userId, "work123");
 
-        verify(likeRepository).existsByUserIdAndWorkId(userId, "work123");
-        verify(likeRepository).save(any());
-        verify(workRepository).save(testWork);
+        verify(likeRepository).saveAndFlush(any());
+        verify(workRepository).incrementLikesCount("work123");
+        verify(workRepository, never()).save(any(Work.class));
+        verify(eventPublisher).publishEvent(any(GalleryChangeEvent.class));
     }
 
     @Test
-    void testLikeWorkAlreadyLiked() {
-        when(workRepository.findById(anyString())).thenReturn(Optional.of(testWork));
+    void testLikeWorkAlreadyLikedIsNoOp() {
+        runTransactionsInline();
+        when(workRepository.existsById("work123")).thenReturn(true);
         when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(true);
 
-        assertThrows(BusinessException.class, () -> workService.likeWork(userId, "work123"));
+        assertDoesNotThrow(() -> workService.likeWork(userId, "work123"));
 
-        verify(likeRepository).existsByUserIdAndWorkId(userId, "work123");
-        verify(likeRepository, never()).save(any());
+        verify(likeRepository, never()).saveAndFlush(any());
+        verify(workRepository, never()).incrementLikesCount(anyString());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testLikeWorkConcurrentDuplicateIsNoOp() {
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException("unique_user_work"));
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+
+        assertDoesNotThrow(() -> workService.likeWork(userId, "work123"));
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testLikeWorkNotFound() {
+        runTransactionsInline();
+        when(workRepository.existsById("missing")).thenReturn(false);
+
+        assertThrows(BusinessException.class, () -> workService.likeWork(userId, "missing"));
+
+        verify(likeRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testUnlikeWork() {
-        testWork.setLikesCount(5);
-        when(workRepository.findById(anyString())).thenReturn(Optional.of(testWork));
-        when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(true);
-        when(workRepository.save(any(Work.class))).thenReturn(testWork);
+        when(workRepository.existsById("work123")).thenReturn(true);
+        when(likeRepository.deleteLike(userId, "work123")).thenReturn(1);
 
         workService.unlikeWork(userId, "work123");
 
-        verify(likeRepository).existsByUserIdAndWorkId(userId, "work123");
-        verify(likeRepository).deleteByUserIdAndWorkId(userId, "work123");
-        verify(workRepository).save(testWork);
+        verify(workRepository).decrementLikesCount("work123");
+        verify(workRepository, never()).save(any(Work.class));
+        verify(eventPublisher).publishEvent(any(GalleryChangeEvent.class));
     }
 
     @Test
-    void testUnlikeWorkNotLiked() {
-        when(workRepository.findById(anyString())).thenReturn(Optional.of(testWork));
-        when(likeRepository.existsByUserIdAndWorkId(anyString(), anyString())).thenReturn(false);
+    void testUnlikeWorkNotLikedIsNoOp() {
+        when(workRepository.existsById("work123")).thenReturn(true);
+        when(likeRepository.deleteLike(userId, "work123")).thenReturn(0);
 
-        assertThrows(BusinessException.class, () -> workService.unlikeWork(userId, "work123"));
+        assertDoesNotThrow(() -> workService.unlikeWork(userId, "work123"));
 
-        verify(likeRepository).existsByUserIdAndWorkId(userId, "work123");
-        verify(likeRepository, never()).deleteByUserIdAndWorkId(anyString(), anyString());
+        verify(workRepository, never()).decrementLikesCount(anyString());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * TransactionTemplate 是 mock，回调直接在当前线程执行
+     */
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private GalleryItemResponse galleryItem(String workId) {
+        return new GalleryItemResponse(workId, userId, "Test Work", "Test Description", null, "anime",
+                0, 0, 5L, null, "tester", null);
+    }
+
+    private EpisodeListItem episode(String id, String workId, int number, boolean isFree) {
+        return new EpisodeListItem(id, workId, number, "Episode " + number, null,
+                isFree, isFree ? 0 : 10, true, 0);
     }
 }
@@ -0,0 +1,79 @@
+package com.aigo.simulator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderSimulatorTest {
+
+    @Test
+    void testLatencyFollowsConfiguredMedianAndP99() {
+        ProviderSimulator simulator = new ProviderSimulator(new MockEnvironment()
+                .withProperty("simulator.text2img.latency-median-ms", "1000")
+                .withProperty("simulator.text2img.latency-p99-ms", "5000"));
+
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            samples.add(simulator.sampleLatencyMs(SimulatedEndpoint.TEXT_TO_IMAGE));
+        }
+        Collections.sort(samples);
+
+        assertEquals(1000, samples.get(10000), 100);
+        assertEquals(5000, samples.get(19800), 750);
+    }
+
+    @Test
+    void testFailuresAreInjectedAtConfiguredRates() {
+        ProviderSimulator simulator = new ProviderSimulator(new MockEnvironment()
+                .withProperty("simulator.tts.latency-median-ms", "0")
+                .withProperty("simulator.tts.error-rate", "0.2")
+                .withProperty("simulator.tts.rate-limit-rate", "0.3")
+                .withProperty("simulator.retry-after-seconds", "7"));
+
+        List<CompletableFuture<ResponseEntity<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            responses.add(simulator.respond(SimulatedEndpoint.TTS, () -> "{}"));
+        }
+        int ok = 0;
+        int rateLimited = 0;
+        int failed = 0;
+        for (CompletableFuture<ResponseEntity<String>> future : responses) {
+            ResponseEntity<String> response = future.join();
+            switch (response.getStatusCode().value()) {
+                case 200 -> ok++;
+                case 429 -> {
+                    rateLimited++;
+                    assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                }
+                case 500 -> failed++;
+                default -> fail("Unexpected status " + response.getStatusCode());
+            }
+        }
+
+        assertEquals(1000, ok, 100);
+        assertEquals(600, rateLimited, 100);
+        assertEquals(400, failed, 100);
+    }
+
+    @Test
+    void testPayloadHasConfiguredSize() {
+        ProviderSimulator simulator = new ProviderSimulator(new MockEnvironment()
+                .withProperty("simulator.img2img.payload-bytes", "1048576"));
+
+        String payload = simulator.payload(SimulatedEndpoint.IMAGE_TO_IMAGE);
+
+        assertEquals(1048576, Base64.getDecoder().decode(payload).length);
+        assertSame(payload, simulator.payload(SimulatedEndpoint.IMAGE_TO_IMAGE));
+        assertEquals(SimulatedEndpoint.TTS.getDefaultPayloadBytes(),
+                Base64.getDecoder().decode(simulator.payload(SimulatedEndpoint.TTS)).length);
+    }
+}
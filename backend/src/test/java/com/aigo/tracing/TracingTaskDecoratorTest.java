@@ -0,0 +1,68 @@
+package com.aigo.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TracingTaskDecoratorTest {
+
+    @Mock
+    private ObjectProvider<Tracer> tracerProvider;
+
+    private final SimpleTracer tracer = new SimpleTracer();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        when(tracerProvider.getIfAvailable(any())).thenReturn(tracer);
+        executor = new DecoratingExecutorService(Executors.newSingleThreadExecutor(),
+                new TracingTaskDecorator(tracerProvider));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSubmitterSpanIsCurrentInTask() {
+        Span parent = tracer.nextSpan().name("episode").start();
+        CompletableFuture<Span> seen;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(parent)) {
+            seen = CompletableFuture.supplyAsync(tracer::currentSpan, executor);
+        }
+
+        assertEquals(parent.context().spanId(), seen.join().context().spanId());
+        assertNull(CompletableFuture.supplyAsync(tracer::currentSpan, executor).join());
+    }
+
+    @Test
+    void testChildSpanInTaskJoinsSubmitterTrace() {
+        Span parent = tracer.nextSpan().name("episode").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(parent)) {
+            CompletableFuture.runAsync(() -> tracer.nextSpan().name("scene-image").start().end(), executor).join();
+        }
+
+        SimpleSpan child = tracer.getSpans().stream()
+                .filter(s -> s.getName().equals("scene-image")).findFirst().orElseThrow();
+        assertEquals(parent.context().traceId(), child.getTraceId());
+        assertEquals(parent.context().spanId(), child.getParentId());
+    }
+}
@@ -12,7 +12,7 @@ CREATE TABLE IF NOT EXISTS users (
     username VARCHAR(20) UNIQUE NOT NULL COMMENT '用户名',
     email VARCHAR(255) UNIQUE NOT NULL COMMENT '邮箱',
     password_hash VARCHAR(255) NOT NULL COMMENT '密码哈希值',
-    coin_balance INTEGER DEFAULT 100 NOT NULL COMMENT '金币余额',
+    coin_balance INTEGER DEFAULT 100 NOT NULL COMMENT '期初金币（建立余额快照时读取，之后的变动记在金币流水）',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
     INDEX idx_username (username),
@@ -29,13 +29,17 @@ CREATE TABLE IF NOT EXISTS works (
     cover_image VARCHAR(500) COMMENT '封面图片URL',
     likes_count INTEGER DEFAULT 0 NOT NULL COMMENT '点赞数',
     views_count INTEGER DEFAULT 0 NOT NULL COMMENT '浏览数',
+    comments_count INTEGER DEFAULT 0 NOT NULL COMMENT '评论数（随评论新增、删除原子增减）',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_is_public (is_public),
     INDEX idx_created_at (created_at),
-    INDEX idx_likes_count (likes_count)
+    INDEX idx_likes_count (likes_count),
+    INDEX idx_works_public_created (is_public, created_at, id),
+    INDEX idx_works_public_likes (is_public, likes_count, id),
+    INDEX idx_works_user_created (user_id, created_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='作品表';
 
 -- 集数表
@@ -46,9 +50,11 @@ CREATE TABLE IF NOT EXISTS episodes (
     title VARCHAR(100) NOT NULL COMMENT '集数标题',
     novel_text TEXT NOT NULL COMMENT '小说文本',
     scenes JSON COMMENT '场景数据',
+    scene_count INTEGER COMMENT '场景数量（随 scenes 写入，列表页使用）',
     is_free BOOLEAN DEFAULT TRUE NOT NULL COMMENT '是否免费',
     coin_price INTEGER DEFAULT 0 NOT NULL COMMENT '金币价格',
     is_published BOOLEAN DEFAULT FALSE NOT NULL COMMENT '是否已发布',
+    comments_count INTEGER DEFAULT 0 NOT NULL COMMENT '评论数（随评论新增、删除原子增减）',
     status VARCHAR(20) DEFAULT 'PENDING' COMMENT '集数状态 (PENDING/PROCESSING/COMPLETED/FAILED)',
     characters JSON COMMENT '角色信息 (JSON数组)',
     plot_summary TEXT COMMENT '剧情摘要',
@@ -79,6 +85,28 @@ CREATE TABLE IF NOT EXISTS purchases (
     INDEX idx_purchased_at (purchased_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='购买记录表';
 
+-- 金币流水表
+CREATE TABLE IF NOT EXISTS coin_transactions (
+    id VARCHAR(36) PRIMARY KEY COMMENT '流水唯一标识',
+    user_id VARCHAR(36) NOT NULL COMMENT '用户ID',
+    amount INTEGER NOT NULL COMMENT '变动金币数（扣减为负数）',
+    type VARCHAR(20) NOT NULL COMMENT '类型 (RECHARGE/PURCHASE)',
+    reference_id VARCHAR(36) COMMENT '关联业务ID（购买时为集数ID）',
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL COMMENT '发生时间（微秒精度，与 as_of 一致）',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_coin_tx_user_created (user_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='金币流水表';
+
+-- 金币余额快照表
+CREATE TABLE IF NOT EXISTS coin_balance_snapshots (
+    user_id VARCHAR(36) PRIMARY KEY COMMENT '用户ID',
+    balance INTEGER NOT NULL COMMENT 'as_of 之前的流水合计（含期初金币）',
+    as_of TIMESTAMP(6) NOT NULL COMMENT '快照截止时间',
+    version BIGINT COMMENT '乐观锁版本号',
+    updated_at TIMESTAMP NOT NULL COMMENT '更新时间',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='金币余额快照表';
+
 -- 点赞表
 CREATE TABLE IF NOT EXISTS likes (
     id VARCHAR(36) PRIMARY KEY COMMENT '点赞记录唯一标识',
@@ -92,6 +120,20 @@ CREATE TABLE IF NOT EXISTS likes (
     INDEX idx_work_id (work_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='点赞表';
 
+-- 评论表
+CREATE TABLE IF NOT EXISTS comments (
+    id VARCHAR(36) PRIMARY KEY COMMENT '评论唯一标识',
+    target_type VARCHAR(20) NOT NULL COMMENT '评论对象类型 (work/episode)',
+    target_id VARCHAR(36) NOT NULL COMMENT '评论对象ID',
+    user_id VARCHAR(36) NOT NULL COMMENT '评论者ID',
+    content TEXT NOT NULL COMMENT '评论内容',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '评论时间',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_target_created (target_type, target_id, created_at),
+    INDEX idx_user_id (user_id),
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='评论表';
+
 -- 角色表
 CREATE TABLE IF NOT EXISTS characters (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '角色唯一标识',
@@ -150,11 +192,16 @@ CREATE TABLE IF NOT EXISTS scenes (
 --    - idx_is_public: 用于作品广场只显示公开作品
 --    - idx_created_at: 用于作品广场按时间排序
 --    - idx_likes_count: 用于作品广场按点赞数排序
+--    - idx_works_public_created / idx_works_public_likes: 作品广场游标分页，
+--      按 (排序键, id) 从上一页末尾继续扫描，不依赖 OFFSET
+--    - idx_works_user_created: 我的作品游标分页
 --
 -- 3. episodes表：
 --    - idx_work_id: 用于查询作品的所有集数
 --    - idx_is_published: 用于查询已发布的集数数量
 --    - unique_work_episode: 保证同一作品的集数编号唯一
+--    - scene_count: 已有数据由应用启动后的 EpisodeSceneCountBackfill 按 scenes 长度自动回填，
+--      也可手动执行 UPDATE episodes SET scene_count = JSON_LENGTH(scenes) WHERE scene_count IS NULL
 --
 -- 4. purchases表：
 --    - idx_user_id: 用于查询用户的购买记录
@@ -162,11 +209,24 @@ CREATE TABLE IF NOT EXISTS scenes (
 --    - idx_purchased_at: 用于按购买时间排序
 --    - unique_user_episode: 防止重复购买
 --
+-- 4.1 coin_transactions表：
+--    - idx_coin_tx_user_created: 按用户查询金币流水，以及汇总快照之后的流水
+--    - created_at 与 coin_balance_snapshots.as_of 均为 TIMESTAMP(6)，已建表的库需执行
+--      ALTER TABLE coin_transactions MODIFY created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+--
 -- 5. likes表：
 --    - idx_user_id: 用于查询用户点赞的作品
 --    - idx_work_id: 用于查询作品被哪些用户点赞
 --    - unique_user_work: 防止重复点赞
 --
+-- 5.1 comments表：
+--    - idx_target_created: 评论列表按 (created_at, id) 游标分页，替代原 idx_target (target_type, target_id)
+--    - target_type 统一以小写 work / episode 存储，早期按请求原样写入的数据需先执行
+--      UPDATE comments SET target_type = LOWER(target_type) WHERE target_type <> LOWER(target_type) COLLATE utf8mb4_bin
+--    - works.comments_count / episodes.comments_count 为缓存的评论数，已有数据可执行
+--      UPDATE works w SET comments_count = (SELECT COUNT(*) FROM comments c WHERE c.target_type = 'work' AND c.target_id = w.id)
+--      回填，episodes 同理
+--
 -- 6. characters表：
 --    - idx_work_id: 用于查询作品的所有角色
 --    - idx_name: 用于根据角色名称查询
@@ -186,7 +246,10 @@ CREATE TABLE IF NOT EXISTS scenes (
 -- 5. 金币系统：
 --    - 新用户注册获得100金币
 --    - 购买付费集数扣除相应金币
---    - 金币不足无法购买
+--    - 每次充值、购买追加一条金币流水，流水只追加不修改，是余额的唯一来源
+--    - 余额 = coin_balance_snapshots.balance + as_of 之后的流水合计，定时任务推进快照
+--    - 首次访问金币时以 users.coin_balance 为期初余额建立快照，此后 users.coin_balance 不再变动
+--    - 金币不足无法购买：扣减时锁定该用户的快照行再校验余额，不会出现负数
 -- 6. 角色管理：
 --    - 角色可以关联到作品（work_id）
 --    - 支持详细的外观、性格、体征等属性
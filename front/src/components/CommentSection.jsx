@@ -8,7 +8,10 @@ function CommentSection({ targetType, targetId }) {
   const { user, isAuthenticated } = useAuth()
   const navigate = useNavigate()
   const [comments, setComments] = useState([])
+  const [totalCount, setTotalCount] = useState(0)
+  const [nextCursor, setNextCursor] = useState(null)
   const [loading, setLoading] = useState(true)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [error, setError] = useState('')
   const [commentText, setCommentText] = useState('')
   const [submitting, setSubmitting] = useState(false)
@@ -27,7 +30,9 @@ function CommentSection({ targetType, targetId }) {
       const result = await api.getComments(targetType, targetId)
       
       if (result.success) {
-        setComments(result.data || [])
+        setComments(result.data.items)
+        setTotalCount(result.data.totalCount)
+        setNextCursor(result.data.nextCursor)
       } else {
         setError(result.error?.message || '加载评论失败')
       }
@@ -40,6 +45,27 @@ function CommentSection({ targetType, targetId }) {
     }
   }
 
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return
+    setLoadingMore(true)
+
+    try {
+      const result = await api.getComments(targetType, targetId, { cursor: nextCursor })
+
+      if (result.success) {
+        setComments(prevComments => [...prevComments, ...result.data.items])
+        setTotalCount(result.data.totalCount)
+        setNextCursor(result.data.nextCursor)
+      } else {
+        setError(result.error?.message || '加载评论失败')
+      }
+    } catch (err) {
+      setError('加载评论时发生错误')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleSubmitComment = async () => {
     if (!isAuthenticated()) {
       navigate('/login')
@@ -59,6 +85,7 @@ function CommentSection({ targetType, targetId }) {
       
       if (result.success && result.data) {
         setComments(prevComments => [result.data, ...prevComments])
+        setTotalCount(count => count + 1)
       } else {
         setError(result.error?.message || '发表评论失败')
         setCommentText(content)
@@ -77,17 +104,21 @@ function CommentSection({ targetType, targetId }) {
     }
 
     const previousComments = comments
+    const previousCount = totalCount
     setComments(prevComments => prevComments.filter(c => c.id !== commentId))
+    setTotalCount(count => Math.max(count - 1, 0))
 
     try {
       const result = await api.deleteComment(commentId)
       
       if (!result.success) {
         setComments(previousComments)
+        setTotalCount(previousCount)
         setError(result.error?.message || '删除评论失败')
       }
     } catch (err) {
       setComments(previousComments)
+      setTotalCount(previousCount)
       setError('删除评论时发生错误')
     }
   }
@@ -113,7 +144,7 @@ function CommentSection({ targetType, targetId }) {
     <div className="comment-section">
       <h3 className="comment-section-title">
         评论 
-        <span className="comment-count">({comments.length})</span>
+        <span className="comment-count">({totalCount})</span>
       </h3>
 
       {isAuthenticated() && (
@@ -198,6 +229,14 @@ function CommentSection({ targetType, targetId }) {
           ))}
         </div>
       )}
+
+      {nextCursor && (
+        <div className="load-more">
+          <button onClick={loadMore} className="btn btn-secondary" disabled={loadingMore}>
+            {loadingMore ? '加载中...' : '加载更多'}
+          </button>
+        </div>
+      )}
     </div>
   )
 }
@@ -17,6 +17,8 @@ function Navigation({ userBalance }) {
   }
   
   const handleLogout = () => {
+    // 服务端注销失败不影响本地退出
+    api.logout().catch(() => {})
     logout()
     navigate('/login')
     setMobileMenuOpen(false)
@@ -214,13 +214,8 @@ function EpisodeViewer() {
           const workResult = await api.getWork(result.data.workId)
           if (workResult.success) {
             setWork(workResult.data)
-          }
-          
-          const myWorksResult = await api.getMyWorks()
-          if (myWorksResult.success && myWorksResult.data) {
-            const currentWork = myWorksResult.data.find(w => w.id === result.data.workId)
-            if (currentWork && currentWork.episodes) {
-              setEpisodes(currentWork.episodes)
+            if (workResult.data.episodes) {
+              setEpisodes(workResult.data.episodes)
             }
           }
         }
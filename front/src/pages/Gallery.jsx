@@ -4,6 +4,12 @@ import { useAuth } from '../contexts/AuthContext'
 import api from '../services/api'
 import './Gallery.css'
 
+const SORT_LABELS = {
+  latest: '最新发布',
+  likes: '最多点赞',
+  trending: '热门趋势'
+}
+
 function Gallery() {
   const navigate = useNavigate()
   const location = useLocation()
@@ -12,6 +18,8 @@ function Gallery() {
   const [sortBy, setSortBy] = useState('latest')
   const [contentType, setContentType] = useState('all')
   const [loading, setLoading] = useState(true)
+  const [loadingMore, setLoadingMore] = useState(false)
+  const [nextCursor, setNextCursor] = useState(null)
   const [error, setError] = useState('')
   const [dropdownOpen, setDropdownOpen] = useState(false)
 
@@ -19,6 +27,13 @@ function Gallery() {
     loadGallery()
   }, [sortBy, contentType])
 
+  const filterByContentType = (items) => {
+    if (contentType === 'all') {
+      return items
+    }
+    return items.filter(work => work.contentType === contentType)
+  }
+
   const loadGallery = async () => {
     setLoading(true)
     setError('')
@@ -27,11 +42,8 @@ function Gallery() {
       const result = await api.getGallery({ sortBy })
       
       if (result.success) {
-        let filteredWorks = result.data
-        if (contentType !== 'all') {
-          filteredWorks = filteredWorks.filter(work => work.contentType === contentType)
-        }
-        setWorks(filteredWorks)
+        setWorks(filterByContentType(result.data.items))
+        setNextCursor(result.data.nextCursor)
       } else {
         setError(result.error?.message || '加载失败')
       }
@@ -42,6 +54,26 @@ function Gallery() {
     }
   }
 
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return
+    setLoadingMore(true)
+    
+    try {
+      const result = await api.getGallery({ sortBy, cursor: nextCursor })
+      
+      if (result.success) {
+        setWorks(prev => [...prev, ...filterByContentType(result.data.items)])
+        setNextCursor(result.data.nextCursor)
+      } else {
+        setError(result.error?.message || '加载失败')
+      }
+    } catch (err) {
+      setError('加载作品广场时发生错误')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleLike = async (workId) => {
     if (!isAuthenticated()) {
       navigate('/login', { state: { from: location } })
@@ -123,7 +155,7 @@ function Gallery() {
                 className="dropdown-trigger"
                 onClick={() => setDropdownOpen(!dropdownOpen)}
               >
-                <span>{sortBy === 'latest' ? '最新发布' : '最多点赞'}</span>
+                <span>{SORT_LABELS[sortBy]}</span>
                 <svg className="dropdown-icon" viewBox="0 0 24 24" fill="none" xmlns="http://www.w3.org/2000/svg">
                   <path d="M6 9l6 6 6-6" stroke="currentColor" strokeWidth="2" strokeLinecap="round" strokeLinejoin="round"/>
                 </svg>
@@ -142,6 +174,12 @@ function Gallery() {
                   >
                     最多点赞
                   </div>
+                  <div 
+                    className={`dropdown-item ${sortBy === 'trending' ? 'active' : ''}`}
+                    onClick={() => { setSortBy('trending'); setDropdownOpen(false); }}
+                  >
+                    热门趋势
+                  </div>
                 </div>
               )}
             </div>
@@ -226,6 +264,14 @@ function Gallery() {
             ))}
           </div>
         )}
+
+        {nextCursor && (
+          <div className="load-more">
+            <button onClick={loadMore} className="btn btn-secondary" disabled={loadingMore}>
+              {loadingMore ? '加载中...' : '加载更多'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   )
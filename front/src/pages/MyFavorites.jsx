@@ -10,6 +10,8 @@ function MyFavorites() {
   const { isAuthenticated } = useAuth()
   const [works, setWorks] = useState([])
   const [loading, setLoading] = useState(true)
+  const [loadingMore, setLoadingMore] = useState(false)
+  const [nextCursor, setNextCursor] = useState(null)
   const [error, setError] = useState('')
 
   useEffect(() => {
@@ -24,7 +26,8 @@ function MyFavorites() {
       const result = await api.getMyFavorites()
       
       if (result.success) {
-        setWorks(result.data)
+        setWorks(result.data.items)
+        setNextCursor(result.data.nextCursor)
       } else {
         setError(result.error?.message || '加载失败')
       }
@@ -35,6 +38,26 @@ function MyFavorites() {
     }
   }
 
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return
+    setLoadingMore(true)
+    
+    try {
+      const result = await api.getMyFavorites({ cursor: nextCursor })
+      
+      if (result.success) {
+        setWorks(prev => [...prev, ...result.data.items])
+        setNextCursor(result.data.nextCursor)
+      } else {
+        setError(result.error?.message || '加载失败')
+      }
+    } catch (err) {
+      setError('加载我的收藏时发生错误')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleUnlike = async (workId) => {
     try {
       const result = await api.unlikeWork(workId)
@@ -132,6 +155,14 @@ function MyFavorites() {
             ))}
           </div>
         )}
+
+        {nextCursor && (
+          <div className="load-more">
+            <button onClick={loadMore} className="btn btn-secondary" disabled={loadingMore}>
+              {loadingMore ? '加载中...' : '加载更多'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   )
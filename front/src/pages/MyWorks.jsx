@@ -8,6 +8,8 @@ function MyWorks() {
   const navigate = useNavigate()
   const [works, setWorks] = useState([])
   const [loading, setLoading] = useState(true)
+  const [loadingMore, setLoadingMore] = useState(false)
+  const [nextCursor, setNextCursor] = useState(null)
   const [error, setError] = useState('')
   const [modal, setModal] = useState({ isOpen: false, type: 'alert', title: '', message: '', onConfirm: null })
   const [deletingWorkId, setDeletingWorkId] = useState(null)
@@ -24,7 +26,8 @@ function MyWorks() {
       const result = await api.getMyWorks()
       
       if (result.success) {
-        setWorks(result.data)
+        setWorks(result.data.items)
+        setNextCursor(result.data.nextCursor)
       } else {
         setError(result.error?.message || '加载失败')
       }
@@ -35,6 +38,26 @@ function MyWorks() {
     }
   }
 
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return
+    setLoadingMore(true)
+    
+    try {
+      const result = await api.getMyWorks({ cursor: nextCursor })
+      
+      if (result.success) {
+        setWorks(prev => [...prev, ...result.data.items])
+        setNextCursor(result.data.nextCursor)
+      } else {
+        setError(result.error?.message || '加载失败')
+      }
+    } catch (err) {
+      setError('加载我的作品时发生错误')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleEditWork = (workId) => {
     navigate(`/work/${workId}/edit`)
   }
@@ -214,6 +237,14 @@ function MyWorks() {
             ))}
           </div>
         )}
+
+        {nextCursor && (
+          <div className="load-more">
+            <button onClick={loadMore} className="btn btn-secondary" disabled={loadingMore}>
+              {loadingMore ? '加载中...' : '加载更多'}
+            </button>
+          </div>
+        )}
       </div>
 
       <Modal
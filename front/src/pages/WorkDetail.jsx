@@ -203,7 +203,7 @@ function WorkDetail() {
                   
                   <div className="episode-content">
                     <h3 className="episode-title">{episode.title}</h3>
-                    <p className="episode-description">{episode.novelText || '暂无简介'}</p>
+                    <p className="episode-description">{episode.summary || '暂无简介'}</p>
                     
                     <div className="episode-meta">
                       {episode.isFree ? (
@@ -61,13 +61,7 @@ function WorkEditor() {
         setWorkDescription(workResult.data.description || '')
         setIsPublic(workResult.data.isPublic || false)
         
-        const myWorksResult = await api.getMyWorks()
-        if (myWorksResult.success && myWorksResult.data) {
-          const currentWork = myWorksResult.data.find(w => w.id === workId)
-          if (currentWork) {
-            setEpisodes(currentWork.episodes || [])
-          }
-        }
+        setEpisodes(workResult.data.episodes || [])
         
         const charactersResult = await api.getWorkCharacters(workId)
         if (charactersResult.success && charactersResult.data) {
@@ -84,6 +78,13 @@ function WorkEditor() {
     }
   }
 
+  const reloadEpisodes = async () => {
+    const workResult = await api.getWork(workId)
+    if (workResult.success && workResult.data) {
+      setEpisodes(workResult.data.episodes || [])
+    }
+  }
+
   const handleUpdateWork = async () => {
     if (!workTitle.trim()) {
       setError('请输入作品标题')
@@ -188,13 +189,7 @@ function WorkEditor() {
         })
         
         if (result.success) {
-          const myWorksResult = await api.getMyWorks()
-          if (myWorksResult.success && myWorksResult.data) {
-            const currentWork = myWorksResult.data.find(w => w.id === workId)
-            if (currentWork) {
-              setEpisodes(currentWork.episodes || [])
-            }
-          }
+          await reloadEpisodes()
           setShowEpisodeForm(false)
           setModal({ isOpen: true, type: 'alert', title: '成功', message: '集数已更新', onConfirm: null })
         } else {
@@ -210,13 +205,7 @@ function WorkEditor() {
         })
         
         if (result.success) {
-          const myWorksResult = await api.getMyWorks()
-          if (myWorksResult.success && myWorksResult.data) {
-            const currentWork = myWorksResult.data.find(w => w.id === workId)
-            if (currentWork) {
-              setEpisodes(currentWork.episodes || [])
-            }
-          }
+          await reloadEpisodes()
           setShowEpisodeForm(false)
           navigate(`/episode/${result.data.id}`)
         } else {
@@ -249,13 +238,7 @@ function WorkEditor() {
       const result = await api.publishEpisode(episodeId)
       
       if (result.success) {
-        const myWorksResult = await api.getMyWorks()
-        if (myWorksResult.success && myWorksResult.data) {
-          const currentWork = myWorksResult.data.find(w => w.id === workId)
-          if (currentWork) {
-            setEpisodes(currentWork.episodes || [])
-          }
-        }
+        await reloadEpisodes()
         setModal({ isOpen: true, type: 'alert', title: '成功', message: '集数已发布', onConfirm: null })
       } else {
         setError(result.error?.message || '发布失败')
@@ -774,7 +757,7 @@ function WorkEditor() {
                         {episode.isFree ? '免费' : `${episode.coinPrice}金币`}
                       </span>
                       <span className="badge badge-secondary">
-                        {episode.scenes?.length || 0}个场景
+                        {episode.sceneCount || 0}个场景
                       </span>
                     </div>
                   </div>
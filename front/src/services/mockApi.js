@@ -2,6 +2,23 @@ import { mockData } from './mockData'
 
 const delay = (ms) => new Promise(resolve => setTimeout(resolve, ms))
 
+const paginate = (items, { cursor, limit = 20 } = {}) => {
+  const start = cursor ? parseInt(cursor, 10) || 0 : 0
+  const end = start + limit
+  const hasMore = end < items.length
+  return {
+    items: items.slice(start, end),
+    nextCursor: hasMore ? String(end) : null,
+    hasMore
+  }
+}
+
+const toEpisodeListItem = ({ novelText, scenes, ...episode }) => ({
+  ...episode,
+  summary: novelText ? novelText.slice(0, 100) : '',
+  sceneCount: scenes?.length || 0
+})
+
 export const mockApi = {
   async login(username, password) {
     await delay(500)
@@ -18,6 +35,11 @@ export const mockApi = {
     }
   },
 
+  async logout() {
+    await delay(100)
+    return { success: true, data: { message: '已退出登录' } }
+  },
+
   async register(username, email, password) {
     await delay(500)
     const user = {
@@ -58,7 +80,7 @@ export const mockApi = {
     if (work) {
       return {
         success: true,
-        data: work
+        data: { ...work, episodes: mockData.getEpisodes(workId).map(toEpisodeListItem) }
       }
     }
     return {
@@ -264,7 +286,7 @@ export const mockApi = {
     }
   },
 
-  async getMyWorks() {
+  async getMyWorks(options = {}) {
     await delay(300)
     const user = mockData.getCurrentUser()
     const allWorks = mockData.getWorks()
@@ -272,12 +294,12 @@ export const mockApi = {
     
     const worksWithEpisodes = myWorks.map(work => ({
       ...work,
-      episodes: mockData.getEpisodes(work.id)
+      episodes: mockData.getEpisodes(work.id).map(toEpisodeListItem)
     }))
     
     return {
       success: true,
-      data: worksWithEpisodes
+      data: paginate(worksWithEpisodes, options)
     }
   },
 
@@ -288,7 +310,7 @@ export const mockApi = {
     const publicWorks = allWorks.filter(w => w.isPublic)
     
     let sorted = [...publicWorks]
-    if (sortBy === 'likes') {
+    if (sortBy === 'likes' || sortBy === 'trending') {
       sorted.sort((a, b) => (b.likesCount || 0) - (a.likesCount || 0))
     } else {
       sorted.sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt))
@@ -303,7 +325,7 @@ export const mockApi = {
     
     return {
       success: true,
-      data: worksWithLikeStatus
+      data: paginate(worksWithLikeStatus, options)
     }
   },
 
@@ -372,14 +394,9 @@ export const mockApi = {
       }
     }
     
-    if (mockData.hasLiked(workId)) {
-      return {
-        success: false,
-        error: { message: '您已点赞过此作品', code: 'ALREADY_LIKED' }
-      }
+    if (!mockData.hasLiked(workId)) {
+      mockData.likeWork(workId)
     }
-    
-    mockData.likeWork(workId)
     return {
       success: true,
       data: { message: '点赞成功' }
@@ -397,14 +414,9 @@ export const mockApi = {
       }
     }
     
-    if (!mockData.hasLiked(workId)) {
-      return {
-        success: false,
-        error: { message: '您未点赞过此作品', code: 'NOT_LIKED' }
-      }
+    if (mockData.hasLiked(workId)) {
+      mockData.unlikeWork(workId)
     }
-    
-    mockData.unlikeWork(workId)
     return {
       success: true,
       data: { message: '取消点赞成功' }
@@ -42,6 +42,17 @@ const request = async (endpoint, options = {}) => {
   }
 }
 
+const pageQuery = (params = {}) => {
+  const query = new URLSearchParams()
+  Object.entries(params).forEach(([key, value]) => {
+    if (value !== undefined && value !== null && value !== '') {
+      query.append(key, value)
+    }
+  })
+  const queryString = query.toString()
+  return queryString ? `?${queryString}` : ''
+}
+
 export const realApi = {
   async register(username, email, password) {
     return await request('/api/auth/register', {
@@ -59,6 +70,12 @@ export const realApi = {
     })
   },
 
+  async logout() {
+    return await request('/api/auth/logout', {
+      method: 'POST'
+    })
+  },
+
   async getUserBalance() {
     return await request('/api/user/balance')
   },
@@ -111,17 +128,17 @@ export const realApi = {
     })
   },
 
-  async getMyWorks() {
-    return await request('/api/my-works')
+  async getMyWorks(options = {}) {
+    return await request(`/api/my-works${pageQuery(options)}`)
   },
 
-  async getMyFavorites() {
-    return await request('/api/my-favorites')
+  async getMyFavorites(options = {}) {
+    return await request(`/api/my-favorites${pageQuery(options)}`)
   },
 
   async getGallery(options = {}) {
-    const { sortBy = 'latest' } = options
-    return await request(`/api/gallery?sortBy=${sortBy}`)
+    const { sortBy = 'latest', ...page } = options
+    return await request(`/api/gallery${pageQuery({ sortBy, ...page })}`)
   },
 
   async purchaseEpisode(episodeId) {
@@ -193,8 +210,8 @@ export const realApi = {
     })
   },
 
-  async getComments(targetType, targetId) {
-    return await request(`/api/comments/${targetType}/${targetId}`)
+  async getComments(targetType, targetId, options = {}) {
+    return await request(`/api/comments/${targetType}/${targetId}${pageQuery(options)}`)
   },
 
   async createComment(targetType, targetId, content) {